@@ -109,6 +109,7 @@ CREATE TABLE `pa_application_callback` (
   `application_id` bigint(20) NOT NULL,
   `name` varchar(255) DEFAULT NULL,
   `callback_url` text NOT NULL,
+  `batched` int(11) NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8;
 
@@ -137,6 +138,85 @@ CREATE TABLE `pa_activation_history` (
   `activation_status` int(11) NOT NULL,
   `timestamp_created` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`),
-  KEY `K_HISTORY_ACTIVATION_ID` (`activation_id`),
+  KEY `K_HISTORY_ACTIVATION_CREATED` (`activation_id`, `timestamp_created`),
   CONSTRAINT `FK_HISTORY_ACTIVATION_ID` FOREIGN KEY (`activation_id`) REFERENCES `pa_activation` (`activation_id`) ON DELETE CASCADE ON UPDATE NO ACTION
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
+--
+-- Create table used for allocation of activation history identifiers in blocks when the new identifier generators
+-- are enabled (spring.jpa.hibernate.use-new-id-generator-mappings=true), see migrate_pooled_identifiers.sql
+--
+
+CREATE TABLE `pa_activation_history_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `pa_activation_history_seq` (`next_val`) VALUES (1);
+
+--
+-- Create table for aggregated signature statistics
+--
+
+CREATE TABLE `pa_signature_statistics` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `application_id` bigint(20) NOT NULL,
+  `statistics_date` date NOT NULL,
+  `signature_type` varchar(255) NOT NULL,
+  `valid` int(11) NOT NULL DEFAULT 0,
+  `note` varchar(255) NOT NULL,
+  `signature_count` bigint(20) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `K_STATISTICS_BUCKET` (`application_id`, `statistics_date`, `signature_type`, `valid`, `note`),
+  CONSTRAINT `FK_STATISTICS_APPLICATION_ID` FOREIGN KEY (`application_id`) REFERENCES `pa_application` (`id`) ON DELETE CASCADE ON UPDATE NO ACTION
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
+--
+-- Create table for callback notifications waiting for delivery
+--
+
+CREATE TABLE `pa_callback_outbox` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `callback_url` text NOT NULL,
+  `batched` int(11) NOT NULL DEFAULT 0,
+  `activation_id` varchar(37) NOT NULL,
+  `activation_status` int(11) DEFAULT NULL,
+  `timestamp_created` datetime NOT NULL,
+  `timestamp_claim_expires` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
+--
+-- Create tables used for allocation of identifiers when the new identifier generators are enabled
+-- (spring.jpa.hibernate.use-new-id-generator-mappings=true), see migrate_pooled_identifiers.sql
+--
+
+CREATE TABLE `pa_application_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `pa_application_version_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `pa_master_keypair_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `pa_signature_audit_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `pa_signature_statistics_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE `pa_callback_outbox_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `pa_application_seq` (`next_val`) VALUES (1);
+INSERT INTO `pa_application_version_seq` (`next_val`) VALUES (1);
+INSERT INTO `pa_master_keypair_seq` (`next_val`) VALUES (1);
+INSERT INTO `pa_signature_audit_seq` (`next_val`) VALUES (1);
+INSERT INTO `pa_signature_statistics_seq` (`next_val`) VALUES (1);
+INSERT INTO `pa_callback_outbox_seq` (`next_val`) VALUES (1);
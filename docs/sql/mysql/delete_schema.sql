@@ -3,6 +3,7 @@
 --
 
 DROP TABLE IF EXISTS `pa_activation_history`;
+DROP TABLE IF EXISTS `pa_signature_statistics`;
 DROP TABLE IF EXISTS `pa_application_version`;
 DROP TABLE IF EXISTS `pa_master_keypair`;
 DROP TABLE IF EXISTS `pa_signature_audit`;
@@ -11,6 +12,7 @@ DROP TABLE IF EXISTS `pa_activation`;
 DROP TABLE IF EXISTS `pa_application`;
 DROP TABLE IF EXISTS `pa_integration`;
 DROP TABLE IF EXISTS `pa_application_callback`;
+DROP TABLE IF EXISTS `pa_callback_outbox`;
 
 --
 -- Drop sequence tables if they exist.
@@ -21,3 +23,5 @@ DROP TABLE IF EXISTS `pa_application_version_seq`;
 DROP TABLE IF EXISTS `pa_master_keypair_seq`;
 DROP TABLE IF EXISTS `pa_signature_audit_seq`;
 DROP TABLE IF EXISTS `pa_activation_history_seq`;
+DROP TABLE IF EXISTS `pa_signature_statistics_seq`;
+DROP TABLE IF EXISTS `pa_callback_outbox_seq`;
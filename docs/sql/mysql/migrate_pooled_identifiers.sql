@@ -0,0 +1,50 @@
+--
+-- Migration of an existing database to the new identifier generators with pooled allocation of identifiers
+-- (spring.jpa.hibernate.use-new-id-generator-mappings=true). Run the script while all server instances are stopped.
+--
+-- Identifiers of applications, master key pairs, signature audit records and activation history records are
+-- allocated in blocks of 50, identifiers of the remaining tables one by one. The tables keep the AUTO_INCREMENT
+-- columns, values are allocated using the sequence tables below, which are initialized with the next free identifier.
+--
+
+CREATE TABLE IF NOT EXISTS `pa_application_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_application_seq`;
+INSERT INTO `pa_application_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_application`;
+
+CREATE TABLE IF NOT EXISTS `pa_application_version_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_application_version_seq`;
+INSERT INTO `pa_application_version_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_application_version`;
+
+CREATE TABLE IF NOT EXISTS `pa_master_keypair_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_master_keypair_seq`;
+INSERT INTO `pa_master_keypair_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_master_keypair`;
+
+CREATE TABLE IF NOT EXISTS `pa_signature_audit_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_signature_audit_seq`;
+INSERT INTO `pa_signature_audit_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_signature_audit`;
+
+CREATE TABLE IF NOT EXISTS `pa_activation_history_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_activation_history_seq`;
+INSERT INTO `pa_activation_history_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_activation_history`;
+
+CREATE TABLE IF NOT EXISTS `pa_signature_statistics_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_signature_statistics_seq`;
+INSERT INTO `pa_signature_statistics_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_signature_statistics`;
+
+CREATE TABLE IF NOT EXISTS `pa_callback_outbox_seq` (
+  `next_val` bigint(20) DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+DELETE FROM `pa_callback_outbox_seq`;
+INSERT INTO `pa_callback_outbox_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `pa_callback_outbox`;
@@ -1,11 +1,13 @@
 --
 --  Create sequences.
 --
-CREATE SEQUENCE "PA_APPLICATION_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
+CREATE SEQUENCE "PA_APPLICATION_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20 NOORDER NOCYCLE;
 CREATE SEQUENCE "PA_APPLICATION_VERSION_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
-CREATE SEQUENCE "PA_MASTER_KEYPAIR_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
-CREATE SEQUENCE "PA_SIGNATURE_AUDIT_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
-CREATE SEQUENCE "PA_ACTIVATION_HISTORY_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
+CREATE SEQUENCE "PA_MASTER_KEYPAIR_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20 NOORDER NOCYCLE;
+CREATE SEQUENCE "PA_SIGNATURE_AUDIT_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20 NOORDER NOCYCLE;
+CREATE SEQUENCE "PA_ACTIVATION_HISTORY_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20 NOORDER NOCYCLE;
+CREATE SEQUENCE "PA_SIGNATURE_STATISTICS_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
+CREATE SEQUENCE "PA_CALLBACK_OUTBOX_SEQ" MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20 NOORDER NOCYCLE;
 --
 --  DDL for Table PA_ACTIVATION
 --
@@ -106,7 +108,8 @@ CREATE TABLE "PA_APPLICATION_CALLBACK"
     "ID"                 VARCHAR2(37 CHAR) NOT NULL PRIMARY KEY,
     "APPLICATION_ID"     NUMBER(19,0) NOT NULL,
     "NAME"               VARCHAR2(255 CHAR),
-    "CALLBACK_URL"       VARCHAR2(1024 CHAR)
+    "CALLBACK_URL"       VARCHAR2(1024 CHAR),
+    "BATCHED"            NUMBER(1,0) DEFAULT 0 NOT NULL
 );
 
 --
@@ -133,6 +136,34 @@ CREATE TABLE "PA_ACTIVATION_HISTORY"
     "TIMESTAMP_CREATED"  TIMESTAMP (6) NOT NULL
 );
 
+--
+--  DDL for Table PA_SIGNATURE_STATISTICS
+--
+CREATE TABLE "PA_SIGNATURE_STATISTICS"
+(
+    "ID"                 NUMBER(19,0) NOT NULL PRIMARY KEY,
+    "APPLICATION_ID"     NUMBER(19,0) NOT NULL,
+    "STATISTICS_DATE"    DATE NOT NULL,
+    "SIGNATURE_TYPE"     VARCHAR2(255 CHAR) NOT NULL,
+    "VALID"              NUMBER(1,0) DEFAULT 0 NOT NULL,
+    "NOTE"               VARCHAR2(255 CHAR) NOT NULL,
+    "SIGNATURE_COUNT"    NUMBER(19,0) DEFAULT 0 NOT NULL
+);
+
+--
+--  DDL for Table PA_CALLBACK_OUTBOX
+--
+CREATE TABLE "PA_CALLBACK_OUTBOX"
+(
+    "ID"                      NUMBER(19,0) NOT NULL PRIMARY KEY,
+    "CALLBACK_URL"            VARCHAR2(1024 CHAR) NOT NULL,
+    "BATCHED"                 NUMBER(1,0) DEFAULT 0 NOT NULL,
+    "ACTIVATION_ID"           VARCHAR2(37 CHAR) NOT NULL,
+    "ACTIVATION_STATUS"       NUMBER(10,0),
+    "TIMESTAMP_CREATED"       TIMESTAMP (6) NOT NULL,
+    "TIMESTAMP_CLAIM_EXPIRES" TIMESTAMP (6)
+);
+
 --
 --  Ref Constraints for Table PA_ACTIVATION
 --
@@ -163,3 +194,14 @@ ALTER TABLE "PA_TOKEN" ADD CONSTRAINT "ACTIVATION_TOKEN_FK" FOREIGN KEY ("ACTIVA
 --  Ref Constraints for Table PA_ACTIVATION_HISTORY
 --
 ALTER TABLE "PA_ACTIVATION_HISTORY" ADD CONSTRAINT "HISTORY_ACTIVATION_FK" FOREIGN KEY ("ACTIVATION_ID") REFERENCES "PA_ACTIVATION" ("ACTIVATION_ID") ENABLE;
+
+--
+--  Indexes for Table PA_ACTIVATION_HISTORY
+--
+CREATE INDEX "HISTORY_ACTIVATION_CREATED_IDX" ON "PA_ACTIVATION_HISTORY" ("ACTIVATION_ID", "TIMESTAMP_CREATED");
+
+--
+--  Ref Constraints for Table PA_SIGNATURE_STATISTICS
+--
+ALTER TABLE "PA_SIGNATURE_STATISTICS" ADD CONSTRAINT "STATISTICS_APPLICATION_FK" FOREIGN KEY ("APPLICATION_ID") REFERENCES "PA_APPLICATION" ("ID") ENABLE;
+ALTER TABLE "PA_SIGNATURE_STATISTICS" ADD CONSTRAINT "STATISTICS_BUCKET_UK" UNIQUE ("APPLICATION_ID", "STATISTICS_DATE", "SIGNATURE_TYPE", "VALID", "NOTE") ENABLE;
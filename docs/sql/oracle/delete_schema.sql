@@ -10,6 +10,8 @@ DROP TABLE "PA_MASTER_KEYPAIR" CASCADE CONSTRAINTS;
 DROP TABLE "PA_SIGNATURE_AUDIT" CASCADE CONSTRAINTS;
 DROP TABLE "PA_INTEGRATION" CASCADE CONSTRAINTS;
 DROP TABLE "PA_APPLICATION_CALLBACK" CASCADE CONSTRAINTS;
+DROP TABLE "PA_SIGNATURE_STATISTICS" CASCADE CONSTRAINTS;
+DROP TABLE "PA_CALLBACK_OUTBOX" CASCADE CONSTRAINTS;
 
 --
 --  Drop all sequences.
@@ -19,3 +21,5 @@ DROP SEQUENCE "PA_APPLICATION_VERSION_SEQ";
 DROP SEQUENCE "PA_MASTER_KEYPAIR_SEQ";
 DROP SEQUENCE "PA_SIGNATURE_AUDIT_SEQ";
 DROP SEQUENCE "PA_ACTIVATION_HISTORY_SEQ";
+DROP SEQUENCE "PA_SIGNATURE_STATISTICS_SEQ";
+DROP SEQUENCE "PA_CALLBACK_OUTBOX_SEQ";
@@ -0,0 +1,28 @@
+--
+-- Migration of an existing database to the new identifier generators with pooled allocation of identifiers
+-- (spring.jpa.hibernate.use-new-id-generator-mappings=true). Run the script while all server instances are stopped.
+--
+-- Identifiers of applications, master key pairs, signature audit records and activation history records are
+-- allocated in blocks of 50, the sequences need to increment by the block size and they are moved above the
+-- highest existing identifier. Sequences of the remaining tables are not changed.
+--
+
+DECLARE
+  TYPE name_list IS TABLE OF VARCHAR2(30);
+  sequence_names name_list := name_list('PA_APPLICATION_SEQ', 'PA_MASTER_KEYPAIR_SEQ', 'PA_SIGNATURE_AUDIT_SEQ', 'PA_ACTIVATION_HISTORY_SEQ');
+  table_names name_list := name_list('PA_APPLICATION', 'PA_MASTER_KEYPAIR', 'PA_SIGNATURE_AUDIT', 'PA_ACTIVATION_HISTORY');
+  next_free_id NUMBER;
+  next_value NUMBER;
+BEGIN
+  FOR i IN 1 .. sequence_names.COUNT LOOP
+    EXECUTE IMMEDIATE 'SELECT NVL(MAX("ID"), 0) + 1 FROM "' || table_names(i) || '"' INTO next_free_id;
+    EXECUTE IMMEDIATE 'SELECT "' || sequence_names(i) || '".NEXTVAL FROM DUAL' INTO next_value;
+    IF next_value < next_free_id THEN
+      EXECUTE IMMEDIATE 'ALTER SEQUENCE "' || sequence_names(i) || '" INCREMENT BY ' || (next_free_id - next_value);
+      EXECUTE IMMEDIATE 'SELECT "' || sequence_names(i) || '".NEXTVAL FROM DUAL' INTO next_value;
+    END IF;
+    -- The next value of the sequence is above the highest existing identifier and it starts a new block
+    EXECUTE IMMEDIATE 'ALTER SEQUENCE "' || sequence_names(i) || '" INCREMENT BY 50';
+  END LOOP;
+END;
+/
@@ -1,11 +1,13 @@
 --
 --  Create sequences.
 --
-CREATE SEQUENCE "pa_application_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE "pa_application_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20;
 CREATE SEQUENCE "pa_application_version_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE "pa_master_keypair_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE "pa_signature_audit_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE "pa_activation_history_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE "pa_master_keypair_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20;
+CREATE SEQUENCE "pa_signature_audit_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20;
+CREATE SEQUENCE "pa_activation_history_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 50 START WITH 1 CACHE 20;
+CREATE SEQUENCE "pa_signature_statistics_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE "pa_callback_outbox_seq" MINVALUE 1 MAXVALUE 999999999999999999 INCREMENT BY 1 START WITH 1 CACHE 20;
 
 --
 --  DDL for Table PA_ACTIVATION
@@ -107,7 +109,8 @@ CREATE TABLE "pa_application_callback"
     "id"                 VARCHAR(37) NOT NULL PRIMARY KEY,
     "application_id"     INTEGER NOT NULL,
     "name"               VARCHAR(255),
-    "callback_url"       VARCHAR(1024)
+    "callback_url"       VARCHAR(1024),
+    "batched"            BOOLEAN DEFAULT FALSE NOT NULL
 );
 
 --
@@ -134,6 +137,34 @@ CREATE TABLE "pa_activation_history"
     "timestamp_created"  TIMESTAMP (6) NOT NULL
 );
 
+--
+--  DDL for Table PA_SIGNATURE_STATISTICS
+--
+CREATE TABLE "pa_signature_statistics"
+(
+    "id"                 INTEGER NOT NULL PRIMARY KEY,
+    "application_id"     INTEGER NOT NULL,
+    "statistics_date"    DATE NOT NULL,
+    "signature_type"     VARCHAR(255) NOT NULL,
+    "valid"              BOOLEAN NOT NULL,
+    "note"               VARCHAR(255) NOT NULL,
+    "signature_count"    BIGINT DEFAULT 0 NOT NULL
+);
+
+--
+--  DDL for Table PA_CALLBACK_OUTBOX
+--
+CREATE TABLE "pa_callback_outbox"
+(
+    "id"                      INTEGER NOT NULL PRIMARY KEY,
+    "callback_url"            VARCHAR(1024) NOT NULL,
+    "batched"                 BOOLEAN DEFAULT FALSE NOT NULL,
+    "activation_id"           VARCHAR(37) NOT NULL,
+    "activation_status"       INTEGER,
+    "timestamp_created"       TIMESTAMP (6) NOT NULL,
+    "timestamp_claim_expires" TIMESTAMP (6)
+);
+
 --
 --  Ref Constraints for Table PA_ACTIVATION
 --
@@ -164,3 +195,14 @@ ALTER TABLE "pa_token" ADD CONSTRAINT "activation_token_fk" FOREIGN KEY ("activa
 --  Ref Constraints for Table PA_ACTIVATION_HISTORY
 --
 ALTER TABLE "pa_activation_history" ADD CONSTRAINT "history_activation_fk" FOREIGN KEY ("activation_id") REFERENCES "pa_activation" ("activation_id");
+
+--
+--  Indexes for Table PA_ACTIVATION_HISTORY
+--
+CREATE INDEX "history_activation_created_idx" ON "pa_activation_history" ("activation_id", "timestamp_created");
+
+--
+--  Ref Constraints for Table PA_SIGNATURE_STATISTICS
+--
+ALTER TABLE "pa_signature_statistics" ADD CONSTRAINT "statistics_application_fk" FOREIGN KEY ("application_id") REFERENCES "pa_application" ("id");
+ALTER TABLE "pa_signature_statistics" ADD CONSTRAINT "statistics_bucket_uk" UNIQUE ("application_id", "statistics_date", "signature_type", "valid", "note");
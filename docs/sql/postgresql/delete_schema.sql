@@ -10,6 +10,8 @@ DROP TABLE IF EXISTS "pa_master_keypair" CASCADE;
 DROP TABLE IF EXISTS "pa_signature_audit" CASCADE;
 DROP TABLE IF EXISTS "pa_integration" CASCADE;
 DROP TABLE IF EXISTS "pa_application_callback" CASCADE;
+DROP TABLE IF EXISTS "pa_signature_statistics" CASCADE;
+DROP TABLE IF EXISTS "pa_callback_outbox" CASCADE;
 
 --
 --  Drop all sequences.
@@ -19,3 +21,5 @@ DROP SEQUENCE IF EXISTS "pa_application_version_seq";
 DROP SEQUENCE IF EXISTS "pa_master_keypair_seq";
 DROP SEQUENCE IF EXISTS "pa_signature_audit_seq";
 DROP SEQUENCE IF EXISTS "pa_activation_history_seq";
+DROP SEQUENCE IF EXISTS "pa_signature_statistics_seq";
+DROP SEQUENCE IF EXISTS "pa_callback_outbox_seq";
@@ -0,0 +1,20 @@
+--
+-- Migration of an existing database to the new identifier generators with pooled allocation of identifiers
+-- (spring.jpa.hibernate.use-new-id-generator-mappings=true). Run the script while all server instances are stopped.
+--
+-- Identifiers of applications, master key pairs, signature audit records and activation history records are
+-- allocated in blocks of 50, the sequences need to increment by the block size and they are restarted at the next
+-- free identifier. Sequences of the remaining tables are not changed.
+--
+
+ALTER SEQUENCE "pa_application_seq" INCREMENT BY 50;
+SELECT setval('pa_application_seq', (SELECT COALESCE(MAX("id"), 0) + 1 FROM "pa_application"), false);
+
+ALTER SEQUENCE "pa_master_keypair_seq" INCREMENT BY 50;
+SELECT setval('pa_master_keypair_seq', (SELECT COALESCE(MAX("id"), 0) + 1 FROM "pa_master_keypair"), false);
+
+ALTER SEQUENCE "pa_signature_audit_seq" INCREMENT BY 50;
+SELECT setval('pa_signature_audit_seq', (SELECT COALESCE(MAX("id"), 0) + 1 FROM "pa_signature_audit"), false);
+
+ALTER SEQUENCE "pa_activation_history_seq" INCREMENT BY 50;
+SELECT setval('pa_activation_history_seq', (SELECT COALESCE(MAX("id"), 0) + 1 FROM "pa_activation_history"), false);
@@ -364,6 +364,36 @@ public class PowerAuthServiceClient {
         return this.getActivationStatus(request);
     }
 
+    /**
+     * Call the waitForActivationStatusChange method of the PowerAuth 2.0 Server SOAP interface. The call
+     * returns once the activation status differs from the status provided in the request, or once
+     * the timeout expires. Make sure the socket timeout of the client is longer than the timeout.
+     * @param request {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.WaitForActivationStatusChangeRequest} instance
+     * @return {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.WaitForActivationStatusChangeResponse}
+     * @throws RemoteException In case of a business logic error.
+     */
+    public PowerAuthPortServiceStub.WaitForActivationStatusChangeResponse waitForActivationStatusChange(PowerAuthPortServiceStub.WaitForActivationStatusChangeRequest request) throws RemoteException {
+        return clientStub.waitForActivationStatusChange(request);
+    }
+
+    /**
+     * Call the waitForActivationStatusChange method of the PowerAuth 2.0 Server SOAP interface.
+     * @param activationId Activation Id to wait for status change of.
+     * @param activationStatus Activation status known to the caller.
+     * @param timeout Timeout in milliseconds, or null for the default server timeout.
+     * @return {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.WaitForActivationStatusChangeResponse}
+     * @throws RemoteException In case of a business logic error.
+     */
+    public PowerAuthPortServiceStub.WaitForActivationStatusChangeResponse waitForActivationStatusChange(String activationId, PowerAuthPortServiceStub.ActivationStatus activationStatus, Long timeout) throws RemoteException {
+        PowerAuthPortServiceStub.WaitForActivationStatusChangeRequest request = new PowerAuthPortServiceStub.WaitForActivationStatusChangeRequest();
+        request.setActivationId(activationId);
+        request.setActivationStatus(activationStatus);
+        if (timeout != null) {
+            request.setTimeout(timeout);
+        }
+        return this.waitForActivationStatusChange(request);
+    }
+
     /**
      * Call the getActivationListForUser method of the PowerAuth 2.0 Server SOAP interface.
      * @param request {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.GetActivationListForUserRequest} instance
@@ -716,6 +746,16 @@ public class PowerAuthServiceClient {
         return Arrays.asList(this.getSignatureAuditLog(request).getItems());
     }
 
+    /**
+     * Call the getSignatureStatistics method of the PowerAuth 2.0 Server SOAP interface.
+     * @param request {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.GetSignatureStatisticsRequest} instance.
+     * @return {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.GetSignatureStatisticsResponse}
+     * @throws RemoteException In case of a business logic error.
+     */
+    public PowerAuthPortServiceStub.GetSignatureStatisticsResponse getSignatureStatistics(PowerAuthPortServiceStub.GetSignatureStatisticsRequest request) throws RemoteException {
+        return clientStub.getSignatureStatistics(request);
+    }
+
     /**
      * Get the list of all applications that are registered in PowerAuth 2.0 Server.
      * @param request {@link io.getlime.powerauth.soap.PowerAuthPortServiceStub.GetApplicationListRequest} instance.
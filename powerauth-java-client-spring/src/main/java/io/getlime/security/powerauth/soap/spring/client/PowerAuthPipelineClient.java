@@ -0,0 +1,280 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.soap.spring.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.getlime.powerauth.soap.ValidateTokenRequest;
+import io.getlime.powerauth.soap.ValidateTokenResponse;
+import io.getlime.powerauth.soap.VerifySignatureRequest;
+import io.getlime.powerauth.soap.VerifySignatureResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class implementing a PowerAuth 2.0 Server client for the pipelined binary protocol. The protocol
+ * is an optional alternative to the SOAP interface for signature verification and token validation,
+ * intended for callers with a very high request rate.
+ *
+ * <p>All requests are sent over a single persistent connection. Any number of threads may send requests
+ * at the same time, each request is matched with its response by a request ID.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthPipelineClient implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthPipelineClient.class);
+
+    // Constants of the pipelined protocol
+    private static final int HEADER_SIZE = 9;
+    private static final byte AUTHENTICATE = 0;
+    private static final byte VERIFY_SIGNATURE = 1;
+    private static final byte VALIDATE_TOKEN = 2;
+    private static final byte RESPONSE_OK = 0;
+
+    private final String host;
+    private final int port;
+    private final String clientToken;
+    private final String clientSecret;
+
+    private final ObjectMapper objectMapper = new ObjectMapper(new CBORFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final Map<Long, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
+
+    private Socket socket;
+    private DataOutputStream outputStream;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for a server without restricted access.
+     *
+     * @param host Host of the pipelined protocol listener.
+     * @param port Port of the pipelined protocol listener.
+     */
+    public PowerAuthPipelineClient(String host, int port) {
+        this(host, port, null, null);
+    }
+
+    /**
+     * Constructor for a server with restricted access.
+     *
+     * @param host Host of the pipelined protocol listener.
+     * @param port Port of the pipelined protocol listener.
+     * @param clientToken Client token of the integration.
+     * @param clientSecret Client secret of the integration.
+     */
+    public PowerAuthPipelineClient(String host, int port, String clientToken, String clientSecret) {
+        this.host = host;
+        this.port = port;
+        this.clientToken = clientToken;
+        this.clientSecret = clientSecret;
+    }
+
+    /**
+     * Open the connection and authenticate it, in case integration credentials are set.
+     *
+     * @throws IOException In case the connection cannot be opened.
+     * @throws PowerAuthPipelineException In case the authentication fails.
+     */
+    public synchronized void connect() throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        final Thread readerThread = new Thread(() -> readResponses(inputStream), "powerauth-pipeline-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        if (clientToken != null) {
+            final Map<String, String> credentials = new HashMap<>();
+            credentials.put("clientToken", clientToken);
+            credentials.put("clientSecret", clientSecret);
+            await(send(AUTHENTICATE, credentials, Void.class));
+        }
+    }
+
+    /**
+     * Call the verifySignature method of the PowerAuth 2.0 Server over the pipelined protocol.
+     * @param request {@link VerifySignatureRequest} instance
+     * @return {@link VerifySignatureResponse}
+     */
+    public VerifySignatureResponse verifySignature(VerifySignatureRequest request) {
+        return await(verifySignatureAsync(request));
+    }
+
+    /**
+     * Call the verifySignature method of the PowerAuth 2.0 Server over the pipelined protocol
+     * without waiting for the response.
+     * @param request {@link VerifySignatureRequest} instance
+     * @return Future with {@link VerifySignatureResponse}
+     */
+    public CompletableFuture<VerifySignatureResponse> verifySignatureAsync(VerifySignatureRequest request) {
+        return send(VERIFY_SIGNATURE, request, VerifySignatureResponse.class);
+    }
+
+    /**
+     * Call the validateToken method of the PowerAuth 2.0 Server over the pipelined protocol.
+     * @param request {@link ValidateTokenRequest} instance
+     * @return {@link ValidateTokenResponse}
+     */
+    public ValidateTokenResponse validateToken(ValidateTokenRequest request) {
+        return await(validateTokenAsync(request));
+    }
+
+    /**
+     * Call the validateToken method of the PowerAuth 2.0 Server over the pipelined protocol
+     * without waiting for the response.
+     * @param request {@link ValidateTokenRequest} instance
+     * @return Future with {@link ValidateTokenResponse}
+     */
+    public CompletableFuture<ValidateTokenResponse> validateTokenAsync(ValidateTokenRequest request) {
+        return send(VALIDATE_TOKEN, request, ValidateTokenResponse.class);
+    }
+
+    /**
+     * Close the connection. Requests waiting for a response are completed with an exception.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ex) {
+            logger.debug("Pipelined protocol connection was not closed properly", ex);
+        }
+        failPendingRequests(new PowerAuthPipelineException("Connection closed"));
+    }
+
+    private <T> CompletableFuture<T> send(byte type, Object request, Class<T> responseType) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed || outputStream == null) {
+            future.completeExceptionally(new PowerAuthPipelineException("Connection is not open"));
+            return future;
+        }
+        final long requestId = requestCounter.incrementAndGet();
+        pendingRequests.put(requestId, new PendingRequest<>(future, responseType));
+        try {
+            final byte[] payload = objectMapper.writeValueAsBytes(request);
+            synchronized (outputStream) {
+                outputStream.writeInt(HEADER_SIZE + payload.length);
+                outputStream.writeLong(requestId);
+                outputStream.writeByte(type);
+                outputStream.write(payload);
+                outputStream.flush();
+            }
+        } catch (IOException ex) {
+            pendingRequests.remove(requestId);
+            future.completeExceptionally(new PowerAuthPipelineException("Request could not be sent", ex));
+        }
+        return future;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof PowerAuthPipelineException) {
+                throw (PowerAuthPipelineException) ex.getCause();
+            }
+            throw new PowerAuthPipelineException("Request failed", ex.getCause());
+        }
+    }
+
+    private void readResponses(DataInputStream inputStream) {
+        try {
+            while (!closed) {
+                final int length = inputStream.readInt();
+                final long requestId = inputStream.readLong();
+                final byte status = inputStream.readByte();
+                final byte[] payload = new byte[length - HEADER_SIZE];
+                inputStream.readFully(payload);
+                final PendingRequest<?> pendingRequest = pendingRequests.remove(requestId);
+                if (pendingRequest == null) {
+                    logger.warn("Response received for an unknown request: {}", requestId);
+                    continue;
+                }
+                if (status == RESPONSE_OK) {
+                    pendingRequest.complete(payload);
+                } else {
+                    final Map<?, ?> error = objectMapper.readValue(payload, Map.class);
+                    pendingRequest.future.completeExceptionally(new PowerAuthPipelineException(
+                            (String) error.get("code"), (String) error.get("message")));
+                }
+            }
+        } catch (IOException ex) {
+            if (!closed) {
+                logger.warn("Pipelined protocol connection failed", ex);
+                failPendingRequests(new PowerAuthPipelineException("Connection failed", ex));
+            }
+        }
+    }
+
+    private void failPendingRequests(PowerAuthPipelineException exception) {
+        for (Long requestId : pendingRequests.keySet()) {
+            final PendingRequest<?> pendingRequest = pendingRequests.remove(requestId);
+            if (pendingRequest != null) {
+                pendingRequest.future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    /**
+     * Request waiting for a response.
+     * @param <T> Type of the response.
+     */
+    private class PendingRequest<T> {
+
+        private final CompletableFuture<T> future;
+        private final Class<T> responseType;
+
+        PendingRequest(CompletableFuture<T> future, Class<T> responseType) {
+            this.future = future;
+            this.responseType = responseType;
+        }
+
+        void complete(byte[] payload) throws IOException {
+            if (responseType == Void.class) {
+                future.complete(null);
+            } else {
+                future.complete(objectMapper.readValue(payload, responseType));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.soap.spring.client;
+
+/**
+ * Exception representing an error returned by the PowerAuth 2.0 Server over the pipelined
+ * protocol, or a failure of the pipelined protocol connection.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthPipelineException extends RuntimeException {
+
+    private static final long serialVersionUID = -2946415427271925513L;
+
+    private final String code;
+
+    /**
+     * Constructor with error code and error message.
+     *
+     * @param code    Error code, null in case of a connection failure.
+     * @param message Error message.
+     */
+    public PowerAuthPipelineException(String code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    /**
+     * Constructor with error message of a connection failure.
+     *
+     * @param message Error message.
+     */
+    public PowerAuthPipelineException(String message) {
+        super(message);
+        this.code = null;
+    }
+
+    /**
+     * Constructor with error message and cause of a connection failure.
+     *
+     * @param message Error message.
+     * @param cause   Cause of the failure.
+     */
+    public PowerAuthPipelineException(String message, Throwable cause) {
+        super(message, cause);
+        this.code = null;
+    }
+
+    /**
+     * Get the error code.
+     *
+     * @return Error code, null in case of a connection failure.
+     */
+    public String getCode() {
+        return code;
+    }
+
+}
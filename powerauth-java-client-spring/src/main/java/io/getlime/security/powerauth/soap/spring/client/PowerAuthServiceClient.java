@@ -266,6 +266,32 @@ public class PowerAuthServiceClient extends WebServiceGatewaySupport {
         return this.getActivationStatus(request);
     }
 
+    /**
+     * Call the waitForActivationStatusChange method of the PowerAuth 2.0 Server SOAP interface. The call
+     * returns once the activation status differs from the status provided in the request, or once
+     * the timeout expires. Make sure the read timeout of the message sender is longer than the timeout.
+     * @param request {@link WaitForActivationStatusChangeRequest} instance
+     * @return {@link WaitForActivationStatusChangeResponse}
+     */
+    public WaitForActivationStatusChangeResponse waitForActivationStatusChange(WaitForActivationStatusChangeRequest request) {
+        return (WaitForActivationStatusChangeResponse) getWebServiceTemplate().marshalSendAndReceive(request);
+    }
+
+    /**
+     * Call the waitForActivationStatusChange method of the PowerAuth 2.0 Server SOAP interface.
+     * @param activationId Activation Id to wait for status change of.
+     * @param activationStatus Activation status known to the caller.
+     * @param timeout Timeout in milliseconds, or null for the default server timeout.
+     * @return {@link WaitForActivationStatusChangeResponse}
+     */
+    public WaitForActivationStatusChangeResponse waitForActivationStatusChange(String activationId, ActivationStatus activationStatus, Long timeout) {
+        WaitForActivationStatusChangeRequest request = new WaitForActivationStatusChangeRequest();
+        request.setActivationId(activationId);
+        request.setActivationStatus(activationStatus);
+        request.setTimeout(timeout);
+        return this.waitForActivationStatusChange(request);
+    }
+
     /**
      * Call the getActivationListForUser method of the PowerAuth 2.0 Server SOAP interface.
      * @param request {@link GetActivationListForUserRequest} instance
@@ -588,6 +614,31 @@ public class PowerAuthServiceClient extends WebServiceGatewaySupport {
         return this.getSignatureAuditLog(request).getItems();
     }
 
+    /**
+     * Call the getSignatureStatistics method of the PowerAuth 2.0 Server SOAP interface.
+     * @param request {@link GetSignatureStatisticsRequest} instance.
+     * @return {@link GetSignatureStatisticsResponse}
+     */
+    public GetSignatureStatisticsResponse getSignatureStatistics(GetSignatureStatisticsRequest request) {
+        return (GetSignatureStatisticsResponse) getWebServiceTemplate().marshalSendAndReceive(request);
+    }
+
+    /**
+     * Call the getSignatureStatistics method of the PowerAuth 2.0 Server SOAP interface and get
+     * aggregated signature statistics for a single application.
+     * @param applicationId Application ID to query the statistics against, or null for all applications.
+     * @param startingDate Limit the results to given starting date (= "newer than").
+     * @param endingDate Limit the results to given ending date (= "older than").
+     * @return List of signature statistics items. See: {@link io.getlime.powerauth.soap.GetSignatureStatisticsResponse.Items}.
+     */
+    public List<GetSignatureStatisticsResponse.Items> getSignatureStatistics(Long applicationId, Date startingDate, Date endingDate) {
+        GetSignatureStatisticsRequest request = new GetSignatureStatisticsRequest();
+        request.setApplicationId(applicationId);
+        request.setTimestampFrom(calendarWithDate(startingDate));
+        request.setTimestampTo(calendarWithDate(endingDate));
+        return this.getSignatureStatistics(request).getItems();
+    }
+
     /**
      * Call the getActivationHistory method of the PowerAuth 2.0 Server SOAP interface.
      * @param request {@link ActivationHistoryRequest} instance.
@@ -812,6 +863,23 @@ public class PowerAuthServiceClient extends WebServiceGatewaySupport {
         return this.createCallbackUrl(request);
     }
 
+    /**
+     * Create a new callback URL with given parameters.
+     * @param applicationId Application ID.
+     * @param name Callback URL display name.
+     * @param callbackUrl Callback URL value.
+     * @param batched Whether activation changes should be delivered to the callback URL in batches.
+     * @return Information about new callback URL object.
+     */
+    public CreateCallbackUrlResponse createCallbackUrl(Long applicationId, String name, String callbackUrl, boolean batched) {
+        CreateCallbackUrlRequest request = new CreateCallbackUrlRequest();
+        request.setApplicationId(applicationId);
+        request.setName(name);
+        request.setCallbackUrl(callbackUrl);
+        request.setBatched(batched);
+        return this.createCallbackUrl(request);
+    }
+
     /**
      * Get the response with list of callback URL objects.
      * @param request SOAP request object with application ID.
@@ -23,6 +23,7 @@ import io.getlime.security.powerauth.provider.CryptoProviderUtilFactory;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.security.Security;
 
@@ -32,6 +33,7 @@ import java.security.Security;
  * @author Petr Dvorak, petr@wultra.com
  */
 @SpringBootApplication
+@EnableScheduling
 public class Application {
 
     static {
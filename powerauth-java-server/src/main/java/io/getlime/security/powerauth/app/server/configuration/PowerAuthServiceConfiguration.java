@@ -18,6 +18,7 @@
 
 package io.getlime.security.powerauth.app.server.configuration;
 
+import io.getlime.security.powerauth.app.server.service.bulkhead.BulkheadRejectionPolicy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -108,6 +109,288 @@ public class PowerAuthServiceConfiguration {
     @Value("${powerauth.server.db.master.encryption.key}")
     private String masterDbEncryptionKey;
 
+    /**
+     * Maximum number of callback deliveries waiting in the dispatcher queue. Callbacks
+     * that do not fit into the queue are dropped.
+     */
+    @Value("${powerauth.service.callback.queueCapacity}")
+    private int callbackQueueCapacity;
+
+    /**
+     * Maximum number of concurrent HTTP requests sent to a single callback URL.
+     */
+    @Value("${powerauth.service.callback.maxConcurrentRequestsPerUrl}")
+    private int callbackMaxConcurrentRequestsPerUrl;
+
+    /**
+     * Maximum number of HTTP requests per second sent to a single callback URL.
+     */
+    @Value("${powerauth.service.callback.maxRequestsPerSecondPerUrl}")
+    private int callbackMaxRequestsPerSecondPerUrl;
+
+    /**
+     * How many times a callback delivery is attempted before it is dropped.
+     */
+    @Value("${powerauth.service.callback.maxAttempts}")
+    private int callbackMaxAttempts;
+
+    /**
+     * Delay before the first retry of a failed callback delivery, the delay doubles with
+     * each subsequent attempt.
+     */
+    @Value("${powerauth.service.callback.initialBackoffInMilliseconds}")
+    private long callbackInitialBackoffInMilliseconds;
+
+    /**
+     * Maximum delay between retries of a failed callback delivery.
+     */
+    @Value("${powerauth.service.callback.maxBackoffInMilliseconds}")
+    private long callbackMaxBackoffInMilliseconds;
+
+    /**
+     * Timeout of a single callback HTTP request.
+     */
+    @Value("${powerauth.service.callback.requestTimeoutInMilliseconds}")
+    private long callbackRequestTimeoutInMilliseconds;
+
+    /**
+     * How many callback outbox records are claimed in a single transaction.
+     */
+    @Value("${powerauth.service.callback.outbox.batchSize}")
+    private int callbackOutboxBatchSize;
+
+    /**
+     * How long a claimed callback outbox record stays reserved for its dispatcher. Records whose
+     * delivery does not finish within this time are claimed again.
+     */
+    @Value("${powerauth.service.callback.outbox.claimDurationInMilliseconds}")
+    private long callbackOutboxClaimDurationInMilliseconds;
+
+    /**
+     * Maximum number of activation changes delivered in a single request to a callback URL
+     * in batched mode.
+     */
+    @Value("${powerauth.service.callback.batchSize}")
+    private int callbackBatchSize;
+
+    /**
+     * How long activation changes are collected before a batched callback is sent, unless
+     * the batch is full earlier.
+     */
+    @Value("${powerauth.service.callback.batchWindowInMilliseconds}")
+    private long callbackBatchWindowInMilliseconds;
+
+    /**
+     * If this variable is set to true, RESTful API calls are executed on a dedicated executor
+     * using asynchronous servlet request handling, instead of the servlet container worker threads.
+     */
+    @Value("${powerauth.service.async.enabled}")
+    private boolean asyncRequestsEnabled;
+
+    /**
+     * Number of threads executing asynchronous RESTful API calls.
+     */
+    @Value("${powerauth.service.async.poolSize}")
+    private int asyncPoolSize;
+
+    /**
+     * Maximum number of concurrently executed asynchronous calls of a single operation, unless
+     * configured otherwise for the operation.
+     */
+    @Value("${powerauth.service.async.defaultConcurrencyLimit}")
+    private int asyncDefaultConcurrencyLimit;
+
+    /**
+     * Maximum numbers of concurrently executed asynchronous calls for individual operations, in
+     * 'operation=limit' format separated by commas, for example 'verifySignature=100,removeActivation=5'.
+     */
+    @Value("${powerauth.service.async.concurrencyLimits}")
+    private String asyncConcurrencyLimits;
+
+    /**
+     * Maximum number of asynchronous calls of a single operation waiting for execution. Calls
+     * exceeding the limit are rejected.
+     */
+    @Value("${powerauth.service.async.maxQueuedRequests}")
+    private int asyncMaxQueuedRequests;
+
+    /**
+     * Number of threads executing activation calls.
+     */
+    @Value("${powerauth.service.bulkhead.activation.threads}")
+    private int bulkheadActivationThreads;
+
+    /**
+     * Maximum number of activation calls waiting for execution.
+     */
+    @Value("${powerauth.service.bulkhead.activation.queueCapacity}")
+    private int bulkheadActivationQueueCapacity;
+
+    /**
+     * Policy applied to activation calls exceeding the queue capacity.
+     */
+    @Value("${powerauth.service.bulkhead.activation.rejectionPolicy}")
+    private BulkheadRejectionPolicy bulkheadActivationRejectionPolicy;
+
+    /**
+     * Number of threads executing signature verification calls.
+     */
+    @Value("${powerauth.service.bulkhead.signature.threads}")
+    private int bulkheadSignatureThreads;
+
+    /**
+     * Maximum number of signature verification calls waiting for execution.
+     */
+    @Value("${powerauth.service.bulkhead.signature.queueCapacity}")
+    private int bulkheadSignatureQueueCapacity;
+
+    /**
+     * Policy applied to signature verification calls exceeding the queue capacity.
+     */
+    @Value("${powerauth.service.bulkhead.signature.rejectionPolicy}")
+    private BulkheadRejectionPolicy bulkheadSignatureRejectionPolicy;
+
+    /**
+     * Number of threads executing token calls.
+     */
+    @Value("${powerauth.service.bulkhead.token.threads}")
+    private int bulkheadTokenThreads;
+
+    /**
+     * Maximum number of token calls waiting for execution.
+     */
+    @Value("${powerauth.service.bulkhead.token.queueCapacity}")
+    private int bulkheadTokenQueueCapacity;
+
+    /**
+     * Policy applied to token calls exceeding the queue capacity.
+     */
+    @Value("${powerauth.service.bulkhead.token.rejectionPolicy}")
+    private BulkheadRejectionPolicy bulkheadTokenRejectionPolicy;
+
+    /**
+     * Maximum time in milliseconds for which a call waits in a bulkhead queue. A call which is not started
+     * in time is rejected. Run time of a started call is not limited by the bulkhead.
+     */
+    @Value("${powerauth.service.bulkhead.queueTimeoutInMilliseconds}")
+    private long bulkheadQueueTimeout;
+
+    /**
+     * If this variable is set to true, the server listens for signature verification and token validation
+     * requests sent over persistent connections in the pipelined binary protocol.
+     */
+    @Value("${powerauth.service.pipeline.enabled}")
+    private boolean pipelineEnabled;
+
+    /**
+     * Address the pipelined protocol listener is bound to.
+     */
+    @Value("${powerauth.service.pipeline.bindAddress}")
+    private String pipelineBindAddress;
+
+    /**
+     * Port of the pipelined protocol listener.
+     */
+    @Value("${powerauth.service.pipeline.port}")
+    private int pipelinePort;
+
+    /**
+     * Number of threads executing requests received by the pipelined protocol listener.
+     */
+    @Value("${powerauth.service.pipeline.threads}")
+    private int pipelineThreads;
+
+    /**
+     * Maximum size of a frame of the pipelined protocol in bytes. Connections sending larger frames are closed.
+     */
+    @Value("${powerauth.service.pipeline.maxFrameSize}")
+    private int pipelineMaxFrameSize;
+
+    /**
+     * Maximum number of requests in progress for a single connection of the pipelined protocol. Reading
+     * from the connection is suspended until some of the requests complete.
+     */
+    @Value("${powerauth.service.pipeline.maxInFlightRequests}")
+    private int pipelineMaxInFlightRequests;
+
+    /**
+     * Maximum number of requests of the pipelined protocol waiting for a worker thread. Requests received while
+     * the queue is full are rejected with a service overloaded error.
+     */
+    @Value("${powerauth.service.pipeline.queueCapacity}")
+    private int pipelineQueueCapacity;
+
+    /**
+     * If this variable is set to true, SOAP messages are processed using StAX based AXIOM message factory, which
+     * reads request payloads as a stream and writes response payloads directly to the output.
+     */
+    @Value("${powerauth.service.soap.streamingEnabled}")
+    private boolean soapStreamingEnabled;
+
+    /**
+     * Default time in milliseconds for which a request waiting for activation status change is held, in case the request does not specify the timeout.
+     */
+    @Value("${powerauth.service.activation.statusWait.defaultTimeoutInMilliseconds}")
+    private long activationStatusWaitDefaultTimeout;
+
+    /**
+     * Maximum time in milliseconds for which a request waiting for activation status change is held. The value should be
+     * lower than asynchronous request timeout of the servlet container.
+     */
+    @Value("${powerauth.service.activation.statusWait.maxTimeoutInMilliseconds}")
+    private long activationStatusWaitMaxTimeout;
+
+    /**
+     * Maximum number of requests concurrently waiting for activation status change.
+     */
+    @Value("${powerauth.service.activation.statusWait.maxWaiters}")
+    private int activationStatusWaitMaxWaiters;
+
+    /**
+     * Number of threads completing requests waiting for activation status change.
+     */
+    @Value("${powerauth.service.activation.statusWait.threads}")
+    private int activationStatusWaitThreads;
+
+    /**
+     * Time in milliseconds after which an activation status event stream is closed. Subscribers are expected to reconnect
+     * with the last received event ID.
+     */
+    @Value("${powerauth.service.activation.events.timeoutInMilliseconds}")
+    private long activationEventsTimeout;
+
+    /**
+     * Maximum number of concurrently connected activation status event stream subscribers.
+     */
+    @Value("${powerauth.service.activation.events.maxSubscribers}")
+    private int activationEventsMaxSubscribers;
+
+    /**
+     * Number of activation status change events loaded from the database at once when an event stream is resumed.
+     */
+    @Value("${powerauth.service.activation.events.replayBatchSize}")
+    private int activationEventsReplayBatchSize;
+
+    /**
+     * Time in milliseconds by which the replay of activation status change events starts before the last event
+     * received by the subscriber. The value should be longer than the longest transaction changing activation status.
+     */
+    @Value("${powerauth.service.activation.events.replayOverlapInMilliseconds}")
+    private long activationEventsReplayOverlap;
+
+    /**
+     * Number of threads sending activation status change events to subscribers.
+     */
+    @Value("${powerauth.service.activation.events.threads}")
+    private int activationEventsThreads;
+
+    /**
+     * Maximum number of activation status change events waiting to be sent to a single subscriber. Event streams
+     * of subscribers which do not keep up are closed, the subscribers receive the missed events after they reconnect.
+     */
+    @Value("${powerauth.service.activation.events.queueCapacity}")
+    private int activationEventsQueueCapacity;
+
     /**
      * Get application name, usually used as a "unique code" for the application within
      * a server infrastructure.
@@ -296,6 +579,710 @@ public class PowerAuthServiceConfiguration {
         this.masterDbEncryptionKey = masterDbEncryptionKey;
     }
 
+    /**
+     * Get maximum number of queued callback deliveries.
+     * @return Maximum number of queued callback deliveries.
+     */
+    public int getCallbackQueueCapacity() {
+        return callbackQueueCapacity;
+    }
+
+    /**
+     * Set maximum number of queued callback deliveries.
+     * @param callbackQueueCapacity Maximum number of queued callback deliveries.
+     */
+    public void setCallbackQueueCapacity(int callbackQueueCapacity) {
+        this.callbackQueueCapacity = callbackQueueCapacity;
+    }
+
+    /**
+     * Get maximum number of concurrent requests per callback URL.
+     * @return Maximum number of concurrent requests per callback URL.
+     */
+    public int getCallbackMaxConcurrentRequestsPerUrl() {
+        return callbackMaxConcurrentRequestsPerUrl;
+    }
+
+    /**
+     * Set maximum number of concurrent requests per callback URL.
+     * @param callbackMaxConcurrentRequestsPerUrl Maximum number of concurrent requests per callback URL.
+     */
+    public void setCallbackMaxConcurrentRequestsPerUrl(int callbackMaxConcurrentRequestsPerUrl) {
+        this.callbackMaxConcurrentRequestsPerUrl = callbackMaxConcurrentRequestsPerUrl;
+    }
+
+    /**
+     * Get maximum number of requests per second per callback URL.
+     * @return Maximum number of requests per second per callback URL.
+     */
+    public int getCallbackMaxRequestsPerSecondPerUrl() {
+        return callbackMaxRequestsPerSecondPerUrl;
+    }
+
+    /**
+     * Set maximum number of requests per second per callback URL.
+     * @param callbackMaxRequestsPerSecondPerUrl Maximum number of requests per second per callback URL.
+     */
+    public void setCallbackMaxRequestsPerSecondPerUrl(int callbackMaxRequestsPerSecondPerUrl) {
+        this.callbackMaxRequestsPerSecondPerUrl = callbackMaxRequestsPerSecondPerUrl;
+    }
+
+    /**
+     * Get maximum number of callback delivery attempts.
+     * @return Maximum number of callback delivery attempts.
+     */
+    public int getCallbackMaxAttempts() {
+        return callbackMaxAttempts;
+    }
+
+    /**
+     * Set maximum number of callback delivery attempts.
+     * @param callbackMaxAttempts Maximum number of callback delivery attempts.
+     */
+    public void setCallbackMaxAttempts(int callbackMaxAttempts) {
+        this.callbackMaxAttempts = callbackMaxAttempts;
+    }
+
+    /**
+     * Get delay before the first retry of a failed callback delivery.
+     * @return Initial retry delay in milliseconds.
+     */
+    public long getCallbackInitialBackoffInMilliseconds() {
+        return callbackInitialBackoffInMilliseconds;
+    }
+
+    /**
+     * Set delay before the first retry of a failed callback delivery.
+     * @param callbackInitialBackoffInMilliseconds Initial retry delay in milliseconds.
+     */
+    public void setCallbackInitialBackoffInMilliseconds(long callbackInitialBackoffInMilliseconds) {
+        this.callbackInitialBackoffInMilliseconds = callbackInitialBackoffInMilliseconds;
+    }
+
+    /**
+     * Get maximum delay between retries of a failed callback delivery.
+     * @return Maximum retry delay in milliseconds.
+     */
+    public long getCallbackMaxBackoffInMilliseconds() {
+        return callbackMaxBackoffInMilliseconds;
+    }
+
+    /**
+     * Set maximum delay between retries of a failed callback delivery.
+     * @param callbackMaxBackoffInMilliseconds Maximum retry delay in milliseconds.
+     */
+    public void setCallbackMaxBackoffInMilliseconds(long callbackMaxBackoffInMilliseconds) {
+        this.callbackMaxBackoffInMilliseconds = callbackMaxBackoffInMilliseconds;
+    }
+
+    /**
+     * Get timeout of a single callback HTTP request.
+     * @return Callback request timeout in milliseconds.
+     */
+    public long getCallbackRequestTimeoutInMilliseconds() {
+        return callbackRequestTimeoutInMilliseconds;
+    }
+
+    /**
+     * Set timeout of a single callback HTTP request.
+     * @param callbackRequestTimeoutInMilliseconds Callback request timeout in milliseconds.
+     */
+    public void setCallbackRequestTimeoutInMilliseconds(long callbackRequestTimeoutInMilliseconds) {
+        this.callbackRequestTimeoutInMilliseconds = callbackRequestTimeoutInMilliseconds;
+    }
+
+    /**
+     * Get callback outbox batch size.
+     * @return Callback outbox batch size.
+     */
+    public int getCallbackOutboxBatchSize() {
+        return callbackOutboxBatchSize;
+    }
+
+    /**
+     * Set callback outbox batch size.
+     * @param callbackOutboxBatchSize Callback outbox batch size.
+     */
+    public void setCallbackOutboxBatchSize(int callbackOutboxBatchSize) {
+        this.callbackOutboxBatchSize = callbackOutboxBatchSize;
+    }
+
+    /**
+     * Get callback outbox claim duration.
+     * @return Callback outbox claim duration in milliseconds.
+     */
+    public long getCallbackOutboxClaimDurationInMilliseconds() {
+        return callbackOutboxClaimDurationInMilliseconds;
+    }
+
+    /**
+     * Set callback outbox claim duration.
+     * @param callbackOutboxClaimDurationInMilliseconds Callback outbox claim duration in milliseconds.
+     */
+    public void setCallbackOutboxClaimDurationInMilliseconds(long callbackOutboxClaimDurationInMilliseconds) {
+        this.callbackOutboxClaimDurationInMilliseconds = callbackOutboxClaimDurationInMilliseconds;
+    }
+
+    /**
+     * Get maximum number of activation changes in a batched callback.
+     * @return Maximum number of activation changes in a batched callback.
+     */
+    public int getCallbackBatchSize() {
+        return callbackBatchSize;
+    }
+
+    /**
+     * Set maximum number of activation changes in a batched callback.
+     * @param callbackBatchSize Maximum number of activation changes in a batched callback.
+     */
+    public void setCallbackBatchSize(int callbackBatchSize) {
+        this.callbackBatchSize = callbackBatchSize;
+    }
+
+    /**
+     * Get time window for collecting activation changes in a batched callback.
+     * @return Batch window in milliseconds.
+     */
+    public long getCallbackBatchWindowInMilliseconds() {
+        return callbackBatchWindowInMilliseconds;
+    }
+
+    /**
+     * Set time window for collecting activation changes in a batched callback.
+     * @param callbackBatchWindowInMilliseconds Batch window in milliseconds.
+     */
+    public void setCallbackBatchWindowInMilliseconds(long callbackBatchWindowInMilliseconds) {
+        this.callbackBatchWindowInMilliseconds = callbackBatchWindowInMilliseconds;
+    }
+
+    /**
+     * Get the flag indicating that RESTful API calls are executed asynchronously.
+     * @return True in case RESTful API calls are executed asynchronously.
+     */
+    public boolean getAsyncRequestsEnabled() {
+        return asyncRequestsEnabled;
+    }
+
+    /**
+     * Set the flag indicating that RESTful API calls are executed asynchronously.
+     * @param asyncRequestsEnabled True in case RESTful API calls are executed asynchronously.
+     */
+    public void setAsyncRequestsEnabled(boolean asyncRequestsEnabled) {
+        this.asyncRequestsEnabled = asyncRequestsEnabled;
+    }
+
+    /**
+     * Get number of threads executing asynchronous RESTful API calls.
+     * @return Number of threads executing asynchronous RESTful API calls.
+     */
+    public int getAsyncPoolSize() {
+        return asyncPoolSize;
+    }
+
+    /**
+     * Set number of threads executing asynchronous RESTful API calls.
+     * @param asyncPoolSize Number of threads executing asynchronous RESTful API calls.
+     */
+    public void setAsyncPoolSize(int asyncPoolSize) {
+        this.asyncPoolSize = asyncPoolSize;
+    }
+
+    /**
+     * Get default maximum number of concurrent calls of a single operation.
+     * @return Default maximum number of concurrent calls of a single operation.
+     */
+    public int getAsyncDefaultConcurrencyLimit() {
+        return asyncDefaultConcurrencyLimit;
+    }
+
+    /**
+     * Set default maximum number of concurrent calls of a single operation.
+     * @param asyncDefaultConcurrencyLimit Default maximum number of concurrent calls of a single operation.
+     */
+    public void setAsyncDefaultConcurrencyLimit(int asyncDefaultConcurrencyLimit) {
+        this.asyncDefaultConcurrencyLimit = asyncDefaultConcurrencyLimit;
+    }
+
+    /**
+     * Get maximum numbers of concurrent calls for individual operations.
+     * @return Maximum numbers of concurrent calls for individual operations.
+     */
+    public String getAsyncConcurrencyLimits() {
+        return asyncConcurrencyLimits;
+    }
+
+    /**
+     * Set maximum numbers of concurrent calls for individual operations.
+     * @param asyncConcurrencyLimits Maximum numbers of concurrent calls for individual operations.
+     */
+    public void setAsyncConcurrencyLimits(String asyncConcurrencyLimits) {
+        this.asyncConcurrencyLimits = asyncConcurrencyLimits;
+    }
+
+    /**
+     * Get maximum number of queued calls of a single operation.
+     * @return Maximum number of queued calls of a single operation.
+     */
+    public int getAsyncMaxQueuedRequests() {
+        return asyncMaxQueuedRequests;
+    }
+
+    /**
+     * Set maximum number of queued calls of a single operation.
+     * @param asyncMaxQueuedRequests Maximum number of queued calls of a single operation.
+     */
+    public void setAsyncMaxQueuedRequests(int asyncMaxQueuedRequests) {
+        this.asyncMaxQueuedRequests = asyncMaxQueuedRequests;
+    }
+
+    /**
+     * Get number of threads executing activation calls.
+     * @return Number of threads executing activation calls.
+     */
+    public int getBulkheadActivationThreads() {
+        return bulkheadActivationThreads;
+    }
+
+    /**
+     * Set number of threads executing activation calls.
+     * @param bulkheadActivationThreads Number of threads executing activation calls.
+     */
+    public void setBulkheadActivationThreads(int bulkheadActivationThreads) {
+        this.bulkheadActivationThreads = bulkheadActivationThreads;
+    }
+
+    /**
+     * Get maximum number of activation calls waiting for execution.
+     * @return Maximum number of activation calls waiting for execution.
+     */
+    public int getBulkheadActivationQueueCapacity() {
+        return bulkheadActivationQueueCapacity;
+    }
+
+    /**
+     * Set maximum number of activation calls waiting for execution.
+     * @param bulkheadActivationQueueCapacity Maximum number of activation calls waiting for execution.
+     */
+    public void setBulkheadActivationQueueCapacity(int bulkheadActivationQueueCapacity) {
+        this.bulkheadActivationQueueCapacity = bulkheadActivationQueueCapacity;
+    }
+
+    /**
+     * Get policy applied to activation calls exceeding the queue capacity.
+     * @return Policy applied to activation calls exceeding the queue capacity.
+     */
+    public BulkheadRejectionPolicy getBulkheadActivationRejectionPolicy() {
+        return bulkheadActivationRejectionPolicy;
+    }
+
+    /**
+     * Set policy applied to activation calls exceeding the queue capacity.
+     * @param bulkheadActivationRejectionPolicy Policy applied to activation calls exceeding the queue capacity.
+     */
+    public void setBulkheadActivationRejectionPolicy(BulkheadRejectionPolicy bulkheadActivationRejectionPolicy) {
+        this.bulkheadActivationRejectionPolicy = bulkheadActivationRejectionPolicy;
+    }
+
+    /**
+     * Get number of threads executing signature verification calls.
+     * @return Number of threads executing signature verification calls.
+     */
+    public int getBulkheadSignatureThreads() {
+        return bulkheadSignatureThreads;
+    }
+
+    /**
+     * Set number of threads executing signature verification calls.
+     * @param bulkheadSignatureThreads Number of threads executing signature verification calls.
+     */
+    public void setBulkheadSignatureThreads(int bulkheadSignatureThreads) {
+        this.bulkheadSignatureThreads = bulkheadSignatureThreads;
+    }
+
+    /**
+     * Get maximum number of signature verification calls waiting for execution.
+     * @return Maximum number of signature verification calls waiting for execution.
+     */
+    public int getBulkheadSignatureQueueCapacity() {
+        return bulkheadSignatureQueueCapacity;
+    }
+
+    /**
+     * Set maximum number of signature verification calls waiting for execution.
+     * @param bulkheadSignatureQueueCapacity Maximum number of signature verification calls waiting for execution.
+     */
+    public void setBulkheadSignatureQueueCapacity(int bulkheadSignatureQueueCapacity) {
+        this.bulkheadSignatureQueueCapacity = bulkheadSignatureQueueCapacity;
+    }
+
+    /**
+     * Get policy applied to signature verification calls exceeding the queue capacity.
+     * @return Policy applied to signature verification calls exceeding the queue capacity.
+     */
+    public BulkheadRejectionPolicy getBulkheadSignatureRejectionPolicy() {
+        return bulkheadSignatureRejectionPolicy;
+    }
+
+    /**
+     * Set policy applied to signature verification calls exceeding the queue capacity.
+     * @param bulkheadSignatureRejectionPolicy Policy applied to signature verification calls exceeding the queue capacity.
+     */
+    public void setBulkheadSignatureRejectionPolicy(BulkheadRejectionPolicy bulkheadSignatureRejectionPolicy) {
+        this.bulkheadSignatureRejectionPolicy = bulkheadSignatureRejectionPolicy;
+    }
+
+    /**
+     * Get number of threads executing token calls.
+     * @return Number of threads executing token calls.
+     */
+    public int getBulkheadTokenThreads() {
+        return bulkheadTokenThreads;
+    }
+
+    /**
+     * Set number of threads executing token calls.
+     * @param bulkheadTokenThreads Number of threads executing token calls.
+     */
+    public void setBulkheadTokenThreads(int bulkheadTokenThreads) {
+        this.bulkheadTokenThreads = bulkheadTokenThreads;
+    }
+
+    /**
+     * Get maximum number of token calls waiting for execution.
+     * @return Maximum number of token calls waiting for execution.
+     */
+    public int getBulkheadTokenQueueCapacity() {
+        return bulkheadTokenQueueCapacity;
+    }
+
+    /**
+     * Set maximum number of token calls waiting for execution.
+     * @param bulkheadTokenQueueCapacity Maximum number of token calls waiting for execution.
+     */
+    public void setBulkheadTokenQueueCapacity(int bulkheadTokenQueueCapacity) {
+        this.bulkheadTokenQueueCapacity = bulkheadTokenQueueCapacity;
+    }
+
+    /**
+     * Get policy applied to token calls exceeding the queue capacity.
+     * @return Policy applied to token calls exceeding the queue capacity.
+     */
+    public BulkheadRejectionPolicy getBulkheadTokenRejectionPolicy() {
+        return bulkheadTokenRejectionPolicy;
+    }
+
+    /**
+     * Set policy applied to token calls exceeding the queue capacity.
+     * @param bulkheadTokenRejectionPolicy Policy applied to token calls exceeding the queue capacity.
+     */
+    public void setBulkheadTokenRejectionPolicy(BulkheadRejectionPolicy bulkheadTokenRejectionPolicy) {
+        this.bulkheadTokenRejectionPolicy = bulkheadTokenRejectionPolicy;
+    }
+
+    /**
+     * Get maximum time in milliseconds for which a call waits in a bulkhead queue.
+     * @return Maximum time in milliseconds for which a call waits in a bulkhead queue.
+     */
+    public long getBulkheadQueueTimeout() {
+        return bulkheadQueueTimeout;
+    }
+
+    /**
+     * Set maximum time in milliseconds for which a call waits in a bulkhead queue.
+     * @param bulkheadQueueTimeout Maximum time in milliseconds for which a call waits in a bulkhead queue.
+     */
+    public void setBulkheadQueueTimeout(long bulkheadQueueTimeout) {
+        this.bulkheadQueueTimeout = bulkheadQueueTimeout;
+    }
+
+    /**
+     * Get the flag indicating that the pipelined protocol listener is enabled.
+     * @return True in case the pipelined protocol listener is enabled.
+     */
+    public boolean getPipelineEnabled() {
+        return pipelineEnabled;
+    }
+
+    /**
+     * Set the flag indicating that the pipelined protocol listener is enabled.
+     * @param pipelineEnabled True in case the pipelined protocol listener is enabled.
+     */
+    public void setPipelineEnabled(boolean pipelineEnabled) {
+        this.pipelineEnabled = pipelineEnabled;
+    }
+
+    /**
+     * Get address the pipelined protocol listener is bound to.
+     * @return Address the pipelined protocol listener is bound to.
+     */
+    public String getPipelineBindAddress() {
+        return pipelineBindAddress;
+    }
+
+    /**
+     * Set address the pipelined protocol listener is bound to.
+     * @param pipelineBindAddress Address the pipelined protocol listener is bound to.
+     */
+    public void setPipelineBindAddress(String pipelineBindAddress) {
+        this.pipelineBindAddress = pipelineBindAddress;
+    }
+
+    /**
+     * Get port of the pipelined protocol listener.
+     * @return Port of the pipelined protocol listener.
+     */
+    public int getPipelinePort() {
+        return pipelinePort;
+    }
+
+    /**
+     * Set port of the pipelined protocol listener.
+     * @param pipelinePort Port of the pipelined protocol listener.
+     */
+    public void setPipelinePort(int pipelinePort) {
+        this.pipelinePort = pipelinePort;
+    }
+
+    /**
+     * Get number of threads executing requests received by the pipelined protocol listener.
+     * @return Number of threads executing requests received by the pipelined protocol listener.
+     */
+    public int getPipelineThreads() {
+        return pipelineThreads;
+    }
+
+    /**
+     * Set number of threads executing requests received by the pipelined protocol listener.
+     * @param pipelineThreads Number of threads executing requests received by the pipelined protocol listener.
+     */
+    public void setPipelineThreads(int pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+    }
+
+    /**
+     * Get maximum size of a frame of the pipelined protocol.
+     * @return Maximum size of a frame of the pipelined protocol.
+     */
+    public int getPipelineMaxFrameSize() {
+        return pipelineMaxFrameSize;
+    }
+
+    /**
+     * Set maximum size of a frame of the pipelined protocol.
+     * @param pipelineMaxFrameSize Maximum size of a frame of the pipelined protocol.
+     */
+    public void setPipelineMaxFrameSize(int pipelineMaxFrameSize) {
+        this.pipelineMaxFrameSize = pipelineMaxFrameSize;
+    }
+
+    /**
+     * Get maximum number of requests in progress for a single connection.
+     * @return Maximum number of requests in progress for a single connection.
+     */
+    public int getPipelineMaxInFlightRequests() {
+        return pipelineMaxInFlightRequests;
+    }
+
+    /**
+     * Set maximum number of requests in progress for a single connection.
+     * @param pipelineMaxInFlightRequests Maximum number of requests in progress for a single connection.
+     */
+    public void setPipelineMaxInFlightRequests(int pipelineMaxInFlightRequests) {
+        this.pipelineMaxInFlightRequests = pipelineMaxInFlightRequests;
+    }
+
+    /**
+     * Get maximum number of requests of the pipelined protocol waiting for a worker thread.
+     * @return Maximum number of requests waiting for a worker thread.
+     */
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    /**
+     * Set maximum number of requests of the pipelined protocol waiting for a worker thread.
+     * @param pipelineQueueCapacity Maximum number of requests waiting for a worker thread.
+     */
+    public void setPipelineQueueCapacity(int pipelineQueueCapacity) {
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    /**
+     * Get the flag indicating that SOAP messages are processed as streams.
+     * @return True in case SOAP messages are processed as streams.
+     */
+    public boolean getSoapStreamingEnabled() {
+        return soapStreamingEnabled;
+    }
+
+    /**
+     * Set the flag indicating that SOAP messages are processed as streams.
+     * @param soapStreamingEnabled True in case SOAP messages are processed as streams.
+     */
+    public void setSoapStreamingEnabled(boolean soapStreamingEnabled) {
+        this.soapStreamingEnabled = soapStreamingEnabled;
+    }
+
+    /**
+     * Get default timeout in milliseconds of waiting for activation status change.
+     * @return Default timeout in milliseconds of waiting for activation status change.
+     */
+    public long getActivationStatusWaitDefaultTimeout() {
+        return activationStatusWaitDefaultTimeout;
+    }
+
+    /**
+     * Set default timeout in milliseconds of waiting for activation status change.
+     * @param activationStatusWaitDefaultTimeout Default timeout in milliseconds of waiting for activation status change.
+     */
+    public void setActivationStatusWaitDefaultTimeout(long activationStatusWaitDefaultTimeout) {
+        this.activationStatusWaitDefaultTimeout = activationStatusWaitDefaultTimeout;
+    }
+
+    /**
+     * Get maximum timeout in milliseconds of waiting for activation status change.
+     * @return Maximum timeout in milliseconds of waiting for activation status change.
+     */
+    public long getActivationStatusWaitMaxTimeout() {
+        return activationStatusWaitMaxTimeout;
+    }
+
+    /**
+     * Set maximum timeout in milliseconds of waiting for activation status change.
+     * @param activationStatusWaitMaxTimeout Maximum timeout in milliseconds of waiting for activation status change.
+     */
+    public void setActivationStatusWaitMaxTimeout(long activationStatusWaitMaxTimeout) {
+        this.activationStatusWaitMaxTimeout = activationStatusWaitMaxTimeout;
+    }
+
+    /**
+     * Get maximum number of requests concurrently waiting for activation status change.
+     * @return Maximum number of requests concurrently waiting for activation status change.
+     */
+    public int getActivationStatusWaitMaxWaiters() {
+        return activationStatusWaitMaxWaiters;
+    }
+
+    /**
+     * Set maximum number of requests concurrently waiting for activation status change.
+     * @param activationStatusWaitMaxWaiters Maximum number of requests concurrently waiting for activation status change.
+     */
+    public void setActivationStatusWaitMaxWaiters(int activationStatusWaitMaxWaiters) {
+        this.activationStatusWaitMaxWaiters = activationStatusWaitMaxWaiters;
+    }
+
+    /**
+     * Get number of threads completing requests waiting for activation status change.
+     * @return Number of threads completing requests waiting for activation status change.
+     */
+    public int getActivationStatusWaitThreads() {
+        return activationStatusWaitThreads;
+    }
+
+    /**
+     * Set number of threads completing requests waiting for activation status change.
+     * @param activationStatusWaitThreads Number of threads completing requests waiting for activation status change.
+     */
+    public void setActivationStatusWaitThreads(int activationStatusWaitThreads) {
+        this.activationStatusWaitThreads = activationStatusWaitThreads;
+    }
+
+    /**
+     * Get timeout in milliseconds of activation status event stream.
+     * @return Timeout in milliseconds of activation status event stream.
+     */
+    public long getActivationEventsTimeout() {
+        return activationEventsTimeout;
+    }
+
+    /**
+     * Set timeout in milliseconds of activation status event stream.
+     * @param activationEventsTimeout Timeout in milliseconds of activation status event stream.
+     */
+    public void setActivationEventsTimeout(long activationEventsTimeout) {
+        this.activationEventsTimeout = activationEventsTimeout;
+    }
+
+    /**
+     * Get maximum number of activation status event stream subscribers.
+     * @return Maximum number of activation status event stream subscribers.
+     */
+    public int getActivationEventsMaxSubscribers() {
+        return activationEventsMaxSubscribers;
+    }
+
+    /**
+     * Set maximum number of activation status event stream subscribers.
+     * @param activationEventsMaxSubscribers Maximum number of activation status event stream subscribers.
+     */
+    public void setActivationEventsMaxSubscribers(int activationEventsMaxSubscribers) {
+        this.activationEventsMaxSubscribers = activationEventsMaxSubscribers;
+    }
+
+    /**
+     * Get number of activation status change events loaded at once when an event stream is resumed.
+     * @return Number of activation status change events loaded at once when an event stream is resumed.
+     */
+    public int getActivationEventsReplayBatchSize() {
+        return activationEventsReplayBatchSize;
+    }
+
+    /**
+     * Set number of activation status change events loaded at once when an event stream is resumed.
+     * @param activationEventsReplayBatchSize Number of activation status change events loaded at once when an event stream is resumed.
+     */
+    public void setActivationEventsReplayBatchSize(int activationEventsReplayBatchSize) {
+        this.activationEventsReplayBatchSize = activationEventsReplayBatchSize;
+    }
+
+    /**
+     * Get time in milliseconds by which the replay of activation status change events starts before the last received event.
+     * @return Time in milliseconds by which the replay of activation status change events starts before the last received event.
+     */
+    public long getActivationEventsReplayOverlap() {
+        return activationEventsReplayOverlap;
+    }
+
+    /**
+     * Set time in milliseconds by which the replay of activation status change events starts before the last received event.
+     * @param activationEventsReplayOverlap Time in milliseconds by which the replay of activation status change events starts before the last received event.
+     */
+    public void setActivationEventsReplayOverlap(long activationEventsReplayOverlap) {
+        this.activationEventsReplayOverlap = activationEventsReplayOverlap;
+    }
+
+    /**
+     * Get number of threads sending activation status change events to subscribers.
+     * @return Number of threads sending activation status change events.
+     */
+    public int getActivationEventsThreads() {
+        return activationEventsThreads;
+    }
+
+    /**
+     * Set number of threads sending activation status change events to subscribers.
+     * @param activationEventsThreads Number of threads sending activation status change events.
+     */
+    public void setActivationEventsThreads(int activationEventsThreads) {
+        this.activationEventsThreads = activationEventsThreads;
+    }
+
+    /**
+     * Get maximum number of activation status change events waiting to be sent to a single subscriber.
+     * @return Maximum number of events waiting to be sent to a single subscriber.
+     */
+    public int getActivationEventsQueueCapacity() {
+        return activationEventsQueueCapacity;
+    }
+
+    /**
+     * Set maximum number of activation status change events waiting to be sent to a single subscriber.
+     * @param activationEventsQueueCapacity Maximum number of events waiting to be sent to a single subscriber.
+     */
+    public void setActivationEventsQueueCapacity(int activationEventsQueueCapacity) {
+        this.activationEventsQueueCapacity = activationEventsQueueCapacity;
+    }
+
     @Bean
     public ResourceBundleMessageSource messageSource() {
         ResourceBundleMessageSource source = new ResourceBundleMessageSource();
@@ -0,0 +1,105 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.getlime.security.powerauth.app.server.database.routing.ReadReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the read replica. When enabled, read-only service methods annotated with
+ * {@link io.getlime.security.powerauth.app.server.service.routing.ReadReplica}, such as listing of signature
+ * audit log, activation history, applications, integrations or callback URLs, are executed on the read replica,
+ * so that the reporting load does not affect the primary database. The primary database is configured using
+ * standard "spring.datasource.*" properties.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Configuration
+@ConditionalOnProperty(name = "powerauth.service.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfiguration {
+
+    @Value("${powerauth.service.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${powerauth.service.datasource.replica.username}")
+    private String replicaUsername;
+
+    @Value("${powerauth.service.datasource.replica.password}")
+    private String replicaPassword;
+
+    @Value("${powerauth.service.datasource.replica.retryIntervalInMilliseconds}")
+    private long retryInterval;
+
+    /**
+     * Prepare data source of the primary database.
+     *
+     * @param properties Data source properties.
+     * @return Data source of the primary database.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Prepare data source of the read replica.
+     *
+     * @param properties Data source properties, used for the driver class name.
+     * @return Data source of the read replica.
+     */
+    @Bean
+    @ConfigurationProperties("powerauth.service.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+    }
+
+    /**
+     * Prepare data source used by the application, which routes read-only transactions allowing
+     * stale data to the read replica.
+     *
+     * @param primaryDataSource Data source of the primary database.
+     * @param replicaDataSource Data source of the read replica.
+     * @return Routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, retryInterval));
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.configuration;
+
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+
+/**
+ * Configuration of the local in-JVM cache provider used by Hibernate second-level cache and query cache.
+ * Cache regions of reference entities are created before the entity manager factory starts, so that Hibernate
+ * uses them instead of creating unbounded caches without expiration. The expiration bounds the time in which
+ * changes made by another server instance become visible.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Configuration
+public class ReferenceEntityCacheConfiguration {
+
+    private static final String CACHE_MANAGER_BEAN_NAME = "referenceEntityCacheManager";
+
+    @Value("${powerauth.service.cache.referenceEntities.timeToLiveInMilliseconds}")
+    private long timeToLive;
+
+    @Value("${powerauth.service.cache.referenceEntities.maxEntries}")
+    private long maxEntries;
+
+    /**
+     * Prepare cache regions of reference entities in the default cache manager of the Ehcache JCache provider,
+     * which is the cache manager used by Hibernate.
+     *
+     * @return Cache manager with cache regions of reference entities.
+     */
+    @Bean(name = CACHE_MANAGER_BEAN_NAME)
+    public CacheManager referenceEntityCacheManager() {
+        final CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName()).getCacheManager();
+        final javax.cache.configuration.Configuration<Object, Object> configuration = Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMillis(timeToLive))));
+        for (String regionName : ReferenceEntityCache.getRegionNames()) {
+            if (cacheManager.getCache(regionName) == null) {
+                cacheManager.createCache(regionName, configuration);
+            }
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Make the entity manager factory depend on the cache manager with prepared cache regions.
+     */
+    @Configuration
+    static class EntityManagerFactoryDependsOnCacheManager extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnCacheManager() {
+            super(CACHE_MANAGER_BEAN_NAME);
+        }
+
+    }
+
+}
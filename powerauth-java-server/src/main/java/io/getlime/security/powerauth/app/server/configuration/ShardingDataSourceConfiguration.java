@@ -0,0 +1,115 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRoutingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of activation shards. When enabled, activations and data bound to activations, such as tokens,
+ * signature audit records, activation history and callback outbox records, are distributed to multiple databases
+ * by a hash of the activation ID. The default shard is configured using standard "spring.datasource.*" properties,
+ * other shards share the credentials and connection pool settings and they differ by URL.
+ *
+ * <p>Applications, master key pairs, callback URLs and integrations are maintained in the default shard and they
+ * are replicated to other shards. Sharding cannot be combined with the read replica, both configurations provide
+ * the application data source, so the startup fails in case both are enabled.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Configuration
+@ConditionalOnProperty(name = "powerauth.service.datasource.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfiguration {
+
+    @Value("${powerauth.service.datasource.sharding.urls}")
+    private String[] shardUrls;
+
+    @Value("${powerauth.service.datasource.sharding.username}")
+    private String shardUsername;
+
+    @Value("${powerauth.service.datasource.sharding.password}")
+    private String shardPassword;
+
+    /**
+     * Constructor which verifies that the read replica is not enabled.
+     *
+     * @param replicaEnabled Whether the read replica is enabled.
+     */
+    public ShardingDataSourceConfiguration(@Value("${powerauth.service.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("Sharding cannot be combined with the read replica, disable either "
+                    + "powerauth.service.datasource.sharding.enabled or powerauth.service.datasource.replica.enabled");
+        }
+    }
+
+    /**
+     * Prepare data source which routes connections to activation shards.
+     *
+     * @param properties Data source properties.
+     * @param environment Environment used for binding of connection pool settings.
+     * @return Routing data source.
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties, Environment environment) {
+        final List<DataSource> shardDataSources = new ArrayList<>();
+        shardDataSources.add(createShardDataSource(properties, environment, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword()));
+        for (String shardUrl : shardUrls) {
+            shardDataSources.add(createShardDataSource(properties, environment, shardUrl.trim(), shardUsername, shardPassword));
+        }
+        return new ShardRoutingDataSource(shardDataSources);
+    }
+
+    /**
+     * Prepare data source used by the application, which obtains connections from the shard selected once
+     * the first statement is executed.
+     *
+     * @param shardRoutingDataSource Routing data source.
+     * @return Data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("shardRoutingDataSource") DataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    private HikariDataSource createShardDataSource(DataSourceProperties properties, Environment environment, String url, String username, String password) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+
+}
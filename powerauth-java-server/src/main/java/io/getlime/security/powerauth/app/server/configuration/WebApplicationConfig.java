@@ -18,8 +18,12 @@
 
 package io.getlime.security.powerauth.app.server.configuration;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import io.getlime.security.powerauth.app.server.controller.RESTResponseExceptionResolver;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.mvc.annotation.ResponseStatusExceptionResolver;
@@ -30,13 +34,26 @@ import java.util.List;
 /**
  * PowerAuth 2.0 Server web application configuration. The main purpose of this class
  * at the moment is to assure proper handling of application exceptions (correct
- * order).
+ * order) and to register the CBOR message converter, so that RESTful API clients
+ * may use the "application/cbor" content type instead of JSON.
  *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Configuration
 public class WebApplicationConfig implements WebMvcConfigurer {
 
+    /**
+     * Register message converter for the CBOR content type. The converter uses the same object
+     * mapper configuration as the JSON message converter.
+     *
+     * @param builder Object mapper builder.
+     * @return CBOR message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
     @Override
     public void configureHandlerExceptionResolvers(List<HandlerExceptionResolver> exceptionResolvers) {
         exceptionResolvers.add(new RESTResponseExceptionResolver());
@@ -18,6 +18,7 @@
 
 package io.getlime.security.powerauth.app.server.configuration;
 
+import io.getlime.security.powerauth.app.server.endpoint.PooledJaxbPayloadMethodProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
@@ -28,7 +29,13 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.ws.config.annotation.EnableWs;
 import org.springframework.ws.config.annotation.WsConfigurerAdapter;
+import org.springframework.ws.WebServiceMessageFactory;
 import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.server.endpoint.adapter.DefaultMethodEndpointAdapter;
+import org.springframework.ws.server.endpoint.adapter.method.MethodArgumentResolver;
+import org.springframework.ws.server.endpoint.adapter.method.MethodReturnValueHandler;
+import org.springframework.ws.soap.axiom.AxiomSoapMessageFactory;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
 import org.springframework.ws.soap.security.wss4j2.Wss4jSecurityInterceptor;
 import org.springframework.ws.soap.security.wss4j2.callback.SpringSecurityPasswordValidationCallbackHandler;
 import org.springframework.ws.transport.http.MessageDispatcherServlet;
@@ -36,6 +43,8 @@ import org.springframework.ws.wsdl.wsdl11.DefaultWsdl11Definition;
 import org.springframework.xml.xsd.SimpleXsdSchema;
 import org.springframework.xml.xsd.XsdSchema;
 
+import javax.xml.bind.JAXBException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -107,6 +116,57 @@ public class WebServiceConfig extends WsConfigurerAdapter {
         super.addInterceptors(interceptors);
     }
 
+    /**
+     * Processor of JAXB request and response payloads with pooled marshallers and unmarshallers.
+     * @return Payload method processor.
+     * @throws JAXBException In case JAXB context cannot be created.
+     */
+    @Bean
+    public PooledJaxbPayloadMethodProcessor payloadMethodProcessor() throws JAXBException {
+        return new PooledJaxbPayloadMethodProcessor("io.getlime.security.powerauth");
+    }
+
+    /**
+     * Endpoint adapter which resolves JAXB payloads using the pooled payload method processor. Spring-WS would
+     * append custom processors after the default JAXB processor, which supports the same payloads, so the pooled
+     * processor is registered before the default argument resolvers and return value handlers.
+     * @return Endpoint adapter.
+     * @throws Exception In case the endpoint adapter cannot be initialized.
+     */
+    @Bean
+    public DefaultMethodEndpointAdapter defaultMethodEndpointAdapter() throws Exception {
+        final DefaultMethodEndpointAdapter adapter = new DefaultMethodEndpointAdapter();
+        // Initialize the default argument resolvers and return value handlers
+        adapter.afterPropertiesSet();
+
+        final List<MethodArgumentResolver> argumentResolvers = new ArrayList<>();
+        argumentResolvers.add(payloadMethodProcessor());
+        argumentResolvers.addAll(adapter.getMethodArgumentResolvers());
+        adapter.setMethodArgumentResolvers(argumentResolvers);
+
+        final List<MethodReturnValueHandler> returnValueHandlers = new ArrayList<>();
+        returnValueHandlers.add(payloadMethodProcessor());
+        returnValueHandlers.addAll(adapter.getMethodReturnValueHandlers());
+        adapter.setMethodReturnValueHandlers(returnValueHandlers);
+        return adapter;
+    }
+
+    /**
+     * SOAP message factory. In case streaming is enabled in configuration ("powerauth.service.soap.streamingEnabled"),
+     * AXIOM message factory is used, so that messages are not converted to DOM. Payload caching stays enabled
+     * when WS-Security is required, since the security interceptor needs to read the whole message.
+     * @return SOAP message factory.
+     */
+    @Bean
+    public WebServiceMessageFactory messageFactory() {
+        if (configuration.getSoapStreamingEnabled()) {
+            AxiomSoapMessageFactory messageFactory = new AxiomSoapMessageFactory();
+            messageFactory.setPayloadCaching(configuration.getRestrictAccess());
+            return messageFactory;
+        }
+        return new SaajSoapMessageFactory();
+    }
+
     /**
      * Map the SOAP interface to ${CONTEXT_PATH}/soap path.
      *
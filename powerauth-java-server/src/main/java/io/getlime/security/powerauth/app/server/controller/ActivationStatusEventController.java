@@ -0,0 +1,67 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.controller;
+
+import io.getlime.security.powerauth.app.server.service.activation.ActivationStatusEventPublisher;
+import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Class implementing the RESTful controller for streaming of activation status change events
+ * using server-sent events.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Controller
+@RequestMapping(value = "/rest")
+public class ActivationStatusEventController {
+
+    private ActivationStatusEventPublisher activationStatusEventPublisher;
+
+    @Autowired
+    public void setActivationStatusEventPublisher(ActivationStatusEventPublisher activationStatusEventPublisher) {
+        this.activationStatusEventPublisher = activationStatusEventPublisher;
+    }
+
+    /**
+     * Open a stream of activation status change events of given application. A subscriber reconnecting
+     * after the stream was closed should send ID of the last received event, either in the standard
+     * "Last-Event-ID" header or in the "lastEventId" parameter, so that missed events are sent first. Events
+     * around the last received event can be sent again, subscribers should ignore events already received.
+     *
+     * @param applicationId Application ID.
+     * @param lastEventIdHeader ID of the last received event sent in the "Last-Event-ID" header.
+     * @param lastEventId ID of the last received event sent as a request parameter.
+     * @return Stream of activation status change events.
+     * @throws GenericServiceException In case the application does not exist or too many subscribers are connected.
+     */
+    @RequestMapping(value = "/activation/status/events", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getActivationStatusEvents(@RequestParam("applicationId") Long applicationId,
+                                                @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                                @RequestParam(value = "lastEventId", required = false) Long lastEventId) throws GenericServiceException {
+        return activationStatusEventPublisher.subscribe(applicationId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+}
@@ -26,8 +26,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Class implementing the RESTful controller for PowerAuth service.
+ * Class implementing the RESTful controller for PowerAuth service. Calls are executed using
+ * {@link RESTRequestExecutor}, which may process them asynchronously.
  *
  * @author Petr Dvorak, petr@wultra.com
  */
@@ -36,23 +39,28 @@ import org.springframework.web.bind.annotation.ResponseBody;
 public class PowerAuthController {
 
     private PowerAuthService powerAuthService;
+    private RESTRequestExecutor requestExecutor;
 
     @Autowired
     public void setPowerAuthService(PowerAuthService powerAuthService) {
         this.powerAuthService = powerAuthService;
     }
 
+    @Autowired
+    public void setRequestExecutor(RESTRequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+
     /**
      * Call {@link PowerAuthService#getSystemStatus(GetSystemStatusRequest)} method and
      * return the response.
      *
      * @param request Get system status request.
      * @return System status response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/status", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetSystemStatusResponse> getSystemStatus(@RequestBody RESTRequestWrapper<GetSystemStatusRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getSystemStatus(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetSystemStatusResponse>> getSystemStatus(@RequestBody RESTRequestWrapper<GetSystemStatusRequest> request) {
+        return requestExecutor.execute("getSystemStatus", () -> new RESTResponseWrapper<>("OK", powerAuthService.getSystemStatus(request.getRequestObject())));
     }
 
     /**
@@ -61,11 +69,10 @@ public class PowerAuthController {
      *
      * @param request Request for list of error codes indicating a language to be returned in.
      * @return Response with the list of error codes..
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/error/list", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetErrorCodeListResponse> getErrorCodeList(@RequestBody RESTRequestWrapper<GetErrorCodeListRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getErrorCodeList(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetErrorCodeListResponse>> getErrorCodeList(@RequestBody RESTRequestWrapper<GetErrorCodeListRequest> request) {
+        return requestExecutor.execute("getErrorCodeList", () -> new RESTResponseWrapper<>("OK", powerAuthService.getErrorCodeList(request.getRequestObject())));
     }
 
     /**
@@ -74,11 +81,10 @@ public class PowerAuthController {
      *
      * @param request Init activation request.
      * @return Init activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/init", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<InitActivationResponse> initActivation(@RequestBody RESTRequestWrapper<InitActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.initActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<InitActivationResponse>> initActivation(@RequestBody RESTRequestWrapper<InitActivationRequest> request) {
+        return requestExecutor.execute("initActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.initActivation(request.getRequestObject())));
     }
 
     /**
@@ -87,11 +93,10 @@ public class PowerAuthController {
      *
      * @param request Prepare activation request.
      * @return Prepare activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/prepare", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<PrepareActivationResponse> prepareActivation(@RequestBody RESTRequestWrapper<PrepareActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.prepareActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<PrepareActivationResponse>> prepareActivation(@RequestBody RESTRequestWrapper<PrepareActivationRequest> request) {
+        return requestExecutor.execute("prepareActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.prepareActivation(request.getRequestObject())));
     }
 
     /**
@@ -100,11 +105,10 @@ public class PowerAuthController {
      *
      * @param request Create activation request.
      * @return Create activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateActivationResponse> createActivation(@RequestBody RESTRequestWrapper<CreateActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateActivationResponse>> createActivation(@RequestBody RESTRequestWrapper<CreateActivationRequest> request) {
+        return requestExecutor.execute("createActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.createActivation(request.getRequestObject())));
     }
 
     /**
@@ -113,11 +117,10 @@ public class PowerAuthController {
      *
      * @param request Commit activation request.
      * @return Commit activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/commit", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CommitActivationResponse> commitActivation(@RequestBody RESTRequestWrapper<CommitActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.commitActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CommitActivationResponse>> commitActivation(@RequestBody RESTRequestWrapper<CommitActivationRequest> request) {
+        return requestExecutor.execute("commitActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.commitActivation(request.getRequestObject())));
     }
 
     /**
@@ -126,11 +129,25 @@ public class PowerAuthController {
      *
      * @param request Activation status request.
      * @return Activation status response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/status", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetActivationStatusResponse> getActivationStatus(@RequestBody RESTRequestWrapper<GetActivationStatusRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getActivationStatus(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetActivationStatusResponse>> getActivationStatus(@RequestBody RESTRequestWrapper<GetActivationStatusRequest> request) {
+        return requestExecutor.execute("getActivationStatus", () -> new RESTResponseWrapper<>("OK", powerAuthService.getActivationStatus(request.getRequestObject())));
+    }
+
+    /**
+     * Call {@link PowerAuthService#waitForActivationStatusChange(WaitForActivationStatusChangeRequest)} method and
+     * return the response once the activation status changes or the timeout expires. The worker thread is not
+     * occupied while waiting.
+     *
+     * @param request Wait for activation status change request.
+     * @return Wait for activation status change response.
+     */
+    @RequestMapping(value = "/activation/status/wait", method = RequestMethod.POST)
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<WaitForActivationStatusChangeResponse>> waitForActivationStatusChange(@RequestBody RESTRequestWrapper<WaitForActivationStatusChangeRequest> request) {
+        return requestExecutor.execute("waitForActivationStatusChange", () -> powerAuthService.waitForActivationStatusChange(request.getRequestObject()))
+                .thenCompose(statusChange -> statusChange)
+                .thenApply(response -> new RESTResponseWrapper<>("OK", response));
     }
 
     /**
@@ -139,11 +156,10 @@ public class PowerAuthController {
      *
      * @param request Remove activation request.
      * @return Remove activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/remove", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<RemoveActivationResponse> removeActivation(@RequestBody RESTRequestWrapper<RemoveActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.removeActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<RemoveActivationResponse>> removeActivation(@RequestBody RESTRequestWrapper<RemoveActivationRequest> request) {
+        return requestExecutor.execute("removeActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.removeActivation(request.getRequestObject())));
     }
 
     /**
@@ -152,11 +168,10 @@ public class PowerAuthController {
      *
      * @param request Activation list request.
      * @return Activation list response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/list", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetActivationListForUserResponse> getActivatioListForUser(@RequestBody RESTRequestWrapper<GetActivationListForUserRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getActivationListForUser(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetActivationListForUserResponse>> getActivatioListForUser(@RequestBody RESTRequestWrapper<GetActivationListForUserRequest> request) {
+        return requestExecutor.execute("getActivatioListForUser", () -> new RESTResponseWrapper<>("OK", powerAuthService.getActivationListForUser(request.getRequestObject())));
     }
 
     /**
@@ -165,11 +180,10 @@ public class PowerAuthController {
      *
      * @param request Verify signature request.
      * @return Verify signature response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/signature/verify", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<VerifySignatureResponse> verifySignature(@RequestBody RESTRequestWrapper<VerifySignatureRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.verifySignature(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<VerifySignatureResponse>> verifySignature(@RequestBody RESTRequestWrapper<VerifySignatureRequest> request) {
+        return requestExecutor.execute("verifySignature", () -> new RESTResponseWrapper<>("OK", powerAuthService.verifySignature(request.getRequestObject())));
     }
 
     /**
@@ -178,11 +192,10 @@ public class PowerAuthController {
      *
      * @param request Create personalized offline signature data request.
      * @return Create personalized offline signature data response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/signature/offline/personalized/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreatePersonalizedOfflineSignaturePayloadResponse> createPersonalizedOfflineSignaturePayload(@RequestBody RESTRequestWrapper<CreatePersonalizedOfflineSignaturePayloadRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createPersonalizedOfflineSignaturePayload(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreatePersonalizedOfflineSignaturePayloadResponse>> createPersonalizedOfflineSignaturePayload(@RequestBody RESTRequestWrapper<CreatePersonalizedOfflineSignaturePayloadRequest> request) {
+        return requestExecutor.execute("createPersonalizedOfflineSignaturePayload", () -> new RESTResponseWrapper<>("OK", powerAuthService.createPersonalizedOfflineSignaturePayload(request.getRequestObject())));
     }
 
     /**
@@ -191,11 +204,10 @@ public class PowerAuthController {
      *
      * @param request Create non-personalized offline signature data request.
      * @return Create non-personalized offline signature data response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/signature/offline/non-personalized/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateNonPersonalizedOfflineSignaturePayloadResponse> createNonPersonalizedOfflineSignaturePayload(@RequestBody RESTRequestWrapper<CreateNonPersonalizedOfflineSignaturePayloadRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createNonPersonalizedOfflineSignaturePayload(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateNonPersonalizedOfflineSignaturePayloadResponse>> createNonPersonalizedOfflineSignaturePayload(@RequestBody RESTRequestWrapper<CreateNonPersonalizedOfflineSignaturePayloadRequest> request) {
+        return requestExecutor.execute("createNonPersonalizedOfflineSignaturePayload", () -> new RESTResponseWrapper<>("OK", powerAuthService.createNonPersonalizedOfflineSignaturePayload(request.getRequestObject())));
     }
 
     /**
@@ -204,11 +216,10 @@ public class PowerAuthController {
      *
      * @param request Verify offline signature request.
      * @return Verify offline signature response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/signature/offline/verify", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<VerifyOfflineSignatureResponse> verifyOfflineSignature(@RequestBody RESTRequestWrapper<VerifyOfflineSignatureRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.verifyOfflineSignature(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<VerifyOfflineSignatureResponse>> verifyOfflineSignature(@RequestBody RESTRequestWrapper<VerifyOfflineSignatureRequest> request) {
+        return requestExecutor.execute("verifyOfflineSignature", () -> new RESTResponseWrapper<>("OK", powerAuthService.verifyOfflineSignature(request.getRequestObject())));
     }
 
     /**
@@ -217,11 +228,10 @@ public class PowerAuthController {
      *
      * @param request Vault unlock request.
      * @return Vault unlock response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/vault/unlock", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<VaultUnlockResponse> vaultUnlock(@RequestBody RESTRequestWrapper<VaultUnlockRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.vaultUnlock(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<VaultUnlockResponse>> vaultUnlock(@RequestBody RESTRequestWrapper<VaultUnlockRequest> request) {
+        return requestExecutor.execute("vaultUnlock", () -> new RESTResponseWrapper<>("OK", powerAuthService.vaultUnlock(request.getRequestObject())));
     }
 
     /**
@@ -230,11 +240,10 @@ public class PowerAuthController {
      *
      * @param request E2E encryption key request.
      * @return E2E encryption key response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/encryption/key/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetPersonalizedEncryptionKeyResponse> generateE2EEncryptionKey(@RequestBody RESTRequestWrapper<GetPersonalizedEncryptionKeyRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.generateE2EPersonalizedEncryptionKey(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetPersonalizedEncryptionKeyResponse>> generateE2EEncryptionKey(@RequestBody RESTRequestWrapper<GetPersonalizedEncryptionKeyRequest> request) {
+        return requestExecutor.execute("generateE2EEncryptionKey", () -> new RESTResponseWrapper<>("OK", powerAuthService.generateE2EPersonalizedEncryptionKey(request.getRequestObject())));
     }
 
     /**
@@ -243,11 +252,10 @@ public class PowerAuthController {
      *
      * @param request E2E encryption key request.
      * @return E2E encryption key response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/encryption/key/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetNonPersonalizedEncryptionKeyResponse> generateE2ENonPersonalizedEncryptionKey(@RequestBody RESTRequestWrapper<GetNonPersonalizedEncryptionKeyRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.generateE2ENonPersonalizedEncryptionKey(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetNonPersonalizedEncryptionKeyResponse>> generateE2ENonPersonalizedEncryptionKey(@RequestBody RESTRequestWrapper<GetNonPersonalizedEncryptionKeyRequest> request) {
+        return requestExecutor.execute("generateE2ENonPersonalizedEncryptionKey", () -> new RESTResponseWrapper<>("OK", powerAuthService.generateE2ENonPersonalizedEncryptionKey(request.getRequestObject())));
     }
 
     /**
@@ -256,11 +264,10 @@ public class PowerAuthController {
      *
      * @param request Verify ECDSA signature request.
      * @return Verify ECDSA signature response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/signature/ecdsa/verify", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<VerifyECDSASignatureResponse> verifyECDSASignature(@RequestBody RESTRequestWrapper<VerifyECDSASignatureRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.verifyECDSASignature(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<VerifyECDSASignatureResponse>> verifyECDSASignature(@RequestBody RESTRequestWrapper<VerifyECDSASignatureRequest> request) {
+        return requestExecutor.execute("verifyECDSASignature", () -> new RESTResponseWrapper<>("OK", powerAuthService.verifyECDSASignature(request.getRequestObject())));
     }
 
     /**
@@ -269,11 +276,22 @@ public class PowerAuthController {
      *
      * @param request Signature audit request.
      * @return Signature audit response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/signature/list", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<SignatureAuditResponse> getSignatureAuditLog(@RequestBody RESTRequestWrapper<SignatureAuditRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getSignatureAuditLog(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<SignatureAuditResponse>> getSignatureAuditLog(@RequestBody RESTRequestWrapper<SignatureAuditRequest> request) {
+        return requestExecutor.execute("getSignatureAuditLog", () -> new RESTResponseWrapper<>("OK", powerAuthService.getSignatureAuditLog(request.getRequestObject())));
+    }
+
+    /**
+     * Call {@link PowerAuthService#getSignatureStatistics(GetSignatureStatisticsRequest)} method and
+     * return the response.
+     *
+     * @param request Signature statistics request.
+     * @return Signature statistics response.
+     */
+    @RequestMapping(value = "/signature/statistics", method = RequestMethod.POST)
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetSignatureStatisticsResponse>> getSignatureStatistics(@RequestBody RESTRequestWrapper<GetSignatureStatisticsRequest> request) {
+        return requestExecutor.execute("getSignatureStatistics", () -> new RESTResponseWrapper<>("OK", powerAuthService.getSignatureStatistics(request.getRequestObject())));
     }
 
     /**
@@ -282,11 +300,10 @@ public class PowerAuthController {
      *
      * @param request Activation history request.
      * @return Activation history response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/history", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<ActivationHistoryResponse> getActivationHistory(@RequestBody RESTRequestWrapper<ActivationHistoryRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getActivationHistory(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<ActivationHistoryResponse>> getActivationHistory(@RequestBody RESTRequestWrapper<ActivationHistoryRequest> request) {
+        return requestExecutor.execute("getActivationHistory", () -> new RESTResponseWrapper<>("OK", powerAuthService.getActivationHistory(request.getRequestObject())));
     }
 
     /**
@@ -295,11 +312,10 @@ public class PowerAuthController {
      *
      * @param request Block activation request.
      * @return Block activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/block", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<BlockActivationResponse> blockActivation(@RequestBody RESTRequestWrapper<BlockActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.blockActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<BlockActivationResponse>> blockActivation(@RequestBody RESTRequestWrapper<BlockActivationRequest> request) {
+        return requestExecutor.execute("blockActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.blockActivation(request.getRequestObject())));
     }
 
     /**
@@ -308,11 +324,10 @@ public class PowerAuthController {
      *
      * @param request Unblock activation request.
      * @return Unblock activation response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/activation/unblock", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<UnblockActivationResponse> unblockActivation(@RequestBody RESTRequestWrapper<UnblockActivationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.unblockActivation(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<UnblockActivationResponse>> unblockActivation(@RequestBody RESTRequestWrapper<UnblockActivationRequest> request) {
+        return requestExecutor.execute("unblockActivation", () -> new RESTResponseWrapper<>("OK", powerAuthService.unblockActivation(request.getRequestObject())));
     }
 
     /**
@@ -321,11 +336,10 @@ public class PowerAuthController {
      *
      * @param request Application list request.
      * @return Application list response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/list", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetApplicationListResponse> getApplicationList(@RequestBody RESTRequestWrapper<GetApplicationListRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getApplicationList(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetApplicationListResponse>> getApplicationList(@RequestBody RESTRequestWrapper<GetApplicationListRequest> request) {
+        return requestExecutor.execute("getApplicationList", () -> new RESTResponseWrapper<>("OK", powerAuthService.getApplicationList(request.getRequestObject())));
     }
 
     /**
@@ -334,11 +348,10 @@ public class PowerAuthController {
      *
      * @param request Application detail request.
      * @return Application detail response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/detail", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetApplicationDetailResponse> getApplicationDetail(@RequestBody RESTRequestWrapper<GetApplicationDetailRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getApplicationDetail(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetApplicationDetailResponse>> getApplicationDetail(@RequestBody RESTRequestWrapper<GetApplicationDetailRequest> request) {
+        return requestExecutor.execute("getApplicationDetail", () -> new RESTResponseWrapper<>("OK", powerAuthService.getApplicationDetail(request.getRequestObject())));
     }
 
     /**
@@ -347,11 +360,10 @@ public class PowerAuthController {
      *
      * @param request Application detail request.
      * @return Application detail response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/detail/version", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<LookupApplicationByAppKeyResponse> lookupApplicationByAppKey(@RequestBody RESTRequestWrapper<LookupApplicationByAppKeyRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.lookupApplicationByAppKey(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<LookupApplicationByAppKeyResponse>> lookupApplicationByAppKey(@RequestBody RESTRequestWrapper<LookupApplicationByAppKeyRequest> request) {
+        return requestExecutor.execute("lookupApplicationByAppKey", () -> new RESTResponseWrapper<>("OK", powerAuthService.lookupApplicationByAppKey(request.getRequestObject())));
     }
 
     /**
@@ -360,11 +372,10 @@ public class PowerAuthController {
      *
      * @param request Create application request.
      * @return Create application response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateApplicationResponse> createApplication(@RequestBody RESTRequestWrapper<CreateApplicationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createApplication(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateApplicationResponse>> createApplication(@RequestBody RESTRequestWrapper<CreateApplicationRequest> request) {
+        return requestExecutor.execute("createApplication", () -> new RESTResponseWrapper<>("OK", powerAuthService.createApplication(request.getRequestObject())));
     }
 
     /**
@@ -373,11 +384,10 @@ public class PowerAuthController {
      *
      * @param request Create application version request.
      * @return Create application version response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/version/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateApplicationVersionResponse> createApplicationVersion(@RequestBody RESTRequestWrapper<CreateApplicationVersionRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createApplicationVersion(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateApplicationVersionResponse>> createApplicationVersion(@RequestBody RESTRequestWrapper<CreateApplicationVersionRequest> request) {
+        return requestExecutor.execute("createApplicationVersion", () -> new RESTResponseWrapper<>("OK", powerAuthService.createApplicationVersion(request.getRequestObject())));
     }
 
     /**
@@ -386,11 +396,10 @@ public class PowerAuthController {
      *
      * @param request Unsupport application version request.
      * @return Unsupport application version response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/version/unsupport", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<UnsupportApplicationVersionResponse> unsupportApplicationVersion(@RequestBody RESTRequestWrapper<UnsupportApplicationVersionRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.unsupportApplicationVersion(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<UnsupportApplicationVersionResponse>> unsupportApplicationVersion(@RequestBody RESTRequestWrapper<UnsupportApplicationVersionRequest> request) {
+        return requestExecutor.execute("unsupportApplicationVersion", () -> new RESTResponseWrapper<>("OK", powerAuthService.unsupportApplicationVersion(request.getRequestObject())));
     }
 
     /**
@@ -399,11 +408,10 @@ public class PowerAuthController {
      *
      * @param request Support application version request.
      * @return Support application version response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/version/support", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<SupportApplicationVersionResponse> supportApplicationVersion(@RequestBody RESTRequestWrapper<SupportApplicationVersionRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.supportApplicationVersion(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<SupportApplicationVersionResponse>> supportApplicationVersion(@RequestBody RESTRequestWrapper<SupportApplicationVersionRequest> request) {
+        return requestExecutor.execute("supportApplicationVersion", () -> new RESTResponseWrapper<>("OK", powerAuthService.supportApplicationVersion(request.getRequestObject())));
     }
 
     /**
@@ -412,11 +420,10 @@ public class PowerAuthController {
      *
      * @param request Create integration request.
      * @return Create integration response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/integration/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateIntegrationResponse> createIntegration(@RequestBody RESTRequestWrapper<CreateIntegrationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createIntegration(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateIntegrationResponse>> createIntegration(@RequestBody RESTRequestWrapper<CreateIntegrationRequest> request) {
+        return requestExecutor.execute("createIntegration", () -> new RESTResponseWrapper<>("OK", powerAuthService.createIntegration(request.getRequestObject())));
     }
 
     /**
@@ -424,11 +431,10 @@ public class PowerAuthController {
      * return the response.
      *
      * @return Get integration list response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/integration/list", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetIntegrationListResponse> getIntegrationList() throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getIntegrationList());
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetIntegrationListResponse>> getIntegrationList() {
+        return requestExecutor.execute("getIntegrationList", () -> new RESTResponseWrapper<>("OK", powerAuthService.getIntegrationList()));
     }
 
     /**
@@ -437,11 +443,10 @@ public class PowerAuthController {
      *
      * @param request Remove integration request.
      * @return Remove integration response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/integration/remove", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<RemoveIntegrationResponse> removeIntegration(@RequestBody RESTRequestWrapper<RemoveIntegrationRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.removeIntegration(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<RemoveIntegrationResponse>> removeIntegration(@RequestBody RESTRequestWrapper<RemoveIntegrationRequest> request) {
+        return requestExecutor.execute("removeIntegration", () -> new RESTResponseWrapper<>("OK", powerAuthService.removeIntegration(request.getRequestObject())));
     }
 
     /**
@@ -450,11 +455,10 @@ public class PowerAuthController {
      *
      * @param request Create callback URL request.
      * @return Create callback URL response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/callback/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateCallbackUrlResponse> createCallbackUrl(@RequestBody RESTRequestWrapper<CreateCallbackUrlRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createCallbackUrl(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateCallbackUrlResponse>> createCallbackUrl(@RequestBody RESTRequestWrapper<CreateCallbackUrlRequest> request) {
+        return requestExecutor.execute("createCallbackUrl", () -> new RESTResponseWrapper<>("OK", powerAuthService.createCallbackUrl(request.getRequestObject())));
     }
 
     /**
@@ -463,11 +467,10 @@ public class PowerAuthController {
      *
      * @param request Get callback URL list request.
      * @return Get callback URL list response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/callback/list", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<GetCallbackUrlListResponse> getCallbackUrlList(@RequestBody RESTRequestWrapper<GetCallbackUrlListRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.getCallbackUrlList(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<GetCallbackUrlListResponse>> getCallbackUrlList(@RequestBody RESTRequestWrapper<GetCallbackUrlListRequest> request) {
+        return requestExecutor.execute("getCallbackUrlList", () -> new RESTResponseWrapper<>("OK", powerAuthService.getCallbackUrlList(request.getRequestObject())));
     }
 
     /**
@@ -476,11 +479,10 @@ public class PowerAuthController {
      *
      * @param request Remove callback URL request.
      * @return Remove callback URL response.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/application/callback/remove", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<RemoveCallbackUrlResponse> removeCallbackUrl(@RequestBody RESTRequestWrapper<RemoveCallbackUrlRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.removeCallbackUrl(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<RemoveCallbackUrlResponse>> removeCallbackUrl(@RequestBody RESTRequestWrapper<RemoveCallbackUrlRequest> request) {
+        return requestExecutor.execute("removeCallbackUrl", () -> new RESTResponseWrapper<>("OK", powerAuthService.removeCallbackUrl(request.getRequestObject())));
     }
 
     /**
@@ -489,11 +491,10 @@ public class PowerAuthController {
      *
      * @param request Create a new token for a simple token-based authentication.
      * @return Response with the new token information.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/token/create", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<CreateTokenResponse> createToken(@RequestBody RESTRequestWrapper<CreateTokenRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.createToken(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<CreateTokenResponse>> createToken(@RequestBody RESTRequestWrapper<CreateTokenRequest> request) {
+        return requestExecutor.execute("createToken", () -> new RESTResponseWrapper<>("OK", powerAuthService.createToken(request.getRequestObject())));
     }
 
     /**
@@ -502,11 +503,10 @@ public class PowerAuthController {
      *
      * @param request Validate token during token-based authentication.
      * @return Token validation result.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/token/validate", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<ValidateTokenResponse> validateToken(@RequestBody RESTRequestWrapper<ValidateTokenRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.validateToken(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<ValidateTokenResponse>> validateToken(@RequestBody RESTRequestWrapper<ValidateTokenRequest> request) {
+        return requestExecutor.execute("validateToken", () -> new RESTResponseWrapper<>("OK", powerAuthService.validateToken(request.getRequestObject())));
     }
 
     /**
@@ -515,11 +515,10 @@ public class PowerAuthController {
      *
      * @param request Remove token with given token ID.
      * @return Token removal result.
-     * @throws Exception In case the service throws exception.
      */
     @RequestMapping(value = "/token/remove", method = RequestMethod.POST)
-    public @ResponseBody RESTResponseWrapper<RemoveTokenResponse> removeToken(@RequestBody RESTRequestWrapper<RemoveTokenRequest> request) throws Exception {
-        return new RESTResponseWrapper<>("OK", powerAuthService.removeToken(request.getRequestObject()));
+    public @ResponseBody CompletableFuture<RESTResponseWrapper<RemoveTokenResponse>> removeToken(@RequestBody RESTRequestWrapper<RemoveTokenRequest> request) {
+        return requestExecutor.execute("removeToken", () -> new RESTResponseWrapper<>("OK", powerAuthService.removeToken(request.getRequestObject())));
     }
 
 }
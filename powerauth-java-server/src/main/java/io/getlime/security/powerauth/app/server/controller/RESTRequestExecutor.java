@@ -0,0 +1,197 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.controller;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class responsible for execution of RESTful API calls. In case asynchronous execution is enabled,
+ * calls are executed on a dedicated thread pool and the servlet container worker thread is released
+ * while the call is in progress. The number of concurrently executed calls is limited per operation,
+ * calls exceeding the limit wait in a bounded queue and are rejected once the queue is full.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class RESTRequestExecutor {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(RESTRequestExecutor.class);
+
+    private final PowerAuthServiceConfiguration configuration;
+    private final LocalizationProvider localizationProvider;
+
+    // Concurrency limits for individual operations
+    private final Map<String, Integer> concurrencyLimits = new HashMap<>();
+
+    // Limiters for individual operations
+    private final Map<String, OperationLimiter> limiters = new ConcurrentHashMap<>();
+
+    private ExecutorService executorService;
+
+    @Autowired
+    public RESTRequestExecutor(PowerAuthServiceConfiguration configuration, LocalizationProvider localizationProvider) {
+        this.configuration = configuration;
+        this.localizationProvider = localizationProvider;
+    }
+
+    /**
+     * Prepare the thread pool and parse concurrency limits of operations.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (!configuration.getAsyncRequestsEnabled()) {
+            return;
+        }
+        final String limits = configuration.getAsyncConcurrencyLimits();
+        if (limits != null && !limits.trim().isEmpty()) {
+            for (String limit : limits.split(",")) {
+                final String[] parts = limit.split("=");
+                if (parts.length != 2) {
+                    logger.warn("Invalid concurrency limit configuration: {}", limit);
+                    continue;
+                }
+                try {
+                    concurrencyLimits.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+                } catch (NumberFormatException ex) {
+                    logger.warn("Invalid concurrency limit configuration: {}", limit);
+                }
+            }
+        }
+        final AtomicInteger threadCounter = new AtomicInteger();
+        executorService = Executors.newFixedThreadPool(configuration.getAsyncPoolSize(), runnable -> {
+            Thread thread = new Thread(runnable, "rest-executor-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop the thread pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Execute a call of given operation. In case asynchronous execution is disabled, the call is executed
+     * in the calling thread and a completed future is returned.
+     *
+     * @param operation Name of the operation, used for concurrency limiting.
+     * @param call Call to be executed.
+     * @param <T> Type of the call result.
+     * @return Future with the call result.
+     */
+    public <T> CompletableFuture<T> execute(String operation, Callable<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        if (executorService == null) {
+            run(call, future);
+            return future;
+        }
+        final OperationLimiter limiter = limiters.computeIfAbsent(operation, name ->
+                new OperationLimiter(concurrencyLimits.getOrDefault(name, configuration.getAsyncDefaultConcurrencyLimit())));
+        if (!limiter.submit(() -> run(call, future))) {
+            logger.warn("Call of operation {} was rejected, too many concurrent calls", operation);
+            future.completeExceptionally(localizationProvider.buildExceptionForCode(ServiceError.SERVICE_OVERLOADED));
+        }
+        return future;
+    }
+
+    private <T> void run(Callable<T> call, CompletableFuture<T> future) {
+        try {
+            future.complete(call.call());
+        } catch (Exception ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Limiter of concurrent calls of a single operation.
+     */
+    private class OperationLimiter {
+
+        private final int concurrencyLimit;
+        private final Queue<Runnable> queue = new ArrayDeque<>();
+        private int running;
+
+        OperationLimiter(int concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+        }
+
+        /**
+         * Submit a task for execution.
+         * @param task Task to be executed.
+         * @return Whether the task was accepted.
+         */
+        synchronized boolean submit(Runnable task) {
+            if (running < concurrencyLimit) {
+                start(task);
+                return true;
+            }
+            if (queue.size() >= configuration.getAsyncMaxQueuedRequests()) {
+                return false;
+            }
+            queue.add(task);
+            return true;
+        }
+
+        private void start(Runnable task) {
+            running++;
+            try {
+                executorService.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        complete();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                running--;
+                throw ex;
+            }
+        }
+
+        private synchronized void complete() {
+            running--;
+            final Runnable next = queue.poll();
+            if (next != null) {
+                start(next);
+            }
+        }
+
+    }
+
+}
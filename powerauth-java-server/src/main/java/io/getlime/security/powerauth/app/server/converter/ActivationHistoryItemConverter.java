@@ -0,0 +1,52 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.converter;
+
+import io.getlime.security.powerauth.ActivationHistoryResponse;
+import io.getlime.security.powerauth.app.server.database.model.projection.ActivationHistoryItem;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+
+/**
+ * Converter from {@link ActivationHistoryItem} to activation history item {@link ActivationHistoryResponse.Items}.
+ * The converter is stateless and it can be shared.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class ActivationHistoryItemConverter {
+
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+
+    /**
+     * Convert activation history record to activation history item.
+     *
+     * @param activationId Activation ID.
+     * @param activationHistoryItem Activation history record.
+     * @return Activation history item.
+     * @throws DatatypeConfigurationException In case date cannot be converted.
+     */
+    public ActivationHistoryResponse.Items convert(String activationId, ActivationHistoryItem activationHistoryItem) throws DatatypeConfigurationException {
+        ActivationHistoryResponse.Items item = new ActivationHistoryResponse.Items();
+        item.setId(activationHistoryItem.getId());
+        item.setActivationId(activationId);
+        item.setActivationStatus(activationStatusConverter.convert(activationHistoryItem.getActivationStatus()));
+        item.setTimestampCreated(XMLGregorianCalendarConverter.convertFrom(activationHistoryItem.getTimestampCreated()));
+        return item;
+    }
+
+}
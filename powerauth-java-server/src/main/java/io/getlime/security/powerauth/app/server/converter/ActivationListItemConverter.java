@@ -0,0 +1,59 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.converter;
+
+import io.getlime.security.powerauth.GetActivationListForUserResponse;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationEntity;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+
+/**
+ * Converter from {@link ActivationRecordEntity} to activation list item {@link GetActivationListForUserResponse.Activations}.
+ * The converter is stateless and it can be shared.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class ActivationListItemConverter {
+
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+
+    /**
+     * Convert activation entity to activation list item.
+     *
+     * @param activation Activation entity.
+     * @return Activation list item.
+     * @throws DatatypeConfigurationException In case date cannot be converted.
+     */
+    public GetActivationListForUserResponse.Activations convert(ActivationRecordEntity activation) throws DatatypeConfigurationException {
+        final ApplicationEntity application = activation.getApplication();
+        GetActivationListForUserResponse.Activations item = new GetActivationListForUserResponse.Activations();
+        item.setActivationId(activation.getActivationId());
+        item.setActivationStatus(activationStatusConverter.convert(activation.getActivationStatus()));
+        item.setBlockedReason(activation.getBlockedReason());
+        item.setActivationName(activation.getActivationName());
+        item.setExtras(activation.getExtras());
+        item.setTimestampCreated(XMLGregorianCalendarConverter.convertFrom(activation.getTimestampCreated()));
+        item.setTimestampLastUsed(XMLGregorianCalendarConverter.convertFrom(activation.getTimestampLastUsed()));
+        item.setUserId(activation.getUserId());
+        item.setApplicationId(application.getId());
+        item.setApplicationName(application.getName());
+        return item;
+    }
+
+}
@@ -20,6 +20,8 @@ package io.getlime.security.powerauth.app.server.converter;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.getlime.security.powerauth.KeyValueMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +36,9 @@ import java.io.IOException;
 public class KeyValueMapConverter {
 
     private static final ObjectMapper mapper = new ObjectMapper();
+    // Reader and writer are immutable and bound to the type, so the type does not need to be resolved on each conversion
+    private static final ObjectReader reader = mapper.readerFor(KeyValueMap.class);
+    private static final ObjectWriter writer = mapper.writerFor(KeyValueMap.class);
     private static final Logger logger = LoggerFactory.getLogger(KeyValueMapConverter.class);
 
     /**
@@ -46,7 +51,7 @@ public class KeyValueMapConverter {
             return null;
         }
         try {
-            return mapper.writeValueAsString(keyValueMap);
+            return writer.writeValueAsString(keyValueMap);
         } catch (JsonProcessingException ex) {
             logger.error("Unable to serialize JSON payload.", ex);
             return null;
@@ -63,7 +68,7 @@ public class KeyValueMapConverter {
             return new KeyValueMap();
         }
         try {
-            return mapper.readValue(s, KeyValueMap.class);
+            return reader.readValue(s);
         } catch (IOException ex) {
             logger.error("Unable to parse JSON payload.", ex);
             return new KeyValueMap();
@@ -0,0 +1,64 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.converter;
+
+import io.getlime.security.powerauth.SignatureAuditResponse;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureEntity;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+
+/**
+ * Converter from {@link SignatureEntity} to signature audit item {@link SignatureAuditResponse.Items}.
+ * The converter is stateless and it can be shared.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class SignatureAuditItemConverter {
+
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+    private final SignatureTypeConverter signatureTypeConverter = new SignatureTypeConverter();
+    private final KeyValueMapConverter keyValueMapConverter = new KeyValueMapConverter();
+
+    /**
+     * Convert signature audit entity to signature audit item.
+     *
+     * @param signatureEntity Signature audit entity.
+     * @return Signature audit item.
+     * @throws DatatypeConfigurationException In case date cannot be converted.
+     */
+    public SignatureAuditResponse.Items convert(SignatureEntity signatureEntity) throws DatatypeConfigurationException {
+        final ActivationRecordEntity activation = signatureEntity.getActivation();
+        SignatureAuditResponse.Items item = new SignatureAuditResponse.Items();
+        item.setId(signatureEntity.getId());
+        item.setApplicationId(activation.getApplication().getId());
+        item.setActivationCounter(signatureEntity.getActivationCounter());
+        item.setActivationStatus(activationStatusConverter.convert(signatureEntity.getActivationStatus()));
+        item.setAdditionalInfo(keyValueMapConverter.fromString(signatureEntity.getAdditionalInfo()));
+        item.setActivationId(activation.getActivationId());
+        item.setDataBase64(signatureEntity.getDataBase64());
+        item.setSignature(signatureEntity.getSignature());
+        item.setSignatureType(signatureTypeConverter.convertFrom(signatureEntity.getSignatureType()));
+        item.setValid(signatureEntity.getValid());
+        item.setTimestampCreated(XMLGregorianCalendarConverter.convertFrom(signatureEntity.getTimestampCreated()));
+        item.setNote(signatureEntity.getNote());
+        item.setUserId(activation.getUserId());
+        return item;
+    }
+
+}
@@ -27,10 +27,15 @@ import java.util.GregorianCalendar;
  * Utility class used for conversion between model data types {@link XMLGregorianCalendar}
  * and {@link Date}.
  *
+ * <p>The {@link DatatypeFactory} lookup is expensive, therefore the factory is looked up only once
+ * and shared. The factory only creates new instances of data types and it is thread-safe.</p>
+ *
  * @author Petr Dvorak, petr@wultra.com
  */
 public class XMLGregorianCalendarConverter {
 
+    private static volatile DatatypeFactory datatypeFactory;
+
     /**
      * Convert between Date and XMLGregorianCalendar.
      *
@@ -44,7 +49,7 @@ public class XMLGregorianCalendarConverter {
         }
         GregorianCalendar c = new GregorianCalendar();
         c.setTime(date);
-        return DatatypeFactory.newInstance().newXMLGregorianCalendar(c);
+        return getDatatypeFactory().newXMLGregorianCalendar(c);
     }
 
     /**
@@ -61,4 +66,19 @@ public class XMLGregorianCalendarConverter {
         return calendar.toGregorianCalendar().getTime();
     }
 
+    /**
+     * Get the shared datatype factory, look the factory up in case it does not exist yet.
+     *
+     * @return Datatype factory.
+     * @throws DatatypeConfigurationException In case the factory cannot be created.
+     */
+    private static DatatypeFactory getDatatypeFactory() throws DatatypeConfigurationException {
+        DatatypeFactory factory = datatypeFactory;
+        if (factory == null) {
+            factory = DatatypeFactory.newInstance();
+            datatypeFactory = factory;
+        }
+        return factory;
+    }
+
 }
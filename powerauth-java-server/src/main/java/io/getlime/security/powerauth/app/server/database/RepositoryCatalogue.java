@@ -25,6 +25,9 @@ import org.springframework.stereotype.Component;
 /**
  * Catalogue with all repositories.
  *
+ * <p>In case activation shards are enabled, repositories of activation data operate on the shard selected
+ * for the current thread, see {@link io.getlime.security.powerauth.app.server.database.sharding.ShardRouter}.</p>
+ *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Component
@@ -46,6 +49,10 @@ public class RepositoryCatalogue {
 
     private final SignatureAuditRepository signatureAuditRepository;
 
+    private final SignatureStatisticsRepository signatureStatisticsRepository;
+
+    private final SignatureVerificationRepository signatureVerificationRepository;
+
     private final TokenRepository tokenRepository;
 
     @Autowired
@@ -58,6 +65,8 @@ public class RepositoryCatalogue {
             IntegrationRepository integrationRepository,
             MasterKeyPairRepository masterKeyPairRepository,
             SignatureAuditRepository signatureAuditRepository,
+            SignatureStatisticsRepository signatureStatisticsRepository,
+            SignatureVerificationRepository signatureVerificationRepository,
             TokenRepository tokenRepository) {
 
         this.activationRepository = activationRepository;
@@ -68,6 +77,8 @@ public class RepositoryCatalogue {
         this.integrationRepository = integrationRepository;
         this.masterKeyPairRepository = masterKeyPairRepository;
         this.signatureAuditRepository = signatureAuditRepository;
+        this.signatureStatisticsRepository = signatureStatisticsRepository;
+        this.signatureVerificationRepository = signatureVerificationRepository;
         this.tokenRepository = tokenRepository;
     }
 
@@ -105,6 +116,14 @@ public class RepositoryCatalogue {
         return signatureAuditRepository;
     }
 
+    public SignatureStatisticsRepository getSignatureStatisticsRepository() {
+        return signatureStatisticsRepository;
+    }
+
+    public SignatureVerificationRepository getSignatureVerificationRepository() {
+        return signatureVerificationRepository;
+    }
+
     public TokenRepository getTokenRepository() {
         return tokenRepository;
     }
@@ -0,0 +1,111 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.cache;
+
+import io.getlime.security.powerauth.app.server.database.model.entity.*;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class managing the Hibernate second-level cache of reference entities, which are read on almost every
+ * request, but they change only through admin operations: applications, application versions, master key
+ * pairs, callback URLs and integrations. Lookup queries of these entities are cached in a dedicated query
+ * cache region.
+ *
+ * <p>Changes made through repositories are applied to the cache by Hibernate. Admin operations evict
+ * the cache after the transaction completes in addition, so that cached lookup query results and entities
+ * loaded by concurrent transactions are dropped as well.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class ReferenceEntityCache {
+
+    /**
+     * Name of the query cache region of reference entity lookup queries.
+     */
+    public static final String QUERY_REGION = "io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityQueries";
+
+    /**
+     * Classes of cached reference entities.
+     */
+    public static final List<Class<?>> ENTITY_CLASSES = Collections.unmodifiableList(Arrays.asList(
+            ApplicationEntity.class,
+            ApplicationVersionEntity.class,
+            MasterKeyPairEntity.class,
+            CallbackUrlEntity.class,
+            IntegrationEntity.class
+    ));
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public ReferenceEntityCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Get names of all cache regions used for reference entities. Entity regions are named by entity classes.
+     *
+     * @return Names of cache regions.
+     */
+    public static List<String> getRegionNames() {
+        final List<String> regionNames = new ArrayList<>();
+        for (Class<?> entityClass : ENTITY_CLASSES) {
+            regionNames.add(entityClass.getName());
+        }
+        regionNames.add(QUERY_REGION);
+        return regionNames;
+    }
+
+    /**
+     * Evict cached entities of given types and cached lookup query results. In case a transaction is active,
+     * the cache is evicted after the transaction completes, otherwise immediately.
+     *
+     * @param entityClasses Classes of entities to evict.
+     */
+    public void evict(Class<?>... entityClasses) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(entityClasses);
+                }
+            });
+        } else {
+            evictNow(entityClasses);
+        }
+    }
+
+    private void evictNow(Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            entityManagerFactory.getCache().evict(entityClass);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(QUERY_REGION);
+    }
+
+}
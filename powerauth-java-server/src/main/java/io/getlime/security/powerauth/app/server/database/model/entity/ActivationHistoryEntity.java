@@ -34,8 +34,10 @@ import java.util.Objects;
 @Table(name = "pa_activation_history")
 public class ActivationHistoryEntity implements Serializable {
 
+    // History records are written in batches, identifiers are allocated in blocks when the new identifier generators
+    // are enabled, so that the sequence (or sequence table) is accessed only once per block of records.
     @Id
-    @SequenceGenerator(name = "pa_activation_history", sequenceName = "pa_activation_history_seq")
+    @SequenceGenerator(name = "pa_activation_history", sequenceName = "pa_activation_history_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_activation_history")
     @Column(name = "id")
     private Long id;
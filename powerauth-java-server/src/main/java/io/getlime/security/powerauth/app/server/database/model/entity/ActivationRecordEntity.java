@@ -20,6 +20,7 @@ package io.getlime.security.powerauth.app.server.database.model.entity;
 import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
 import io.getlime.security.powerauth.app.server.database.model.ActivationStatusConverter;
 import io.getlime.security.powerauth.app.server.database.model.KeyEncryptionMode;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -29,14 +30,37 @@ import java.util.Objects;
 /**
  * Database entity for an "activation" objects.
  *
+ * <p>The entity uses dynamic update, so that frequent updates of the counter, failed attempts, last used
+ * timestamp and status during signature verification do not rewrite the keys and other unchanged columns.</p>
+ *
+ * <p>Associated application and master key pair are loaded lazily. Use cases which need the associated
+ * data load the activation using a named entity graph. Signature verification and other operations which
+ * lock the activation do not use any entity graph, because a fetch join would lock the joined rows as well.
+ * The application is resolved from the second-level cache in this case.</p>
+ *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity
 @Table(name = "pa_activation")
+@DynamicUpdate
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = ActivationRecordEntity.GRAPH_STATUS, attributeNodes = @NamedAttributeNode("application")),
+        @NamedEntityGraph(name = ActivationRecordEntity.GRAPH_LIST, attributeNodes = @NamedAttributeNode("application"))
+})
 public class ActivationRecordEntity implements Serializable {
 
     private static final long serialVersionUID = 7512286634644851705L;
 
+    /**
+     * Entity graph used for getting activation status, which requires the application.
+     */
+    public static final String GRAPH_STATUS = "ActivationRecordEntity.status";
+
+    /**
+     * Entity graph used for listing activations, which requires the application.
+     */
+    public static final String GRAPH_LIST = "ActivationRecordEntity.list";
+
     @Id
     @Column(name = "activation_id", length = 37)
     private String activationId;
@@ -94,11 +118,11 @@ public class ActivationRecordEntity implements Serializable {
     @Enumerated
     private KeyEncryptionMode serverPrivateKeyEncryption;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "application_id", referencedColumnName = "id", nullable = false)
     private ApplicationEntity application;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "master_keypair_id", referencedColumnName = "id", nullable = false)
     private MasterKeyPairEntity masterKeyPair;
 
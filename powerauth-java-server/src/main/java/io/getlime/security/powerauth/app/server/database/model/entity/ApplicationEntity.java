@@ -18,6 +18,9 @@
 
 package io.getlime.security.powerauth.app.server.database.model.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.List;
@@ -28,12 +31,14 @@ import java.util.List;
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity(name = "pa_application")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ApplicationEntity implements Serializable {
 
     private static final long serialVersionUID = 1295434927785255417L;
 
     @Id
-    @SequenceGenerator(name = "pa_application", sequenceName = "pa_application_seq")
+    @SequenceGenerator(name = "pa_application", sequenceName = "pa_application_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_application")
     @Column(name = "id")
     private Long id;
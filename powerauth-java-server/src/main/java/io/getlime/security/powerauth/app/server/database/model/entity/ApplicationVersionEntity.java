@@ -18,6 +18,9 @@
 
 package io.getlime.security.powerauth.app.server.database.model.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.io.Serializable;
 
@@ -28,12 +31,14 @@ import java.io.Serializable;
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity(name = "pa_application_version")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ApplicationVersionEntity implements Serializable {
 
     private static final long serialVersionUID = -5107229264389219556L;
 
     @Id
-    @SequenceGenerator(name = "pa_application_version", sequenceName = "pa_application_version_seq")
+    @SequenceGenerator(name = "pa_application_version", sequenceName = "pa_application_version_seq", allocationSize = 1)
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_application_version")
     @Column(name = "id")
     private Long id;
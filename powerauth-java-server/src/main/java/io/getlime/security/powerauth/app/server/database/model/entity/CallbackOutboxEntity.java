@@ -0,0 +1,191 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.model.entity;
+
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatusConverter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Entity representing a callback notification waiting for delivery. Records are written in the same
+ * transaction as the activation change and removed once the callback is delivered (or dropped).
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Entity
+@Table(name = "pa_callback_outbox")
+public class CallbackOutboxEntity implements Serializable {
+
+    private static final long serialVersionUID = 6384327612071632871L;
+
+    @Id
+    @SequenceGenerator(name = "pa_callback_outbox", sequenceName = "pa_callback_outbox_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_callback_outbox")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "callback_url", nullable = false, updatable = false)
+    private String callbackUrl;
+
+    @Column(name = "batched", nullable = false, updatable = false)
+    private Boolean batched;
+
+    @Column(name = "activation_id", nullable = false, updatable = false)
+    private String activationId;
+
+    @Column(name = "activation_status", updatable = false)
+    @Convert(converter = ActivationStatusConverter.class)
+    private ActivationStatus activationStatus;
+
+    @Column(name = "timestamp_created", nullable = false, updatable = false)
+    private Date timestampCreated;
+
+    @Column(name = "timestamp_claim_expires")
+    private Date timestampClaimExpires;
+
+    /**
+     * Get record ID.
+     *
+     * @return Record ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set record ID.
+     *
+     * @param id Record ID.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get callback URL.
+     *
+     * @return Callback URL.
+     */
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    /**
+     * Set callback URL.
+     *
+     * @param callbackUrl Callback URL.
+     */
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+
+    /**
+     * Get the flag indicating that the callback URL receives notifications in batches.
+     *
+     * @return True in case of batched delivery.
+     */
+    public Boolean getBatched() {
+        return batched;
+    }
+
+    /**
+     * Set the flag indicating that the callback URL receives notifications in batches.
+     *
+     * @param batched True in case of batched delivery.
+     */
+    public void setBatched(Boolean batched) {
+        this.batched = batched;
+    }
+
+    /**
+     * Get activation ID.
+     *
+     * @return Activation ID.
+     */
+    public String getActivationId() {
+        return activationId;
+    }
+
+    /**
+     * Set activation ID.
+     *
+     * @param activationId Activation ID.
+     */
+    public void setActivationId(String activationId) {
+        this.activationId = activationId;
+    }
+
+    /**
+     * Get activation status after the change.
+     *
+     * @return Activation status.
+     */
+    public ActivationStatus getActivationStatus() {
+        return activationStatus;
+    }
+
+    /**
+     * Set activation status after the change.
+     *
+     * @param activationStatus Activation status.
+     */
+    public void setActivationStatus(ActivationStatus activationStatus) {
+        this.activationStatus = activationStatus;
+    }
+
+    /**
+     * Get timestamp when the record was created.
+     *
+     * @return Timestamp when the record was created.
+     */
+    public Date getTimestampCreated() {
+        return timestampCreated;
+    }
+
+    /**
+     * Set timestamp when the record was created.
+     *
+     * @param timestampCreated Timestamp when the record was created.
+     */
+    public void setTimestampCreated(Date timestampCreated) {
+        this.timestampCreated = timestampCreated;
+    }
+
+    /**
+     * Get timestamp until which the record is claimed by a dispatcher. Null value means that the record
+     * was not claimed yet.
+     *
+     * @return Timestamp when the claim expires.
+     */
+    public Date getTimestampClaimExpires() {
+        return timestampClaimExpires;
+    }
+
+    /**
+     * Set timestamp until which the record is claimed by a dispatcher.
+     *
+     * @param timestampClaimExpires Timestamp when the claim expires.
+     */
+    public void setTimestampClaimExpires(Date timestampClaimExpires) {
+        this.timestampClaimExpires = timestampClaimExpires;
+    }
+
+}
@@ -18,6 +18,10 @@
 
 package io.getlime.security.powerauth.app.server.database.model.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -29,6 +33,8 @@ import java.io.Serializable;
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity(name = "pa_application_callback")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CallbackUrlEntity implements Serializable {
 
     private static final long serialVersionUID = 3372029113954119581L;
@@ -46,6 +52,9 @@ public class CallbackUrlEntity implements Serializable {
     @Column(name = "callback_url", nullable = false, updatable = false)
     private String callbackUrl;
 
+    @Column(name = "batched")
+    private Boolean batched;
+
     /**
      * Get the ID of an integration.
      * @return ID of an integration.
@@ -109,4 +118,20 @@ public class CallbackUrlEntity implements Serializable {
     public void setCallbackUrl(String callbackUrl) {
         this.callbackUrl = callbackUrl;
     }
+
+    /**
+     * Get the flag indicating that status changes are delivered to the callback URL in batches.
+     * @return True in case of batched delivery, false or null in case of one request per activation.
+     */
+    public Boolean getBatched() {
+        return batched;
+    }
+
+    /**
+     * Set the flag indicating that status changes are delivered to the callback URL in batches.
+     * @param batched True in case of batched delivery, false or null in case of one request per activation.
+     */
+    public void setBatched(Boolean batched) {
+        this.batched = batched;
+    }
 }
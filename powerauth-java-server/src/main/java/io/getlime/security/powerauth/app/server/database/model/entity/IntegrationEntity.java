@@ -18,6 +18,10 @@
 
 package io.getlime.security.powerauth.app.server.database.model.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -30,6 +34,8 @@ import java.io.Serializable;
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity(name = "pa_integration")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class IntegrationEntity implements Serializable {
 
     private static final long serialVersionUID = 3372029113954119581L;
@@ -17,6 +17,9 @@
  */
 package io.getlime.security.powerauth.app.server.database.model.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.Date;
@@ -28,12 +31,14 @@ import java.util.Objects;
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity(name = "pa_master_keypair")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class MasterKeyPairEntity implements Serializable {
 
     private static final long serialVersionUID = 1507932260603647825L;
 
     @Id
-    @SequenceGenerator(name = "pa_master_keypair", sequenceName = "pa_master_keypair_seq")
+    @SequenceGenerator(name = "pa_master_keypair", sequenceName = "pa_master_keypair_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_master_keypair")
     @Column(name = "id")
     private Long id;
@@ -36,8 +36,10 @@ public class SignatureEntity implements Serializable {
 
     private static final long serialVersionUID = 1930424474990335368L;
 
+    // Identifiers are allocated in blocks when the new identifier generators are enabled, so that the sequence
+    // (or sequence table) is accessed only once per block of records and inserts can be batched.
     @Id
-    @SequenceGenerator(name = "pa_signature_audit", sequenceName = "pa_signature_audit_seq")
+    @SequenceGenerator(name = "pa_signature_audit", sequenceName = "pa_signature_audit_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_signature_audit")
     @Column(name = "id")
     private Long id;
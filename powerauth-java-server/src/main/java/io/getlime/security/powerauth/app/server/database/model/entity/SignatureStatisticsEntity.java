@@ -0,0 +1,189 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.getlime.security.powerauth.app.server.database.model.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Entity representing aggregated signature verification statistics. Each record holds the number
+ * of signature verifications with a given result for an application, signature type and day.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Entity
+@Table(name = "pa_signature_statistics", uniqueConstraints = @UniqueConstraint(name = "statistics_bucket_uk",
+        columnNames = {"application_id", "statistics_date", "signature_type", "valid", "note"}))
+public class SignatureStatisticsEntity implements Serializable {
+
+    private static final long serialVersionUID = -3516215453926125618L;
+
+    @Id
+    @SequenceGenerator(name = "pa_signature_statistics", sequenceName = "pa_signature_statistics_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "pa_signature_statistics")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "application_id", nullable = false, updatable = false)
+    private Long applicationId;
+
+    @Column(name = "statistics_date", nullable = false, updatable = false)
+    @Temporal(TemporalType.DATE)
+    private Date statisticsDate;
+
+    @Column(name = "signature_type", nullable = false, updatable = false)
+    private String signatureType;
+
+    @Column(name = "valid", nullable = false, updatable = false)
+    private Boolean valid;
+
+    @Column(name = "note", nullable = false, updatable = false)
+    private String note;
+
+    @Column(name = "signature_count", nullable = false)
+    private Long signatureCount;
+
+    /**
+     * Get record ID.
+     *
+     * @return Record ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set record ID.
+     *
+     * @param id Record ID.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get application ID.
+     *
+     * @return Application ID.
+     */
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * Set application ID.
+     *
+     * @param applicationId Application ID.
+     */
+    public void setApplicationId(Long applicationId) {
+        this.applicationId = applicationId;
+    }
+
+    /**
+     * Get the day the statistics belong to.
+     *
+     * @return Statistics day.
+     */
+    public Date getStatisticsDate() {
+        return statisticsDate;
+    }
+
+    /**
+     * Set the day the statistics belong to.
+     *
+     * @param statisticsDate Statistics day.
+     */
+    public void setStatisticsDate(Date statisticsDate) {
+        this.statisticsDate = statisticsDate;
+    }
+
+    /**
+     * Get signature type.
+     *
+     * @return Signature type.
+     */
+    public String getSignatureType() {
+        return signatureType;
+    }
+
+    /**
+     * Set signature type.
+     *
+     * @param signatureType Signature type.
+     */
+    public void setSignatureType(String signatureType) {
+        this.signatureType = signatureType;
+    }
+
+    /**
+     * Get flag indicating if the counted signatures were valid.
+     *
+     * @return True if the signatures were valid, false otherwise.
+     */
+    public Boolean getValid() {
+        return valid;
+    }
+
+    /**
+     * Set flag indicating if the counted signatures were valid.
+     *
+     * @param valid True if the signatures were valid, false otherwise.
+     */
+    public void setValid(Boolean valid) {
+        this.valid = valid;
+    }
+
+    /**
+     * Get signature audit note (for example, "signature_ok" or "signature_does_not_match").
+     *
+     * @return Signature audit note.
+     */
+    public String getNote() {
+        return note;
+    }
+
+    /**
+     * Set signature audit note.
+     *
+     * @param note Signature audit note.
+     */
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    /**
+     * Get number of signature verifications.
+     *
+     * @return Number of signature verifications.
+     */
+    public Long getSignatureCount() {
+        return signatureCount;
+    }
+
+    /**
+     * Set number of signature verifications.
+     *
+     * @param signatureCount Number of signature verifications.
+     */
+    public void setSignatureCount(Long signatureCount) {
+        this.signatureCount = signatureCount;
+    }
+
+}
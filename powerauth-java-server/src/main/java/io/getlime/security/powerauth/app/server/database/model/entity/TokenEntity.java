@@ -27,8 +27,16 @@ import java.util.Date;
  * @author Petr Dvorak, petr@wultra.com
  */
 @Entity(name = "pa_token")
+@NamedEntityGraph(name = TokenEntity.GRAPH_VALIDATION,
+        attributeNodes = @NamedAttributeNode(value = "activation", subgraph = "activation"),
+        subgraphs = @NamedSubgraph(name = "activation", attributeNodes = @NamedAttributeNode("application")))
 public class TokenEntity {
 
+    /**
+     * Entity graph used for token validation, which requires the activation and its application.
+     */
+    public static final String GRAPH_VALIDATION = "TokenEntity.validation";
+
     @Id
     @Column(name = "token_id", length = 37)
     private String tokenId;
@@ -0,0 +1,60 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.model.projection;
+
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+
+import java.util.Date;
+
+/**
+ * Projection of activation history record which contains only the attributes required for
+ * replaying activation status change events, so that the associated activation is not loaded.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface ActivationStatusChangeItem {
+
+    /**
+     * Get record ID.
+     *
+     * @return Record ID.
+     */
+    Long getId();
+
+    /**
+     * Get activation ID.
+     *
+     * @return Activation ID.
+     */
+    String getActivationId();
+
+    /**
+     * Get activation status.
+     *
+     * @return Activation status.
+     */
+    ActivationStatus getActivationStatus();
+
+    /**
+     * Get timestamp when the record was created.
+     *
+     * @return Timestamp when the record was created.
+     */
+    Date getTimestampCreated();
+
+}
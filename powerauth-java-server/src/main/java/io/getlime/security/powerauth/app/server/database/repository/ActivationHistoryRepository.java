@@ -18,6 +18,9 @@
 package io.getlime.security.powerauth.app.server.database.repository;
 
 import io.getlime.security.powerauth.app.server.database.model.entity.ActivationHistoryEntity;
+import io.getlime.security.powerauth.app.server.database.model.projection.ActivationHistoryItem;
+import io.getlime.security.powerauth.app.server.database.model.projection.ActivationStatusChangeItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
@@ -33,4 +36,11 @@ public interface ActivationHistoryRepository extends CrudRepository<ActivationHi
 
     @Query("SELECT h FROM ActivationHistoryEntity h WHERE h.activation.activationId = ?1 AND h.timestampCreated BETWEEN ?2 AND ?3 ORDER BY h.timestampCreated DESC")
     List<ActivationHistoryEntity> findActivationHistory(String activationId, Date startingDate, Date endingDate);
+
+    @Query("SELECT h.id AS id, h.activationStatus AS activationStatus, h.timestampCreated AS timestampCreated FROM ActivationHistoryEntity h WHERE h.activation.activationId = ?1 AND h.timestampCreated BETWEEN ?2 AND ?3 ORDER BY h.timestampCreated DESC, h.id DESC")
+    List<ActivationHistoryItem> findActivationHistoryItems(String activationId, Date startingDate, Date endingDate, Pageable pageable);
+
+    @Query("SELECT h.id AS id, h.activation.activationId AS activationId, h.activationStatus AS activationStatus, h.timestampCreated AS timestampCreated FROM ActivationHistoryEntity h WHERE h.activation.application.id = ?1 AND (h.timestampCreated > ?2 OR (h.timestampCreated = ?2 AND h.id > ?3)) ORDER BY h.timestampCreated ASC, h.id ASC")
+    List<ActivationStatusChangeItem> findActivationStatusChanges(Long applicationId, Date lastTimestamp, Long lastId, Pageable pageable);
+
 }
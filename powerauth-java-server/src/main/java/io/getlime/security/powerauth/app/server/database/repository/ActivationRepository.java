@@ -19,7 +19,9 @@ package io.getlime.security.powerauth.app.server.database.repository;
 
 import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
 import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Component;
@@ -49,12 +51,39 @@ public interface ActivationRepository extends CrudRepository<ActivationRecordEnt
     @Query("SELECT a FROM ActivationRecordEntity a WHERE a.activationId = ?1")
     ActivationRecordEntity findActivation(String activationId);
 
+    /**
+     * Find a first activation with given activation ID without locking the activation record.
+     * Use only in case the activation is not modified based on the loaded state.
+     *
+     * @param activationId Activation ID
+     * @return Activation with given ID or null if not found
+     */
+    @EntityGraph(ActivationRecordEntity.GRAPH_STATUS)
+    @Query("SELECT a FROM ActivationRecordEntity a WHERE a.activationId = ?1")
+    ActivationRecordEntity findActivationWithoutLock(String activationId);
+
+    /**
+     * Change status of activation with given ID in case the activation is in one of given states and its
+     * activation expiration timestamp is below the given timestamp. The activation is changed by a single
+     * conditional update, so that the activation does not have to be locked in advance.
+     *
+     * @param activationId     Activation ID
+     * @param activationStatus New activation status
+     * @param states           States of activations to be changed
+     * @param timestamp        Timestamp to check the activation expiration against
+     * @return Number of changed activations, 0 or 1
+     */
+    @Modifying
+    @Query("UPDATE ActivationRecordEntity a SET a.activationStatus = ?2 WHERE a.activationId = ?1 AND a.activationStatus IN ?3 AND a.timestampActivationExpire < ?4")
+    int updateExpiredActivationStatus(String activationId, ActivationStatus activationStatus, Collection<ActivationStatus> states, Date timestamp);
+
     /**
      * Find all activations for given user ID
      *
      * @param userId User ID
      * @return List of activations for given user
      */
+    @EntityGraph(ActivationRecordEntity.GRAPH_LIST)
     List<ActivationRecordEntity> findByUserId(String userId);
 
     /**
@@ -64,6 +93,7 @@ public interface ActivationRepository extends CrudRepository<ActivationRecordEnt
      * @param userId        User ID
      * @return List of activations for given user and application
      */
+    @EntityGraph(ActivationRecordEntity.GRAPH_LIST)
     List<ActivationRecordEntity> findByApplicationIdAndUserId(Long applicationId, String userId);
 
     /**
@@ -18,9 +18,12 @@
 
 package io.getlime.security.powerauth.app.server.database.repository;
 
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationVersionEntity;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
@@ -36,6 +39,10 @@ public interface ApplicationVersionRepository extends CrudRepository<Application
      * @param applicationId Application ID
      * @return List of versions
      */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceEntityCache.QUERY_REGION)
+    })
     List<ApplicationVersionEntity> findByApplicationId(Long applicationId);
 
     /**
@@ -44,6 +51,10 @@ public interface ApplicationVersionRepository extends CrudRepository<Application
      * @param applicationKey Application key.
      * @return Version with given application key.
      */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceEntityCache.QUERY_REGION)
+    })
     ApplicationVersionEntity findByApplicationKey(String applicationKey);
 
 }
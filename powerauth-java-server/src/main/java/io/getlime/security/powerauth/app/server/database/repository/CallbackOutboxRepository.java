@@ -0,0 +1,67 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.repository;
+
+import io.getlime.security.powerauth.app.server.database.model.entity.CallbackOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Database repository for callback notifications waiting for delivery.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public interface CallbackOutboxRepository extends CrudRepository<CallbackOutboxEntity, Long> {
+
+    /**
+     * Find callback notifications which are not claimed by any dispatcher, or whose claim has expired.
+     * The records are locked in DB in PESSIMISTIC_WRITE mode, rows locked by another server instance are
+     * skipped on databases which support it, so that multiple instances can claim records concurrently.
+     *
+     * @param timestamp Current timestamp.
+     * @param pageable Limit of number of records.
+     * @return List of claimable callback notifications.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({@QueryHint(name = "javax.persistence.lock.timeout", value = "-2")})
+    @Query("SELECT o FROM CallbackOutboxEntity o WHERE o.timestampClaimExpires IS NULL OR o.timestampClaimExpires < ?1 ORDER BY o.id")
+    List<CallbackOutboxEntity> findClaimable(Date timestamp, Pageable pageable);
+
+    /**
+     * Remove delivered callback notifications.
+     *
+     * @param ids Record IDs.
+     * @return Number of removed records.
+     */
+    @Modifying
+    @Query("DELETE FROM CallbackOutboxEntity o WHERE o.id IN ?1")
+    int deleteByIds(Collection<Long> ids);
+
+}
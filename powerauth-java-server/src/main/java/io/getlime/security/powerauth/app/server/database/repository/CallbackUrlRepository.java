@@ -18,9 +18,12 @@
 
 package io.getlime.security.powerauth.app.server.database.repository;
 
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.model.entity.CallbackUrlEntity;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
@@ -30,6 +33,10 @@ import java.util.List;
  */
 public interface CallbackUrlRepository extends CrudRepository<CallbackUrlEntity, String> {
 
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceEntityCache.QUERY_REGION)
+    })
     List<CallbackUrlEntity> findByApplicationIdOrderByName(Long applicationId);
 
 }
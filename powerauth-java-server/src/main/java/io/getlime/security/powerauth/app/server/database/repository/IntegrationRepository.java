@@ -18,9 +18,13 @@
 
 package io.getlime.security.powerauth.app.server.database.repository;
 
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.model.entity.IntegrationEntity;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
+
 /**
  * Database repository for the integration entities.
  *
@@ -28,6 +32,10 @@ import org.springframework.data.repository.CrudRepository;
  */
 public interface IntegrationRepository extends CrudRepository<IntegrationEntity, String> {
 
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceEntityCache.QUERY_REGION)
+    })
     IntegrationEntity findFirstByClientToken(String clientToken);
 
 }
@@ -17,9 +17,13 @@
  */
 package io.getlime.security.powerauth.app.server.database.repository;
 
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
+
 /**
  * Database repository for accessing Master Key Pair data.
  *
@@ -33,6 +37,10 @@ public interface MasterKeyPairRepository extends CrudRepository<MasterKeyPairEnt
      * @param id Application ID
      * @return The newest Master Key Pair for given application.
      */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceEntityCache.QUERY_REGION)
+    })
     MasterKeyPairEntity findFirstByApplicationIdOrderByTimestampCreatedDesc(Long id);
 
 }
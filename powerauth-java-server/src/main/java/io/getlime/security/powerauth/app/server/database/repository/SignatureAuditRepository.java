@@ -18,6 +18,7 @@
 package io.getlime.security.powerauth.app.server.database.repository;
 
 import io.getlime.security.powerauth.app.server.database.model.entity.SignatureEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
@@ -37,10 +38,11 @@ public interface SignatureAuditRepository extends CrudRepository<SignatureEntity
      * @param userId       User ID.
      * @param startingDate Starting date (date "from").
      * @param endingDate   Ending date (date "to").
+     * @param pageable     Requested page of records.
      * @return List of {@link SignatureEntity} instances.
      */
     @Query("SELECT s FROM SignatureEntity s WHERE s.activation.userId = ?1 AND s.timestampCreated BETWEEN ?2 AND ?3 ORDER BY s.timestampCreated DESC, s.id DESC")
-    List<SignatureEntity> findSignatureAutitRecordsForUser(String userId, Date startingDate, Date endingDate);
+    List<SignatureEntity> findSignatureAutitRecordsForUser(String userId, Date startingDate, Date endingDate, Pageable pageable);
 
     /**
      * Return signature audit records for given user, application and date range.
@@ -49,9 +51,10 @@ public interface SignatureAuditRepository extends CrudRepository<SignatureEntity
      * @param userId        User ID.
      * @param startingDate  Starting date (date "from").
      * @param endingDate    Ending date (date "to").
+     * @param pageable      Requested page of records.
      * @return List of {@link SignatureEntity} instances.
      */
     @Query("SELECT s FROM SignatureEntity s WHERE s.activation.application.id = ?1 AND s.activation.userId = ?2 AND s.timestampCreated BETWEEN ?3 AND ?4 ORDER BY s.timestampCreated DESC, s.id DESC")
-    List<SignatureEntity> findSignatureAutitRecordsForApplicationAndUser(Long applicationId, String userId, Date startingDate, Date endingDate);
+    List<SignatureEntity> findSignatureAutitRecordsForApplicationAndUser(Long applicationId, String userId, Date startingDate, Date endingDate, Pageable pageable);
 
 }
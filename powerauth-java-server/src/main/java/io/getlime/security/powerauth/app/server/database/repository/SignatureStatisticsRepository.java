@@ -0,0 +1,73 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.getlime.security.powerauth.app.server.database.repository;
+
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureStatisticsEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Database repository for aggregated signature verification statistics.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface SignatureStatisticsRepository extends CrudRepository<SignatureStatisticsEntity, Long> {
+
+    /**
+     * Atomically increment the signature count of statistics record for given application, day, signature type,
+     * result and note.
+     *
+     * @param applicationId  Application ID.
+     * @param statisticsDate Statistics day.
+     * @param signatureType  Signature type.
+     * @param valid          Signature verification result.
+     * @param note           Signature audit note.
+     * @param count          Number of signatures to add.
+     * @return Number of updated records, zero in case the record does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE SignatureStatisticsEntity s SET s.signatureCount = s.signatureCount + ?6 WHERE s.applicationId = ?1 AND s.statisticsDate = ?2 AND s.signatureType = ?3 AND s.valid = ?4 AND s.note = ?5")
+    int incrementSignatureCount(Long applicationId, Date statisticsDate, String signatureType, Boolean valid, String note, Long count);
+
+    /**
+     * Return statistics records for all applications and given date range.
+     *
+     * @param startingDate Starting date (date "from").
+     * @param endingDate   Ending date (date "to").
+     * @return List of {@link SignatureStatisticsEntity} instances.
+     */
+    @Query("SELECT s FROM SignatureStatisticsEntity s WHERE s.statisticsDate BETWEEN ?1 AND ?2 ORDER BY s.statisticsDate DESC, s.applicationId ASC")
+    List<SignatureStatisticsEntity> findStatistics(Date startingDate, Date endingDate);
+
+    /**
+     * Return statistics records for given application and date range.
+     *
+     * @param applicationId Application ID.
+     * @param startingDate  Starting date (date "from").
+     * @param endingDate    Ending date (date "to").
+     * @return List of {@link SignatureStatisticsEntity} instances.
+     */
+    @Query("SELECT s FROM SignatureStatisticsEntity s WHERE s.applicationId = ?1 AND s.statisticsDate BETWEEN ?2 AND ?3 ORDER BY s.statisticsDate DESC")
+    List<SignatureStatisticsEntity> findStatisticsForApplication(Long applicationId, Date startingDate, Date endingDate);
+
+}
@@ -0,0 +1,49 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.repository;
+
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+
+/**
+ * Repository used by the signature verification, which loads and locks the activation and stores the changed
+ * activation state. Signature audit records are inserted by
+ * {@link io.getlime.security.powerauth.app.server.database.writer.AuditRecordWriter}. The implementation is selected using the
+ * "powerauth.service.signature.dataAccess" property, either JPA ("jpa") or plain JDBC ("jdbc").
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface SignatureVerificationRepository {
+
+    /**
+     * Find activation with given activation ID. The activation record is locked in DB in PESSIMISTIC_WRITE
+     * mode until the end of the transaction.
+     *
+     * @param activationId Activation ID.
+     * @return Activation with given ID or null if not found.
+     */
+    ActivationRecordEntity findActivation(String activationId);
+
+    /**
+     * Store state of the activation changed by the signature verification: counter, failed attempts,
+     * activation status, blocked reason and last used timestamp.
+     *
+     * @param activation Activation loaded using {@link #findActivation(String)}.
+     */
+    void updateActivation(ActivationRecordEntity activation);
+
+}
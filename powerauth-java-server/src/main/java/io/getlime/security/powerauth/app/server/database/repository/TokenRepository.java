@@ -19,9 +19,13 @@
 package io.getlime.security.powerauth.app.server.database.repository;
 
 import io.getlime.security.powerauth.app.server.database.model.entity.TokenEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repository for accessing stored tokens for token-based authentication.
  *
@@ -29,4 +33,15 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface TokenRepository extends CrudRepository<TokenEntity, String> {
+
+    /**
+     * Find token with given token ID for the token validation, together with the activation and its application.
+     *
+     * @param tokenId Token ID.
+     * @return Token with given ID, empty in case token does not exist.
+     */
+    @EntityGraph(TokenEntity.GRAPH_VALIDATION)
+    @Query("SELECT t FROM pa_token t WHERE t.tokenId = ?1")
+    Optional<TokenEntity> findTokenForValidation(String tokenId);
+
 }
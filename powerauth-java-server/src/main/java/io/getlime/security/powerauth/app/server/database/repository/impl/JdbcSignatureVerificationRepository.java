@@ -0,0 +1,126 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.repository.impl;
+
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatusConverter;
+import io.getlime.security.powerauth.app.server.database.model.KeyEncryptionMode;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
+import io.getlime.security.powerauth.app.server.database.repository.SignatureVerificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Implementation of {@link SignatureVerificationRepository} using plain JDBC statements, which avoids loading
+ * of the activation into the persistence context and its dirty checking. Statements are executed on the connection
+ * of the current JPA transaction.
+ *
+ * <p>Loaded activations are not managed by the persistence context, the application and the master key pair
+ * contain only their IDs.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Repository
+@ConditionalOnProperty(name = "powerauth.service.signature.dataAccess", havingValue = "jdbc")
+public class JdbcSignatureVerificationRepository implements SignatureVerificationRepository {
+
+    private static final String SELECT_ACTIVATION = "SELECT activation_id, activation_id_short, activation_otp, user_id, activation_name, extras, "
+            + "server_private_key_base64, server_public_key_base64, device_public_key_base64, counter, failed_attempts, max_failed_attempts, "
+            + "timestamp_created, timestamp_activation_expire, timestamp_last_used, activation_status, blocked_reason, "
+            + "server_private_key_encryption, application_id, master_keypair_id "
+            + "FROM pa_activation WHERE activation_id = ? FOR UPDATE";
+
+    // The counter condition prevents the counter from moving back in case the lock was not effective
+    private static final String UPDATE_ACTIVATION = "UPDATE pa_activation SET counter = ?, failed_attempts = ?, activation_status = ?, "
+            + "blocked_reason = ?, timestamp_last_used = ? WHERE activation_id = ? AND counter <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+
+    private final RowMapper<ActivationRecordEntity> activationRowMapper = this::mapActivation;
+
+    @Autowired
+    public JdbcSignatureVerificationRepository(DataSource dataSource, @Value("${javax.persistence.lock.timeout}") int lockTimeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(Math.max(1, lockTimeout / 1000));
+    }
+
+    @Override
+    public ActivationRecordEntity findActivation(String activationId) {
+        final List<ActivationRecordEntity> activations = jdbcTemplate.query(SELECT_ACTIVATION, activationRowMapper, activationId);
+        return activations.isEmpty() ? null : activations.get(0);
+    }
+
+    @Override
+    public void updateActivation(ActivationRecordEntity activation) {
+        final int updatedRows = jdbcTemplate.update(UPDATE_ACTIVATION,
+                activation.getCounter(),
+                activation.getFailedAttempts(),
+                activationStatusConverter.convertToDatabaseColumn(activation.getActivationStatus()),
+                activation.getBlockedReason(),
+                activation.getTimestampLastUsed(),
+                activation.getActivationId(),
+                activation.getCounter());
+        if (updatedRows != 1) {
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(UPDATE_ACTIVATION, 1, updatedRows);
+        }
+    }
+
+    private ActivationRecordEntity mapActivation(ResultSet rs, int rowNum) throws SQLException {
+        final ApplicationEntity application = new ApplicationEntity();
+        application.setId(rs.getLong("application_id"));
+        final MasterKeyPairEntity masterKeyPair = new MasterKeyPairEntity();
+        masterKeyPair.setId(rs.getLong("master_keypair_id"));
+
+        final ActivationRecordEntity activation = new ActivationRecordEntity();
+        activation.setActivationId(rs.getString("activation_id"));
+        activation.setActivationIdShort(rs.getString("activation_id_short"));
+        activation.setActivationOTP(rs.getString("activation_otp"));
+        activation.setUserId(rs.getString("user_id"));
+        activation.setActivationName(rs.getString("activation_name"));
+        activation.setExtras(rs.getString("extras"));
+        activation.setServerPrivateKeyBase64(rs.getString("server_private_key_base64"));
+        activation.setServerPublicKeyBase64(rs.getString("server_public_key_base64"));
+        activation.setDevicePublicKeyBase64(rs.getString("device_public_key_base64"));
+        activation.setCounter(rs.getLong("counter"));
+        activation.setFailedAttempts(rs.getLong("failed_attempts"));
+        activation.setMaxFailedAttempts(rs.getLong("max_failed_attempts"));
+        activation.setTimestampCreated(rs.getTimestamp("timestamp_created"));
+        activation.setTimestampActivationExpire(rs.getTimestamp("timestamp_activation_expire"));
+        activation.setTimestampLastUsed(rs.getTimestamp("timestamp_last_used"));
+        activation.setActivationStatus(activationStatusConverter.convertToEntityAttribute(rs.getInt("activation_status")));
+        activation.setBlockedReason(rs.getString("blocked_reason"));
+        activation.setServerPrivateKeyEncryption(KeyEncryptionMode.values()[rs.getInt("server_private_key_encryption")]);
+        activation.setApplication(application);
+        activation.setMasterKeyPair(masterKeyPair);
+        return activation;
+    }
+
+}
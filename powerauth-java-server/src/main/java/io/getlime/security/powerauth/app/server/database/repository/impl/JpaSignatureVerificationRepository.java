@@ -0,0 +1,53 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.repository.impl;
+
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.repository.ActivationRepository;
+import io.getlime.security.powerauth.app.server.database.repository.SignatureVerificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Implementation of {@link SignatureVerificationRepository} using JPA repositories.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Repository
+@ConditionalOnProperty(name = "powerauth.service.signature.dataAccess", havingValue = "jpa", matchIfMissing = true)
+public class JpaSignatureVerificationRepository implements SignatureVerificationRepository {
+
+    private final ActivationRepository activationRepository;
+
+    @Autowired
+    public JpaSignatureVerificationRepository(ActivationRepository activationRepository) {
+        this.activationRepository = activationRepository;
+    }
+
+    @Override
+    public ActivationRecordEntity findActivation(String activationId) {
+        return activationRepository.findActivation(activationId);
+    }
+
+    @Override
+    public void updateActivation(ActivationRecordEntity activation) {
+        activationRepository.save(activation);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.routing;
+
+/**
+ * Holder of the flag allowing the current thread to read data from the read replica. Connections obtained
+ * by {@link ReadReplicaRoutingDataSource} are routed to the replica only in case the flag is set and
+ * a read-only transaction is active, all other connections are obtained from the primary database.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class ReadReplicaContext {
+
+    private static final ThreadLocal<Boolean> replicaAllowed = new ThreadLocal<>();
+
+    private ReadReplicaContext() {
+    }
+
+    /**
+     * Check whether the current thread is allowed to read data from the read replica.
+     *
+     * @return True in case the read replica is allowed.
+     */
+    public static boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(replicaAllowed.get());
+    }
+
+    /**
+     * Allow or disallow reading data from the read replica for the current thread.
+     *
+     * @param allowed Whether the read replica is allowed.
+     */
+    public static void setReplicaAllowed(boolean allowed) {
+        if (allowed) {
+            replicaAllowed.set(Boolean.TRUE);
+        } else {
+            replicaAllowed.remove();
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Data source which routes connections of read-only transactions which allow stale data, see
+ * {@link ReadReplicaContext}, to a read replica and all other connections to the primary database. In case a connection to the replica cannot be obtained, the primary database is used
+ * instead and the replica is not used until the retry interval elapses.
+ *
+ * <p>The data source needs to be wrapped in {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so that the connection is obtained once the transaction is started and its read-only flag is known.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primaryDataSource;
+    private final DataSource replicaDataSource;
+    private final long retryInterval;
+
+    // Time until which the replica is considered unavailable
+    private volatile long replicaUnavailableUntil;
+
+    /**
+     * Constructor with primary and replica data source.
+     *
+     * @param primaryDataSource Data source of the primary database.
+     * @param replicaDataSource Data source of the read replica.
+     * @param retryInterval Interval in milliseconds after which an unavailable replica is used again.
+     */
+    public ReadReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource, long retryInterval) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaDataSource = replicaDataSource;
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isReplicaRequested()) {
+            try {
+                return replicaDataSource.getConnection();
+            } catch (SQLException ex) {
+                markReplicaUnavailable(ex);
+            }
+        }
+        return primaryDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (isReplicaRequested()) {
+            try {
+                return replicaDataSource.getConnection(username, password);
+            } catch (SQLException ex) {
+                markReplicaUnavailable(ex);
+            }
+        }
+        return primaryDataSource.getConnection(username, password);
+    }
+
+    /**
+     * Check whether the connection should be obtained from the replica.
+     *
+     * @return True in case the replica is allowed for the current thread, a read-only transaction is active
+     * and the replica is available, false otherwise.
+     */
+    private boolean isReplicaRequested() {
+        return ReadReplicaContext.isReplicaAllowed()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && System.currentTimeMillis() >= replicaUnavailableUntil;
+    }
+
+    private void markReplicaUnavailable(SQLException ex) {
+        logger.warn("Read replica is not available, using primary database, error: {}", ex.getMessage());
+        replicaUnavailableUntil = System.currentTimeMillis() + retryInterval;
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+/**
+ * Class replicating reference data from the default shard to all other shards, so that activations stored
+ * in any shard can refer to applications and master key pairs, and callback URLs and integrations can be
+ * read in any shard. Reference data are replicated after each admin operation which changes them and
+ * periodically, to pick up changes made directly in the database.
+ *
+ * <p>Rows are matched by the "id" column. Only changed rows are written, rows of applications, application
+ * versions and master key pairs are never deleted, since sharded data refer to them.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+@ConditionalOnProperty(name = "powerauth.service.datasource.sharding.enabled", havingValue = "true")
+public class ReferenceDataReplicator {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataReplicator.class);
+
+    // Replicated tables in order of foreign keys
+    private static final List<String> TABLES = Arrays.asList(
+            "pa_application",
+            "pa_master_keypair",
+            "pa_application_version",
+            "pa_application_callback",
+            "pa_integration"
+    );
+
+    // Tables whose rows are deleted in other shards when they are deleted in the default shard
+    private static final Set<String> DELETED_TABLES = new HashSet<>(Arrays.asList(
+            "pa_application_callback",
+            "pa_integration"
+    ));
+
+    private final List<DataSource> shardDataSources;
+
+    @Autowired
+    public ReferenceDataReplicator(ShardRoutingDataSource shardRoutingDataSource) {
+        this.shardDataSources = shardRoutingDataSource.getShardDataSources();
+    }
+
+    /**
+     * Periodically replicate reference data, errors are logged.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.service.datasource.sharding.replicationIntervalInMilliseconds}")
+    public void scheduleReplication() {
+        try {
+            replicate();
+        } catch (RuntimeException ex) {
+            logger.error("Reference data could not be replicated to shards", ex);
+        }
+    }
+
+    /**
+     * Replicate reference data from the default shard to all other shards.
+     */
+    public synchronized void replicate() {
+        final JdbcTemplate sourceTemplate = new JdbcTemplate(shardDataSources.get(ShardContext.DEFAULT_SHARD));
+        final Map<String, List<Map<String, Object>>> sourceRows = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            sourceRows.put(table, sourceTemplate.queryForList("SELECT * FROM " + table));
+        }
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            if (shard != ShardContext.DEFAULT_SHARD) {
+                replicateToShard(shardDataSources.get(shard), sourceRows);
+            }
+        }
+    }
+
+    private void replicateToShard(DataSource dataSource, Map<String, List<Map<String, Object>>> sourceRows) {
+        final JdbcTemplate targetTemplate = new JdbcTemplate(dataSource);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.execute(status -> {
+            final Map<String, Set<String>> sourceIds = new HashMap<>();
+            for (Map.Entry<String, List<Map<String, Object>>> entry : sourceRows.entrySet()) {
+                sourceIds.put(entry.getKey(), upsertRows(targetTemplate, entry.getKey(), entry.getValue()));
+            }
+            // Delete rows in reverse order of foreign keys
+            final List<String> tables = new ArrayList<>(TABLES);
+            Collections.reverse(tables);
+            for (String table : tables) {
+                if (DELETED_TABLES.contains(table)) {
+                    deleteRows(targetTemplate, table, sourceIds.get(table));
+                }
+            }
+            return null;
+        });
+    }
+
+    private Set<String> upsertRows(JdbcTemplate targetTemplate, String table, List<Map<String, Object>> rows) {
+        final Map<String, Map<String, Object>> targetRows = new HashMap<>();
+        for (Map<String, Object> row : targetTemplate.queryForList("SELECT * FROM " + table)) {
+            targetRows.put(String.valueOf(row.get("id")), row);
+        }
+        final Set<String> ids = new HashSet<>();
+        for (Map<String, Object> row : rows) {
+            final Object id = row.get("id");
+            ids.add(String.valueOf(id));
+            final Map<String, Object> targetRow = targetRows.get(String.valueOf(id));
+            final List<String> columns = new ArrayList<>(row.keySet());
+            final List<Object> values = new ArrayList<>(row.values());
+            if (targetRow == null) {
+                targetTemplate.update("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")", values.toArray());
+            } else if (!row.equals(targetRow)) {
+                final List<String> assignments = new ArrayList<>();
+                for (String column : columns) {
+                    assignments.add(column + " = ?");
+                }
+                values.add(id);
+                targetTemplate.update("UPDATE " + table + " SET " + String.join(", ", assignments) + " WHERE id = ?", values.toArray());
+            }
+        }
+        return ids;
+    }
+
+    private void deleteRows(JdbcTemplate targetTemplate, String table, Set<String> sourceIds) {
+        for (Object id : targetTemplate.queryForList("SELECT id FROM " + table, Object.class)) {
+            if (!sourceIds.contains(String.valueOf(id))) {
+                targetTemplate.update("DELETE FROM " + table + " WHERE id = ?", id);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.sharding;
+
+/**
+ * Holder of the activation shard selected for the current thread. Connections obtained by
+ * {@link ShardRoutingDataSource} are routed to the selected shard, the default shard is used
+ * when no shard is selected.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class ShardContext {
+
+    /**
+     * Index of the default shard, which stores data which are not sharded, such as signature statistics.
+     * Reference data are maintained in the default shard and replicated to all other shards.
+     */
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Get the shard selected for the current thread.
+     *
+     * @return Index of the selected shard, or null in case no shard is selected.
+     */
+    public static Integer getCurrentShard() {
+        return currentShard.get();
+    }
+
+    /**
+     * Select the shard for the current thread.
+     *
+     * @param shard Index of the shard, null value clears the selection.
+     */
+    public static void setCurrentShard(Integer shard) {
+        if (shard == null) {
+            currentShard.remove();
+        } else {
+            currentShard.set(shard);
+        }
+    }
+
+}
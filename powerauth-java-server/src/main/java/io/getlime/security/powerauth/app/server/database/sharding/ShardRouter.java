@@ -0,0 +1,231 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.sharding;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Class responsible for routing of activation data to shards. The shard of an activation is determined by
+ * a hash of the activation ID, activation tokens and pending activations are found by a hash of the token ID
+ * and short activation ID. These identifiers are generated so that they are stored in the same shard as the
+ * activation. Queries which are not bound to a single activation are executed on all shards.
+ *
+ * <p>When sharding is disabled, all operations are executed directly in the current transaction.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class ShardRouter {
+
+    // Maximum number of generated keys per shard before the key generation is stopped
+    private static final int MAX_GENERATED_KEYS_PER_SHARD = 1000;
+
+    private static final HashFunction hashFunction = Hashing.murmur3_32();
+
+    private final boolean enabled;
+    private final int shardCount;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    // Counter used for distribution of new activations to shards
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    @Autowired
+    public ShardRouter(@Value("${powerauth.service.datasource.sharding.enabled}") boolean enabled,
+                       @Value("${powerauth.service.datasource.sharding.urls}") String[] shardUrls,
+                       @Lazy PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.shardCount = enabled ? shardUrls.length + 1 : 1;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Get whether the activation data are sharded.
+     *
+     * @return True in case sharding is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get number of shards.
+     *
+     * @return Number of shards, 1 in case sharding is disabled.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Get the shard which stores data identified by given key.
+     *
+     * @param key Activation ID, short activation ID or token ID.
+     * @return Index of the shard.
+     */
+    public int getShard(String key) {
+        if (!enabled || key == null) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        return Math.floorMod(hashFunction.hashString(key, StandardCharsets.UTF_8).asInt(), shardCount);
+    }
+
+    /**
+     * Get the shard for a new activation. New activations are distributed to shards evenly.
+     *
+     * @return Index of the shard.
+     */
+    public int getShardForNewActivation() {
+        if (!enabled) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    /**
+     * Generate a key which is stored in the shard selected for the current thread, so that a new activation,
+     * its short activation ID and its tokens end up in the same shard.
+     *
+     * @param generator Generator of random keys.
+     * @return Generated key.
+     */
+    public String generateLocalKey(Supplier<String> generator) {
+        if (!enabled) {
+            return generator.get();
+        }
+        final Integer currentShard = ShardContext.getCurrentShard();
+        final int shard = currentShard != null ? currentShard : ShardContext.DEFAULT_SHARD;
+        for (int i = 0; i < MAX_GENERATED_KEYS_PER_SHARD * shardCount; i++) {
+            final String key = generator.get();
+            if (getShard(key) == shard) {
+                return key;
+            }
+        }
+        throw new IllegalStateException("Unable to generate key for shard: " + shard);
+    }
+
+    /**
+     * Execute the callback with given shard selected for the current thread.
+     *
+     * @param shard Index of the shard.
+     * @param callback Callback to execute.
+     * @param <T> Type of the result.
+     * @param <E> Type of the exception thrown by the callback.
+     * @return Result of the callback.
+     * @throws E In case the callback fails.
+     */
+    public <T, E extends Exception> T executeOnShard(int shard, ShardCallback<T, E> callback) throws E {
+        final Integer previousShard = ShardContext.getCurrentShard();
+        ShardContext.setCurrentShard(shard);
+        try {
+            return callback.execute();
+        } finally {
+            ShardContext.setCurrentShard(previousShard);
+        }
+    }
+
+    /**
+     * Execute the callback on all shards, each shard in a new transaction, and collect the results. When sharding
+     * is disabled, the callback is executed once in the current transaction.
+     *
+     * @param readOnly Whether the shard transactions are read-only.
+     * @param callback Callback to execute.
+     * @param <T> Type of the result.
+     * @param <E> Type of the exception thrown by the callback.
+     * @return Results of the callback, one for each shard.
+     * @throws E In case the callback fails on any shard.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> List<T> executeOnAllShards(boolean readOnly, ShardCallback<T, E> callback) throws E {
+        if (!enabled) {
+            return Collections.singletonList(callback.execute());
+        }
+        final TransactionTemplate template = readOnly ? readOnlyTransactionTemplate : transactionTemplate;
+        final List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            try {
+                results.add(executeOnShard(shard, () -> template.execute(status -> {
+                    try {
+                        return callback.execute();
+                    } catch (RuntimeException ex) {
+                        throw ex;
+                    } catch (Exception ex) {
+                        throw new ShardCallbackException(ex);
+                    }
+                })));
+            } catch (ShardCallbackException ex) {
+                throw (E) ex.getCause();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Callback executed on a shard.
+     *
+     * @param <T> Type of the result.
+     * @param <E> Type of the exception thrown by the callback.
+     */
+    @FunctionalInterface
+    public interface ShardCallback<T, E extends Exception> {
+
+        /**
+         * Execute the callback.
+         *
+         * @return Result of the callback.
+         * @throws E In case the callback fails.
+         */
+        T execute() throws E;
+
+    }
+
+    /**
+     * Exception used to pass checked exceptions of callbacks through the transaction template, so that
+     * the transaction is rolled back.
+     */
+    private static class ShardCallbackException extends RuntimeException {
+
+        private static final long serialVersionUID = -2395271934842786016L;
+
+        ShardCallbackException(Exception cause) {
+            super(cause);
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data source which routes connections to the activation shard selected in {@link ShardContext}. Connections
+ * are routed to the default shard when no shard is selected.
+ *
+ * <p>The data source needs to be wrapped in {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so that the connection is obtained once the first statement of the transaction is executed.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    private final List<DataSource> shardDataSources;
+
+    /**
+     * Constructor with data sources of all shards.
+     *
+     * @param shardDataSources Data sources of shards, the first data source is the default shard.
+     */
+    public ShardRoutingDataSource(List<DataSource> shardDataSources) {
+        this.shardDataSources = Collections.unmodifiableList(new ArrayList<>(shardDataSources));
+        final Map<Object, Object> targetDataSources = new HashMap<>();
+        for (int i = 0; i < shardDataSources.size(); i++) {
+            targetDataSources.put(i, shardDataSources.get(i));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(shardDataSources.get(ShardContext.DEFAULT_SHARD));
+        setLenientFallback(false);
+    }
+
+    /**
+     * Get data sources of all shards.
+     *
+     * @return Data sources of shards, the first data source is the default shard.
+     */
+    public List<DataSource> getShardDataSources() {
+        return shardDataSources;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.getCurrentShard();
+    }
+
+    /**
+     * Close data sources of all shards.
+     */
+    @Override
+    public void close() {
+        for (DataSource dataSource : shardDataSources) {
+            if (dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) dataSource).close();
+                } catch (IOException ex) {
+                    logger.warn("Shard data source could not be closed, error: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.database.writer;
+
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatusConverter;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationHistoryEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureEntity;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PostInsertIdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Insert-only writer of signature audit records and activation history records. The records are never updated,
+ * so they are inserted using JDBC batches instead of being added to the persistence context, which would keep
+ * them until the end of the transaction and dirty check them on each flush.
+ *
+ * <p>Statements are executed on the connection of the current JPA transaction. Identifiers are allocated by
+ * the identifier generators of the entities, so that the records do not clash with records created using JPA.
+ * The persistence context is flushed before the insert only in case a record refers to an activation which
+ * is not stored yet, for example when the activation is created in the same transaction.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class AuditRecordWriter {
+
+    private static final String INSERT_SIGNATURE_AUDIT = "INSERT INTO pa_signature_audit (id, activation_id, activation_counter, "
+            + "activation_status, additional_info, data_base64, signature_type, signature, note, valid, timestamp_created) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SIGNATURE_AUDIT_GENERATED_ID = "INSERT INTO pa_signature_audit (activation_id, activation_counter, "
+            + "activation_status, additional_info, data_base64, signature_type, signature, note, valid, timestamp_created) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVATION_HISTORY = "INSERT INTO pa_activation_history (id, activation_id, activation_status, timestamp_created) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVATION_HISTORY_GENERATED_ID = "INSERT INTO pa_activation_history (activation_id, activation_status, timestamp_created) "
+            + "VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public AuditRecordWriter(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Insert a signature audit record.
+     *
+     * @param signatureAuditRecord Signature audit record.
+     */
+    @Transactional
+    public void insertSignatureAuditRecord(SignatureEntity signatureAuditRecord) {
+        insertSignatureAuditRecords(Collections.singletonList(signatureAuditRecord));
+    }
+
+    /**
+     * Insert signature audit records in a single batch. Identifiers of the records are set.
+     *
+     * @param signatureAuditRecords Signature audit records.
+     */
+    @Transactional
+    public void insertSignatureAuditRecords(List<SignatureEntity> signatureAuditRecords) {
+        insertRecords(SignatureEntity.class, signatureAuditRecords, INSERT_SIGNATURE_AUDIT, INSERT_SIGNATURE_AUDIT_GENERATED_ID,
+                SignatureEntity::getActivation,
+                signatureAuditRecord -> new Object[] {
+                        signatureAuditRecord.getActivation().getActivationId(),
+                        signatureAuditRecord.getActivationCounter(),
+                        activationStatusConverter.convertToDatabaseColumn(signatureAuditRecord.getActivationStatus()),
+                        signatureAuditRecord.getAdditionalInfo(),
+                        signatureAuditRecord.getDataBase64(),
+                        signatureAuditRecord.getSignatureType(),
+                        signatureAuditRecord.getSignature(),
+                        signatureAuditRecord.getNote(),
+                        signatureAuditRecord.getValid(),
+                        signatureAuditRecord.getTimestampCreated()
+                },
+                SignatureEntity::setId);
+    }
+
+    /**
+     * Insert activation history records in a single batch. Identifiers of the records are set.
+     *
+     * @param activationHistoryRecords Activation history records.
+     */
+    @Transactional
+    public void insertActivationHistoryRecords(List<ActivationHistoryEntity> activationHistoryRecords) {
+        insertRecords(ActivationHistoryEntity.class, activationHistoryRecords, INSERT_ACTIVATION_HISTORY, INSERT_ACTIVATION_HISTORY_GENERATED_ID,
+                ActivationHistoryEntity::getActivation,
+                activationHistoryRecord -> new Object[] {
+                        activationHistoryRecord.getActivation().getActivationId(),
+                        activationStatusConverter.convertToDatabaseColumn(activationHistoryRecord.getActivationStatus()),
+                        activationHistoryRecord.getTimestampCreated()
+                },
+                ActivationHistoryEntity::setId);
+    }
+
+    private <T> void insertRecords(Class<T> entityClass, List<T> records, String insertSql, String insertGeneratedIdSql,
+                                   Function<T, Object> referencedEntityMapper, Function<T, Object[]> valuesMapper, BiConsumer<T, Long> idSetter) {
+        if (records.isEmpty()) {
+            return;
+        }
+        final SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        for (T record : records) {
+            if (isPendingInsert(session, referencedEntityMapper.apply(record))) {
+                // Referenced entity must be inserted first, otherwise the foreign key would be violated
+                entityManager.flush();
+                break;
+            }
+        }
+        final IdentifierGenerator identifierGenerator = session.getFactory().getIdentifierGenerator(entityClass.getName());
+        if (identifierGenerator instanceof PostInsertIdentifierGenerator) {
+            // Identifiers are generated by the database, records are inserted one by one to obtain them
+            for (T record : records) {
+                final Object[] values = valuesMapper.apply(record);
+                final KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    final PreparedStatement statement = connection.prepareStatement(insertGeneratedIdSql, new String[] {"id"});
+                    new ArgumentPreparedStatementSetter(values).setValues(statement);
+                    return statement;
+                }, keyHolder);
+                idSetter.accept(record, keyHolder.getKey().longValue());
+            }
+            return;
+        }
+        final List<Object[]> batchValues = new ArrayList<>(records.size());
+        for (T record : records) {
+            final long id = ((Number) identifierGenerator.generate(session, record)).longValue();
+            idSetter.accept(record, id);
+            final Object[] values = valuesMapper.apply(record);
+            final Object[] valuesWithId = new Object[values.length + 1];
+            valuesWithId[0] = id;
+            System.arraycopy(values, 0, valuesWithId, 1, values.length);
+            batchValues.add(valuesWithId);
+        }
+        jdbcTemplate.batchUpdate(insertSql, batchValues);
+    }
+
+    /**
+     * Check whether the entity is managed by the persistence context and its insert was not flushed yet.
+     * Entities which are not managed, such as entities loaded lazily or in another persistence context,
+     * are already stored in the database.
+     *
+     * @param session Current session.
+     * @param entity Entity.
+     * @return True in case the entity is waiting for insert.
+     */
+    private boolean isPendingInsert(SharedSessionContractImplementor session, Object entity) {
+        final EntityEntry entityEntry = session.getPersistenceContext().getEntry(entity);
+        return entityEntry != null && !entityEntry.isExistsInDatabase();
+    }
+
+}
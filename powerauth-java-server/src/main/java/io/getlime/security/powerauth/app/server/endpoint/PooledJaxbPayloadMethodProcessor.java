@@ -0,0 +1,223 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.endpoint;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.adapter.method.MethodArgumentResolver;
+import org.springframework.ws.server.endpoint.adapter.method.MethodReturnValueHandler;
+import org.springframework.ws.server.endpoint.annotation.RequestPayload;
+import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
+import org.springframework.ws.stream.StreamingPayload;
+import org.springframework.ws.stream.StreamingWebServiceMessage;
+import org.springframework.xml.transform.TraxUtils;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Method processor handling JAXB request and response payloads of SOAP endpoints. It replaces the default
+ * Spring-WS processor, which creates new marshallers and unmarshallers for every message.
+ *
+ * <p>A single JAXB context is used for all PowerAuth service objects and marshallers and unmarshallers
+ * are reused. Request payloads are unmarshalled directly from the source provided by the message, so a StAX
+ * source is read as a stream. In case the response message supports streaming, the response payload is
+ * marshalled when the message is written to the output, without building the response document first.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PooledJaxbPayloadMethodProcessor implements MethodArgumentResolver, MethodReturnValueHandler {
+
+    private final JAXBContext jaxbContext;
+
+    private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<>();
+    private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor with the package of JAXB classes.
+     *
+     * @param contextPath Package containing the JAXB classes.
+     * @throws JAXBException In case JAXB context cannot be created.
+     */
+    public PooledJaxbPayloadMethodProcessor(String contextPath) throws JAXBException {
+        this.jaxbContext = JAXBContext.newInstance(contextPath);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(RequestPayload.class)
+                && parameter.getParameterType().isAnnotationPresent(XmlRootElement.class);
+    }
+
+    @Override
+    public Object resolveArgument(MessageContext messageContext, MethodParameter parameter) throws Exception {
+        final Source payload = messageContext.getRequest().getPayloadSource();
+        if (payload == null) {
+            return null;
+        }
+        final Unmarshaller unmarshaller = borrowUnmarshaller();
+        try {
+            final UnmarshallingCallback callback = new UnmarshallingCallback(unmarshaller);
+            TraxUtils.doWithSource(payload, callback);
+            return callback.result;
+        } finally {
+            unmarshallers.add(unmarshaller);
+        }
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return returnType.hasMethodAnnotation(ResponsePayload.class)
+                && returnType.getParameterType().isAnnotationPresent(XmlRootElement.class);
+    }
+
+    @Override
+    public void handleReturnValue(MessageContext messageContext, MethodParameter returnType, Object returnValue) throws Exception {
+        if (returnValue == null) {
+            return;
+        }
+        final WebServiceMessage response = messageContext.getResponse();
+        if (response instanceof StreamingWebServiceMessage) {
+            final QName name = jaxbContext.createJAXBIntrospector().getElementName(returnValue);
+            ((StreamingWebServiceMessage) response).setStreamingPayload(new JaxbStreamingPayload(name, returnValue));
+        } else {
+            final Marshaller marshaller = borrowMarshaller(false);
+            try {
+                marshaller.marshal(returnValue, response.getPayloadResult());
+            } finally {
+                marshallers.add(marshaller);
+            }
+        }
+    }
+
+    private Marshaller borrowMarshaller(boolean fragment) throws JAXBException {
+        Marshaller marshaller = marshallers.poll();
+        if (marshaller == null) {
+            marshaller = jaxbContext.createMarshaller();
+        }
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+        return marshaller;
+    }
+
+    private Unmarshaller borrowUnmarshaller() throws JAXBException {
+        final Unmarshaller unmarshaller = unmarshallers.poll();
+        return unmarshaller != null ? unmarshaller : jaxbContext.createUnmarshaller();
+    }
+
+    /**
+     * Response payload marshalled directly to the output of the response message.
+     */
+    private class JaxbStreamingPayload implements StreamingPayload {
+
+        private final QName name;
+        private final Object value;
+
+        JaxbStreamingPayload(QName name, Object value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Override
+        public QName getName() {
+            return name;
+        }
+
+        @Override
+        public void writeTo(XMLStreamWriter streamWriter) throws XMLStreamException {
+            try {
+                final Marshaller marshaller = borrowMarshaller(true);
+                try {
+                    marshaller.marshal(value, streamWriter);
+                } finally {
+                    marshallers.add(marshaller);
+                }
+            } catch (JAXBException ex) {
+                throw new XMLStreamException("Response payload could not be marshalled", ex);
+            }
+        }
+
+    }
+
+    /**
+     * Callback unmarshalling the request payload from any kind of source.
+     */
+    private static class UnmarshallingCallback implements TraxUtils.SourceCallback {
+
+        private final Unmarshaller unmarshaller;
+        private Object result;
+
+        UnmarshallingCallback(Unmarshaller unmarshaller) {
+            this.unmarshaller = unmarshaller;
+        }
+
+        @Override
+        public void domSource(Node node) throws JAXBException {
+            result = unmarshaller.unmarshal(node);
+        }
+
+        @Override
+        public void saxSource(XMLReader reader, InputSource inputSource) throws JAXBException {
+            result = unmarshaller.unmarshal(new SAXSource(reader, inputSource));
+        }
+
+        @Override
+        public void staxSource(XMLEventReader eventReader) throws JAXBException {
+            result = unmarshaller.unmarshal(eventReader);
+        }
+
+        @Override
+        public void staxSource(XMLStreamReader streamReader) throws JAXBException {
+            result = unmarshaller.unmarshal(streamReader);
+        }
+
+        @Override
+        public void streamSource(InputStream inputStream) throws JAXBException {
+            result = unmarshaller.unmarshal(inputStream);
+        }
+
+        @Override
+        public void streamSource(Reader reader) throws JAXBException {
+            result = unmarshaller.unmarshal(reader);
+        }
+
+        @Override
+        public void source(String systemId) throws JAXBException {
+            result = unmarshaller.unmarshal(new InputSource(systemId));
+        }
+
+    }
+
+}
@@ -25,6 +25,8 @@ import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 
+import java.util.concurrent.ExecutionException;
+
 /**
  * Class implementing the SOAP service end-point.
  *
@@ -140,6 +142,28 @@ public class PowerAuthEndpoint {
         return powerAuthService.getActivationStatus(request);
     }
 
+    /**
+     * Call {@link PowerAuthService#waitForActivationStatusChange(WaitForActivationStatusChangeRequest)} method and
+     * return the response. SOAP interface does not support asynchronous processing, the request thread
+     * is blocked until the activation status changes or the timeout expires.
+     *
+     * @param request Wait for activation status change request.
+     * @return Wait for activation status change response.
+     * @throws Exception In case the service throws exception.
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "WaitForActivationStatusChangeRequest")
+    @ResponsePayload
+    public WaitForActivationStatusChangeResponse waitForActivationStatusChange(@RequestPayload WaitForActivationStatusChangeRequest request) throws Exception {
+        try {
+            return powerAuthService.waitForActivationStatusChange(request).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
     /**
      * Call {@link PowerAuthService#removeActivation(RemoveActivationRequest)} method and
      * return the response.
@@ -294,6 +318,20 @@ public class PowerAuthEndpoint {
         return powerAuthService.getSignatureAuditLog(request);
     }
 
+    /**
+     * Call {@link PowerAuthService#getSignatureStatistics(GetSignatureStatisticsRequest)} method and
+     * return the response.
+     *
+     * @param request Signature statistics request.
+     * @return Signature statistics response.
+     * @throws Exception In case the service throws exception.
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetSignatureStatisticsRequest")
+    @ResponsePayload
+    public GetSignatureStatisticsResponse getSignatureStatistics(@RequestPayload GetSignatureStatisticsRequest request) throws Exception {
+        return powerAuthService.getSignatureStatistics(request);
+    }
+
     /**
      * Call {@link PowerAuthService#getActivationHistory(ActivationHistoryRequest)} method and
      * return the response.
@@ -0,0 +1,51 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.integration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint which allows forcing a reload of cached integration credentials, for example
+ * after the "pa_integration" table was changed directly in the database. The endpoint is not exposed
+ * by default, it can be exposed using "management.endpoints.web.exposure.include" property.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+@Endpoint(id = "integrations")
+public class IntegrationCacheEndpoint {
+
+    private IntegrationUserDetailsService integrationUserDetailsService;
+
+    @Autowired
+    public IntegrationCacheEndpoint(IntegrationUserDetailsService integrationUserDetailsService) {
+        this.integrationUserDetailsService = integrationUserDetailsService;
+    }
+
+    /**
+     * Reload cached integration credentials from the database.
+     */
+    @WriteOperation
+    public void reload() {
+        integrationUserDetailsService.reloadCredentials();
+    }
+
+}
@@ -19,8 +19,13 @@ package io.getlime.security.powerauth.app.server.integration;
 
 import io.getlime.security.powerauth.app.server.database.repository.IntegrationRepository;
 import io.getlime.security.powerauth.app.server.database.model.entity.IntegrationEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
@@ -28,47 +33,115 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class that implements user detail service used for authentication of integrations.
  * Integration is essentially an application that is allowed to communicate with
  * PowerAuth 2.0 Server.
  *
+ * Integration credentials are cached in memory, so that authentication of REST and SOAP
+ * requests does not require a database query. The cache is reloaded when an integration
+ * is created or removed and periodically, to pick up changes made by other server instances
+ * or directly in the database.
+ *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Service
 @Qualifier("integrationUserDetailsService")
 public class IntegrationUserDetailsService implements UserDetailsService {
 
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(IntegrationUserDetailsService.class);
+
     private IntegrationRepository integrationRepository;
 
+    // Map of client tokens to client secrets, replaced as a whole on reload
+    private volatile Map<String, String> credentials = new ConcurrentHashMap<>();
+
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
+
     /**
      * Constructor to autowire {@link IntegrationRepository} instance.
      * @param integrationRepository Autowired database.
+     * @param meterRegistry Registry of metrics.
      */
     @Autowired
-    public IntegrationUserDetailsService(IntegrationRepository integrationRepository) {
+    public IntegrationUserDetailsService(IntegrationRepository integrationRepository, MeterRegistry meterRegistry) {
         this.integrationRepository = integrationRepository;
+        this.cacheHitCounter = meterRegistry.counter("powerauth.integration.cache.hits");
+        this.cacheMissCounter = meterRegistry.counter("powerauth.integration.cache.misses");
     }
 
     /**
      * Method to load user details from the database table "pa_integration" according to "clientToken".
+     * Credentials are taken from the cache, the database is queried only in case of a cache miss.
      * @param username Username, represented by Client Token value in the "pa_integration" table.
      * @return User details - an instance of new User object.
      * @throws UsernameNotFoundException When integration with given Client Token was not found.
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        IntegrationEntity integration = integrationRepository.findFirstByClientToken(username);
-        if (integration != null) {
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
-            return new User(integration.getClientToken(), integration.getClientSecret(), authorities);
+        String clientSecret = credentials.get(username);
+        if (clientSecret != null) {
+            cacheHitCounter.increment();
+        } else {
+            cacheMissCounter.increment();
+            IntegrationEntity integration = integrationRepository.findFirstByClientToken(username);
+            if (integration == null) {
+                throw new UsernameNotFoundException("No integration found for client token: " + username);
+            }
+            clientSecret = integration.getClientSecret();
+            credentials.put(integration.getClientToken(), clientSecret);
+        }
+        // New user instance is created each time, since Spring Security erases credentials of authenticated users
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        return new User(username, clientSecret, authorities);
+    }
+
+    /**
+     * Reload all integration credentials from the database.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${powerauth.service.integration.cacheRefreshIntervalInMilliseconds}",
+            initialDelayString = "${powerauth.service.integration.cacheRefreshIntervalInMilliseconds}")
+    public void reloadCredentials() {
+        try {
+            Map<String, String> result = new ConcurrentHashMap<>();
+            for (IntegrationEntity integration : integrationRepository.findAll()) {
+                if (integration.getClientToken() != null && integration.getClientSecret() != null) {
+                    result.put(integration.getClientToken(), integration.getClientSecret());
+                }
+            }
+            credentials = result;
+        } catch (RuntimeException ex) {
+            logger.error("Integration credentials could not be loaded", ex);
+        }
+    }
+
+    /**
+     * Invalidate cached integration credentials. In case a transaction is active, the credentials
+     * are reloaded after the transaction commits, otherwise immediately.
+     */
+    public void invalidateCredentials() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    reloadCredentials();
+                }
+            });
         } else {
-            throw new UsernameNotFoundException("No integration found for client token: " + username);
+            reloadCredentials();
         }
     }
 
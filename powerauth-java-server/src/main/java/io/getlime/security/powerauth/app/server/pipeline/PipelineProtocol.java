@@ -0,0 +1,72 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.pipeline;
+
+/**
+ * Constants of the pipelined binary protocol.
+ *
+ * <p>Each frame starts with a 4 byte length of the rest of the frame, followed by an 8 byte request ID,
+ * a 1 byte frame type and the CBOR encoded payload. All numbers are in network byte order. Responses carry
+ * the request ID of the corresponding request and they may be sent in a different order than requests.</p>
+ *
+ * <p>In case access to the server is restricted, the first request on a connection must be
+ * {@link #AUTHENTICATE} with "clientToken" and "clientSecret" of an integration.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class PipelineProtocol {
+
+    /**
+     * Length of the frame length field.
+     */
+    public static final int LENGTH_FIELD_SIZE = 4;
+
+    /**
+     * Length of the frame header following the length field: request ID and frame type.
+     */
+    public static final int HEADER_SIZE = 9;
+
+    /**
+     * Request authenticating the connection with integration credentials.
+     */
+    public static final byte AUTHENTICATE = 0;
+
+    /**
+     * Request with payload of verify signature request.
+     */
+    public static final byte VERIFY_SIGNATURE = 1;
+
+    /**
+     * Request with payload of validate token request.
+     */
+    public static final byte VALIDATE_TOKEN = 2;
+
+    /**
+     * Response with payload of the successful response.
+     */
+    public static final byte RESPONSE_OK = 0;
+
+    /**
+     * Response with payload of the error.
+     */
+    public static final byte RESPONSE_ERROR = 1;
+
+    private PipelineProtocol() {
+    }
+
+}
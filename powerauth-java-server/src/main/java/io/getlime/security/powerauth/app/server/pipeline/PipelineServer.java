@@ -0,0 +1,480 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.ValidateTokenRequest;
+import io.getlime.security.powerauth.VerifySignatureRequest;
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.controller.RESTErrorModel;
+import io.getlime.security.powerauth.app.server.integration.IntegrationUserDetailsService;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
+import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listener of the pipelined binary protocol, see {@link PipelineProtocol}. Signature verification and
+ * token validation requests are received over persistent connections and dispatched to {@link PowerAuthService}.
+ * A single connection may carry many requests at the same time, responses are sent as soon as the requests
+ * are completed.
+ *
+ * <p>Connections are handled by a single selector thread, requests are executed by a pool of worker threads.
+ * Reading from a connection is suspended while the connection has the maximum number of requests in progress.
+ * Authentication is executed by the worker threads as well, since loading the integration credentials may query
+ * the database. Requests following the authentication are handled once the authentication completes.
+ * Requests which do not fit into the bounded queue of the worker threads are rejected with a service overloaded
+ * error.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class PipelineServer {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(PipelineServer.class);
+
+    private final PowerAuthServiceConfiguration configuration;
+    private final PowerAuthService powerAuthService;
+    private final IntegrationUserDetailsService integrationUserDetailsService;
+    private final LocalizationProvider localizationProvider;
+    private final ObjectMapper objectMapper;
+
+    // Connections with changed requests in progress or responses to be written
+    private final Queue<PipelineConnection> pendingUpdates = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService executorService;
+    private volatile boolean running;
+
+    @Autowired
+    public PipelineServer(PowerAuthServiceConfiguration configuration, PowerAuthService powerAuthService,
+                          IntegrationUserDetailsService integrationUserDetailsService, LocalizationProvider localizationProvider,
+                          MappingJackson2CborHttpMessageConverter cborHttpMessageConverter) {
+        this.configuration = configuration;
+        this.powerAuthService = powerAuthService;
+        this.integrationUserDetailsService = integrationUserDetailsService;
+        this.localizationProvider = localizationProvider;
+        this.objectMapper = cborHttpMessageConverter.getObjectMapper();
+    }
+
+    /**
+     * Start the listener in case it is enabled.
+     *
+     * @throws IOException In case the listener cannot be bound to the configured address.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!configuration.getPipelineEnabled()) {
+            return;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(configuration.getPipelineBindAddress(), configuration.getPipelinePort()));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        final AtomicInteger threadCounter = new AtomicInteger();
+        executorService = new ThreadPoolExecutor(configuration.getPipelineThreads(), configuration.getPipelineThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, configuration.getPipelineQueueCapacity())), runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        final Thread listenerThread = new Thread(this::listen, "pipeline-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        logger.info("Pipelined protocol listener started on {}", serverChannel.getLocalAddress());
+    }
+
+    /**
+     * Stop the listener and close all connections.
+     */
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException ex) {
+            logger.warn("Pipelined protocol listener was not closed properly", ex);
+        }
+        executorService.shutdown();
+    }
+
+    /**
+     * Get the address the listener is bound to.
+     *
+     * @return Address of the listener, or null in case the listener is not running.
+     * @throws IOException In case the address cannot be obtained.
+     */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return running ? (InetSocketAddress) serverChannel.getLocalAddress() : null;
+    }
+
+    private void listen() {
+        while (running) {
+            try {
+                selector.select();
+                PipelineConnection updatedConnection;
+                while ((updatedConnection = pendingUpdates.poll()) != null) {
+                    updatedConnection.update();
+                }
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    final PipelineConnection connection = (PipelineConnection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                        connection.updateInterest();
+                    } catch (IOException ex) {
+                        logger.debug("Pipelined protocol connection failed", ex);
+                        connection.close();
+                    }
+                }
+            } catch (ClosedSelectorException ex) {
+                return;
+            } catch (IOException ex) {
+                logger.error("Pipelined protocol listener failed", ex);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        final SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        final SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new PipelineConnection(channel, key));
+    }
+
+    private byte[] encodeError(String code) {
+        final RESTErrorModel error = new RESTErrorModel();
+        error.setCode(code);
+        error.setMessage(localizationProvider.getLocalizedErrorMessage(code));
+        error.setLocalizedMessage(localizationProvider.getLocalizedErrorMessage(code));
+        return encodeError(error);
+    }
+
+    private byte[] encodeError(RESTErrorModel error) {
+        try {
+            return objectMapper.writeValueAsBytes(error);
+        } catch (IOException ex) {
+            // Error model is always serializable
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Single connection of the pipelined protocol.
+     */
+    private class PipelineConnection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer readBuffer;
+        private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlightRequests = new AtomicInteger();
+        private volatile boolean authenticated;
+        private volatile boolean authenticating;
+        // Whether complete frames were left in the read buffer while the authentication was in progress
+        private boolean framesPending;
+        private volatile boolean closeAfterWrite;
+        private volatile boolean closed;
+
+        PipelineConnection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            this.readBuffer = ByteBuffer.allocate(PipelineProtocol.LENGTH_FIELD_SIZE + configuration.getPipelineMaxFrameSize());
+            this.authenticated = !configuration.getRestrictAccess();
+        }
+
+        /**
+         * Read available data and handle all complete frames.
+         */
+        void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+            handleFrames();
+        }
+
+        /**
+         * Handle all complete frames in the read buffer. In case an authentication is started, the remaining frames
+         * are kept in the buffer until the authentication completes.
+         */
+        private void handleFrames() {
+            readBuffer.flip();
+            while (readBuffer.remaining() >= PipelineProtocol.LENGTH_FIELD_SIZE) {
+                if (authenticating) {
+                    framesPending = true;
+                    break;
+                }
+                final int length = readBuffer.getInt(readBuffer.position());
+                if (length < PipelineProtocol.HEADER_SIZE || length > configuration.getPipelineMaxFrameSize()) {
+                    logger.warn("Invalid frame length received: {}, closing connection", length);
+                    close();
+                    return;
+                }
+                if (readBuffer.remaining() < PipelineProtocol.LENGTH_FIELD_SIZE + length) {
+                    break;
+                }
+                readBuffer.getInt();
+                final long requestId = readBuffer.getLong();
+                final byte type = readBuffer.get();
+                final byte[] payload = new byte[length - PipelineProtocol.HEADER_SIZE];
+                readBuffer.get(payload);
+                handle(requestId, type, payload);
+                if (closeAfterWrite) {
+                    // Ignore any further requests
+                    readBuffer.clear();
+                    return;
+                }
+            }
+            readBuffer.compact();
+        }
+
+        /**
+         * Write queued responses.
+         */
+        void write() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = writeQueue.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                writeQueue.poll();
+            }
+            if (closeAfterWrite) {
+                close();
+            }
+        }
+
+        /**
+         * Handle frames postponed during the authentication and update operations the selector waits for.
+         * Must be called from the selector thread.
+         */
+        void update() {
+            if (framesPending && !authenticating && !closed) {
+                framesPending = false;
+                if (closeAfterWrite) {
+                    readBuffer.clear();
+                } else {
+                    handleFrames();
+                }
+            }
+            updateInterest();
+        }
+
+        /**
+         * Update operations the selector waits for, based on the number of requests in progress
+         * and queued responses. Must be called from the selector thread.
+         */
+        void updateInterest() {
+            if (closed || !key.isValid()) {
+                return;
+            }
+            int interest = 0;
+            if (!closeAfterWrite && !authenticating && inFlightRequests.get() < configuration.getPipelineMaxInFlightRequests()) {
+                interest |= SelectionKey.OP_READ;
+            }
+            if (!writeQueue.isEmpty() || closeAfterWrite) {
+                interest |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(interest);
+        }
+
+        void close() {
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                logger.debug("Pipelined protocol connection was not closed properly", ex);
+            }
+        }
+
+        private void handle(long requestId, byte type, byte[] payload) {
+            if (type == PipelineProtocol.AUTHENTICATE) {
+                // Reading is suspended until the authentication completes, so that following requests are not rejected
+                authenticating = true;
+                try {
+                    executorService.execute(() -> {
+                        try {
+                            authenticate(requestId, payload);
+                        } finally {
+                            authenticating = false;
+                            requestUpdate();
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    logger.warn("Pipelined protocol authentication was rejected, too many requests in progress, closing connection");
+                    authenticating = false;
+                    writeResponse(requestId, PipelineProtocol.RESPONSE_ERROR, encodeError(ServiceError.SERVICE_OVERLOADED));
+                    closeAfterWrite = true;
+                }
+                return;
+            }
+            if (!authenticated) {
+                logger.warn("Request received on an unauthenticated connection, closing connection");
+                writeResponse(requestId, PipelineProtocol.RESPONSE_ERROR, encodeError(ServiceError.INTEGRATION_AUTHENTICATION_FAILED));
+                closeAfterWrite = true;
+                return;
+            }
+            if (type != PipelineProtocol.VERIFY_SIGNATURE && type != PipelineProtocol.VALIDATE_TOKEN) {
+                writeResponse(requestId, PipelineProtocol.RESPONSE_ERROR, encodeError(ServiceError.INVALID_INPUT_FORMAT));
+                return;
+            }
+            inFlightRequests.incrementAndGet();
+            try {
+                executorService.execute(() -> {
+                    try {
+                        execute(requestId, type, payload);
+                    } finally {
+                        inFlightRequests.decrementAndGet();
+                        requestUpdate();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                logger.warn("Pipelined protocol request was rejected, too many requests in progress");
+                inFlightRequests.decrementAndGet();
+                writeResponse(requestId, PipelineProtocol.RESPONSE_ERROR, encodeError(ServiceError.SERVICE_OVERLOADED));
+            }
+        }
+
+        private void authenticate(long requestId, byte[] payload) {
+            boolean valid = false;
+            try {
+                final Map<?, ?> credentials = objectMapper.readValue(payload, Map.class);
+                final Object clientToken = credentials.get("clientToken");
+                final Object clientSecret = credentials.get("clientSecret");
+                if (clientToken instanceof String && clientSecret instanceof String) {
+                    final String expectedSecret = integrationUserDetailsService.loadUserByUsername((String) clientToken).getPassword();
+                    valid = expectedSecret != null && MessageDigest.isEqual(
+                            expectedSecret.getBytes(StandardCharsets.UTF_8), ((String) clientSecret).getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException | UsernameNotFoundException ex) {
+                logger.debug("Pipelined protocol authentication failed", ex);
+            }
+            if (valid || !configuration.getRestrictAccess()) {
+                authenticated = true;
+                writeResponse(requestId, PipelineProtocol.RESPONSE_OK, new byte[0]);
+            } else {
+                logger.warn("Pipelined protocol authentication failed, closing connection");
+                writeResponse(requestId, PipelineProtocol.RESPONSE_ERROR, encodeError(ServiceError.INTEGRATION_AUTHENTICATION_FAILED));
+                closeAfterWrite = true;
+            }
+        }
+
+        private void execute(long requestId, byte type, byte[] payload) {
+            byte[] response;
+            byte status = PipelineProtocol.RESPONSE_OK;
+            try {
+                final Object result;
+                if (type == PipelineProtocol.VERIFY_SIGNATURE) {
+                    result = powerAuthService.verifySignature(objectMapper.readValue(payload, VerifySignatureRequest.class));
+                } else {
+                    result = powerAuthService.validateToken(objectMapper.readValue(payload, ValidateTokenRequest.class));
+                }
+                response = objectMapper.writeValueAsBytes(result);
+            } catch (GenericServiceException ex) {
+                final RESTErrorModel error = new RESTErrorModel();
+                error.setCode(ex.getCode());
+                error.setMessage(ex.getMessage());
+                error.setLocalizedMessage(ex.getLocalizedMessage());
+                response = encodeError(error);
+                status = PipelineProtocol.RESPONSE_ERROR;
+            } catch (IOException ex) {
+                logger.warn("Invalid pipelined protocol request received", ex);
+                response = encodeError(ServiceError.INVALID_INPUT_FORMAT);
+                status = PipelineProtocol.RESPONSE_ERROR;
+            } catch (Exception ex) {
+                logger.error("Unknown error occurred", ex);
+                response = encodeError(ServiceError.UNKNOWN_ERROR);
+                status = PipelineProtocol.RESPONSE_ERROR;
+            }
+            writeResponse(requestId, status, response);
+        }
+
+        private void writeResponse(long requestId, byte status, byte[] payload) {
+            if (closed) {
+                return;
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(PipelineProtocol.LENGTH_FIELD_SIZE + PipelineProtocol.HEADER_SIZE + payload.length);
+            buffer.putInt(PipelineProtocol.HEADER_SIZE + payload.length);
+            buffer.putLong(requestId);
+            buffer.put(status);
+            buffer.put(payload);
+            buffer.flip();
+            writeQueue.add(buffer);
+            requestUpdate();
+        }
+
+        private void requestUpdate() {
+            pendingUpdates.add(this);
+            selector.wakeup();
+        }
+
+    }
+
+}
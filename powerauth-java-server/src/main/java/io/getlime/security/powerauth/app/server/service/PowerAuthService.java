@@ -19,6 +19,8 @@ package io.getlime.security.powerauth.app.server.service;
 
 import io.getlime.security.powerauth.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface containing all methods that are published by the PowerAuth 2.0 Server
  * instance. These methods are then used to publish both SOAP and REST interface.
@@ -54,6 +56,16 @@ public interface PowerAuthService {
      */
     GetActivationStatusResponse getActivationStatus(GetActivationStatusRequest request) throws Exception;
 
+    /**
+     * Wait until status of activation with given ID differs from the status known by the caller, or until
+     * the timeout expires. No thread is blocked while waiting.
+     *
+     * @param request Wait for activation status change request object.
+     * @return Future with the current activation status.
+     * @throws Exception In case of a business logic error.
+     */
+    CompletableFuture<WaitForActivationStatusChangeResponse> waitForActivationStatusChange(WaitForActivationStatusChangeRequest request) throws Exception;
+
     /**
      * Get the list of error codes for given language.
      *
@@ -228,6 +240,15 @@ public interface PowerAuthService {
      */
     SignatureAuditResponse getSignatureAuditLog(SignatureAuditRequest request) throws Exception;
 
+    /**
+     * Get aggregated signature verification statistics.
+     *
+     * @param request Signature statistics request.
+     * @return Signature statistics response.
+     * @throws Exception In case of a business logic error.
+     */
+    GetSignatureStatisticsResponse getSignatureStatistics(GetSignatureStatisticsRequest request) throws Exception;
+
     /**
      * Get activation history.
      *
@@ -19,12 +19,21 @@ package io.getlime.security.powerauth.app.server.service;
 
 import io.getlime.security.powerauth.*;
 import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.converter.ActivationStatusConverter;
 import io.getlime.security.powerauth.app.server.converter.XMLGregorianCalendarConverter;
 import io.getlime.security.powerauth.app.server.database.model.AdditionalInformation;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
+import io.getlime.security.powerauth.app.server.service.activation.ActivationStatusChangeNotifier;
 import io.getlime.security.powerauth.app.server.service.behavior.ServiceBehaviorCatalogue;
+import io.getlime.security.powerauth.app.server.service.bulkhead.Bulkhead;
+import io.getlime.security.powerauth.app.server.service.bulkhead.BulkheadType;
+import io.getlime.security.powerauth.app.server.service.concurrency.SingleFlight;
 import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
 import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
 import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import io.getlime.security.powerauth.app.server.service.routing.ReadReplica;
+import io.getlime.security.powerauth.app.server.service.sharding.ShardKey;
+import io.getlime.security.powerauth.app.server.service.sharding.Sharded;
 import io.getlime.security.powerauth.crypto.lib.config.PowerAuthConfiguration;
 import io.getlime.security.powerauth.provider.CryptoProviderUtil;
 import org.slf4j.Logger;
@@ -37,15 +46,24 @@ import org.springframework.transaction.annotation.Transactional;
 import java.security.InvalidKeyException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Default implementation of the PowerAuth 2.0 Server service.
  * The implementation of this service is divided into "behaviors"
  * responsible for individual processes.
  *
+ * CPU intensive operations are executed in separate bulkheads, see {@link Bulkhead}. Activation
+ * data are optionally stored in multiple database shards, see {@link Sharded}.
+ *
  * @see io.getlime.security.powerauth.app.server.service.PowerAuthService
  *
  * @author Petr Dvorak, petr@wultra.com
@@ -61,6 +79,10 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     private BuildProperties buildProperties;
 
+    private ActivationStatusChangeNotifier activationStatusChangeNotifier;
+
+    private ShardRouter shardRouter;
+
     // Prepare logger
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthServiceImpl.class);
 
@@ -79,6 +101,16 @@ public class PowerAuthServiceImpl implements PowerAuthService {
         this.localizationProvider = localizationProvider;
     }
 
+    @Autowired
+    public void setActivationStatusChangeNotifier(ActivationStatusChangeNotifier activationStatusChangeNotifier) {
+        this.activationStatusChangeNotifier = activationStatusChangeNotifier;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
     @Autowired(required = false)
     public void setBuildProperties(BuildProperties buildProperties) {
         this.buildProperties = buildProperties;
@@ -86,6 +118,13 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     private final CryptoProviderUtil keyConversionUtilities = PowerAuthConfiguration.INSTANCE.getKeyConvertor();
 
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+
+    // Localized error messages by language, ordered by error code
+    private final ConcurrentMap<String, Map<String, String>> errorMessages = new ConcurrentHashMap<>();
+
+    private final SingleFlight<String, GetActivationStatusResponse> activationStatusCalls = new SingleFlight<>();
+
     @Override
     public GetSystemStatusResponse getSystemStatus(GetSystemStatusRequest request) throws Exception {
         logger.info("GetSystemStatusRequest received");
@@ -111,19 +150,29 @@ public class PowerAuthServiceImpl implements PowerAuthService {
         if (Arrays.binarySearch(Locale.getISOLanguages(), language) < 0) {
             language = Locale.ENGLISH.getLanguage();
         }
-        Locale locale = new Locale(language);
+        // Error messages are localized once per language, the response is built for each call since it is mutable
+        Map<String, String> messages = errorMessages.computeIfAbsent(language, this::localizeErrorMessages);
         GetErrorCodeListResponse response = new GetErrorCodeListResponse();
-        List<String> errorCodeList = ServiceError.allCodes();
-        for (String errorCode : errorCodeList) {
+        for (Map.Entry<String, String> message : messages.entrySet()) {
             GetErrorCodeListResponse.Errors error = new GetErrorCodeListResponse.Errors();
-            error.setCode(errorCode);
-            error.setValue(localizationProvider.getLocalizedErrorMessage(errorCode, locale));
+            error.setCode(message.getKey());
+            error.setValue(message.getValue());
             response.getErrors().add(error);
         }
         logger.info("GetErrorCodeListRequest succeeded");
         return response;
     }
 
+    private Map<String, String> localizeErrorMessages(String language) {
+        Locale locale = new Locale(language);
+        Map<String, String> messages = new LinkedHashMap<>();
+        List<String> errorCodeList = ServiceError.allCodes();
+        for (String errorCode : errorCodeList) {
+            messages.put(errorCode, localizationProvider.getLocalizedErrorMessage(errorCode, locale));
+        }
+        return Collections.unmodifiableMap(messages);
+    }
+
     @Override
     @Transactional
     public GetActivationListForUserResponse getActivationListForUser(GetActivationListForUserRequest request) throws Exception {
@@ -141,12 +190,14 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public GetActivationStatusResponse getActivationStatus(GetActivationStatusRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
             logger.info("GetActivationStatusRequest received, activationId: {}", activationId);
-            GetActivationStatusResponse response = behavior.getActivationServiceBehavior().getActivationStatus(activationId, keyConversionUtilities);
+            // Concurrent requests for the same activation share a single status computation and transaction
+            GetActivationStatusResponse response = activationStatusCalls.execute(activationId, () ->
+                    behavior.getActivationServiceBehavior().getActivationStatus(activationId, keyConversionUtilities));
             logger.info("GetActivationStatusResponse succeeded");
             return response;
         } catch (Exception ex) {
@@ -156,8 +207,56 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     }
 
+    @Override
+    @Sharded(ShardKey.ACTIVATION_ID)
+    public CompletableFuture<WaitForActivationStatusChangeResponse> waitForActivationStatusChange(WaitForActivationStatusChangeRequest request) throws Exception {
+        if (request.getActivationId() == null || request.getActivationStatus() == null) {
+            logger.warn("Invalid request, activationId: {}, activationStatus: {}", request.getActivationId(), request.getActivationStatus());
+            throw localizationProvider.buildExceptionForCode(ServiceError.INVALID_INPUT_FORMAT);
+        }
+        final String activationId = request.getActivationId();
+        final ActivationStatus knownStatus = request.getActivationStatus();
+        final long maxTimeout = powerAuthServiceConfiguration.getActivationStatusWaitMaxTimeout();
+        final long timeout = request.getTimeout() != null && request.getTimeout() > 0 ? Math.min(request.getTimeout(), maxTimeout) : Math.min(powerAuthServiceConfiguration.getActivationStatusWaitDefaultTimeout(), maxTimeout);
+        logger.info("WaitForActivationStatusChangeRequest received, activationId: {}, activationStatus: {}, timeout: {}", activationId, knownStatus, timeout);
+        // Start waiting before the status is read, so that no status change is missed
+        final CompletableFuture<io.getlime.security.powerauth.app.server.database.model.ActivationStatus> statusChange = activationStatusChangeNotifier.waitForStatusChange(activationId, timeout);
+        final ActivationStatus currentStatus;
+        try {
+            currentStatus = behavior.getActivationServiceBehavior().getCurrentActivationStatus(activationId);
+        } catch (RuntimeException ex) {
+            statusChange.complete(null);
+            logger.error("Unknown error occurred", ex);
+            throw new GenericServiceException(ServiceError.UNKNOWN_ERROR, ex.getMessage(), ex.getLocalizedMessage());
+        }
+        if (currentStatus != knownStatus) {
+            statusChange.complete(null);
+            return CompletableFuture.completedFuture(buildWaitForActivationStatusChangeResponse(activationId, knownStatus, currentStatus));
+        }
+        // The continuation runs on the completion executor instead of the thread completing the future,
+        // the shard of the activation is selected explicitly
+        final int shard = shardRouter.getShard(activationId);
+        return statusChange.thenApplyAsync(status -> {
+            // The status is read again when the waiting times out, since it could be changed by another server instance
+            final ActivationStatus newStatus = status != null ? activationStatusConverter.convert(status)
+                    : shardRouter.executeOnShard(shard, () -> behavior.getActivationServiceBehavior().getCurrentActivationStatus(activationId));
+            return buildWaitForActivationStatusChangeResponse(activationId, knownStatus, newStatus);
+        }, activationStatusChangeNotifier.getCompletionExecutor());
+    }
+
+    private WaitForActivationStatusChangeResponse buildWaitForActivationStatusChangeResponse(String activationId, ActivationStatus knownStatus, ActivationStatus currentStatus) {
+        WaitForActivationStatusChangeResponse response = new WaitForActivationStatusChangeResponse();
+        response.setActivationId(activationId);
+        response.setActivationStatus(currentStatus);
+        response.setStatusChanged(currentStatus != knownStatus);
+        logger.info("WaitForActivationStatusChangeRequest succeeded, activationId: {}, statusChanged: {}", activationId, response.isStatusChanged());
+        return response;
+    }
+
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.ACTIVATION)
+    @Sharded(ShardKey.NEW_ACTIVATION)
     public InitActivationResponse initActivation(InitActivationRequest request) throws Exception {
         try {
             String userId = request.getUserId();
@@ -179,6 +278,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.ACTIVATION)
+    @Sharded(ShardKey.ACTIVATION_ID_SHORT)
     public PrepareActivationResponse prepareActivation(PrepareActivationRequest request) throws Exception {
         try {
             // Get request parameters
@@ -208,6 +309,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.ACTIVATION)
+    @Sharded(ShardKey.NEW_ACTIVATION)
     public CreateActivationResponse createActivation(CreateActivationRequest request) throws Exception {
         try {
             // Get request parameters
@@ -268,6 +371,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.SIGNATURE)
+    @Sharded(ShardKey.ACTIVATION_ID)
     public VerifySignatureResponse verifySignature(VerifySignatureRequest request) throws Exception {
         try {
             logger.info("VerifySignatureRequest received, activationId: {}", request.getActivationId());
@@ -282,6 +387,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public CreatePersonalizedOfflineSignaturePayloadResponse createPersonalizedOfflineSignaturePayload(CreatePersonalizedOfflineSignaturePayloadRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
@@ -320,6 +426,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.SIGNATURE)
+    @Sharded(ShardKey.ACTIVATION_ID)
     public VerifyOfflineSignatureResponse verifyOfflineSignature(VerifyOfflineSignatureRequest request) throws Exception {
         final String activationId = request.getActivationId();
         final String data = request.getData();
@@ -333,6 +441,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public CommitActivationResponse commitActivation(CommitActivationRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
@@ -351,6 +460,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public RemoveActivationResponse removeActivation(RemoveActivationRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
@@ -366,6 +476,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public BlockActivationResponse blockActivation(BlockActivationRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
@@ -385,6 +496,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public UnblockActivationResponse unblockActivation(UnblockActivationRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
@@ -404,6 +516,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.SIGNATURE)
+    @Sharded(ShardKey.ACTIVATION_ID)
     public VaultUnlockResponse vaultUnlock(VaultUnlockRequest request) throws Exception {
         try {
 
@@ -459,6 +573,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.ACTIVATION_ID)
     public GetPersonalizedEncryptionKeyResponse generateE2EPersonalizedEncryptionKey(GetPersonalizedEncryptionKeyRequest request) throws Exception {
         logger.info("GetPersonalizedEncryptionKeyRequest received, activationId: {}", request.getActivationId());
         GetPersonalizedEncryptionKeyResponse response = behavior.getEncryptionServiceBehavior().generateEncryptionKeyForActivation(
@@ -486,6 +601,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.SIGNATURE)
+    @Sharded(ShardKey.ACTIVATION_ID)
     public VerifyECDSASignatureResponse verifyECDSASignature(VerifyECDSASignatureRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
@@ -504,7 +621,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @ReadReplica
     public SignatureAuditResponse getSignatureAuditLog(SignatureAuditRequest request) throws Exception {
         try {
 
@@ -512,9 +630,11 @@ public class PowerAuthServiceImpl implements PowerAuthService {
             Long applicationId = request.getApplicationId();
             Date startingDate = XMLGregorianCalendarConverter.convertTo(request.getTimestampFrom());
             Date endingDate = XMLGregorianCalendarConverter.convertTo(request.getTimestampTo());
+            Integer pageNumber = request.getPageNumber();
+            Integer pageSize = request.getPageSize();
 
             logger.info("SignatureAuditRequest received, userId: {}, applicationId: {}", userId, String.valueOf(applicationId));
-            SignatureAuditResponse response = behavior.getAuditingServiceBehavior().getSignatureAuditLog(userId, applicationId, startingDate, endingDate);
+            SignatureAuditResponse response = behavior.getAuditingServiceBehavior().getSignatureAuditLog(userId, applicationId, startingDate, endingDate, pageNumber, pageSize);
             logger.info("SignatureAuditRequest succeeded");
             return response;
 
@@ -526,13 +646,34 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
+    public GetSignatureStatisticsResponse getSignatureStatistics(GetSignatureStatisticsRequest request) throws Exception {
+        try {
+            Long applicationId = request.getApplicationId();
+            Date startingDate = XMLGregorianCalendarConverter.convertTo(request.getTimestampFrom());
+            Date endingDate = XMLGregorianCalendarConverter.convertTo(request.getTimestampTo());
+            logger.info("GetSignatureStatisticsRequest received, applicationId: {}", String.valueOf(applicationId));
+            GetSignatureStatisticsResponse response = behavior.getSignatureStatisticsServiceBehavior().getSignatureStatistics(applicationId, startingDate, endingDate);
+            logger.info("GetSignatureStatisticsRequest succeeded");
+            return response;
+        } catch (Exception ex) {
+            logger.error("Unknown error occurred", ex);
+            throw new GenericServiceException(ServiceError.UNKNOWN_ERROR, ex.getMessage(), ex.getLocalizedMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadReplica
+    @Sharded(ShardKey.ACTIVATION_ID)
     public ActivationHistoryResponse getActivationHistory(ActivationHistoryRequest request) throws Exception {
         try {
             String activationId = request.getActivationId();
             Date startingDate = XMLGregorianCalendarConverter.convertTo(request.getTimestampFrom());
             Date endingDate = XMLGregorianCalendarConverter.convertTo(request.getTimestampTo());
+            Integer pageNumber = request.getPageNumber();
+            Integer pageSize = request.getPageSize();
             logger.info("ActivationHistoryRequest received, activationId: {}", activationId);
-            ActivationHistoryResponse response = behavior.getActivationHistoryServiceBehavior().getActivationHistory(activationId, startingDate, endingDate);
+            ActivationHistoryResponse response = behavior.getActivationHistoryServiceBehavior().getActivationHistory(activationId, startingDate, endingDate, pageNumber, pageSize);
             logger.info("ActivationHistoryRequest succeeded");
             return response;
         } catch (Exception ex) {
@@ -542,7 +683,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @ReadReplica
     public GetApplicationListResponse getApplicationList(GetApplicationListRequest request) {
         logger.info("GetApplicationListRequest received");
         GetApplicationListResponse response = behavior.getApplicationServiceBehavior().getApplicationList();
@@ -551,7 +693,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @ReadReplica
     public GetApplicationDetailResponse getApplicationDetail(GetApplicationDetailRequest request) throws Exception {
         logger.info("GetApplicationDetailRequest received, applicationId: {}", String.valueOf(request.getApplicationId()));
         GetApplicationDetailResponse response = behavior.getApplicationServiceBehavior().getApplicationDetail(request.getApplicationId());
@@ -560,7 +703,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @ReadReplica
     public LookupApplicationByAppKeyResponse lookupApplicationByAppKey(LookupApplicationByAppKeyRequest request) throws Exception {
         try {
             logger.info("LookupApplicationByAppKeyRequest received");
@@ -574,6 +718,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public CreateApplicationResponse createApplication(CreateApplicationRequest request) {
         logger.info("CreateApplicationRequest received, applicationName: {}", request.getApplicationName());
         CreateApplicationResponse response = behavior.getApplicationServiceBehavior().createApplication(request.getApplicationName(), keyConversionUtilities);
@@ -583,6 +728,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public CreateApplicationVersionResponse createApplicationVersion(CreateApplicationVersionRequest request) throws Exception {
         logger.info("CreateApplicationVersionRequest received, applicationId: {}, applicationVersionName: {}", String.valueOf(request.getApplicationId()), request.getApplicationVersionName());
         CreateApplicationVersionResponse response = behavior.getApplicationServiceBehavior().createApplicationVersion(request.getApplicationId(), request.getApplicationVersionName());
@@ -592,6 +738,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public UnsupportApplicationVersionResponse unsupportApplicationVersion(UnsupportApplicationVersionRequest request) throws Exception {
         logger.info("UnsupportApplicationVersionRequest received, applicationVersionId: {}", request.getApplicationVersionId());
         UnsupportApplicationVersionResponse response = behavior.getApplicationServiceBehavior().unsupportApplicationVersion(request.getApplicationVersionId());
@@ -601,6 +748,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public SupportApplicationVersionResponse supportApplicationVersion(SupportApplicationVersionRequest request) throws Exception {
         logger.info("SupportApplicationVersionRequest received, applicationVersionId: {}", request.getApplicationVersionId());
         SupportApplicationVersionResponse response = behavior.getApplicationServiceBehavior().supportApplicationVersion(request.getApplicationVersionId());
@@ -610,6 +758,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public CreateIntegrationResponse createIntegration(CreateIntegrationRequest request) {
         logger.info("CreateIntegrationRequest received, name: {}", request.getName());
         CreateIntegrationResponse response = behavior.getIntegrationBehavior().createIntegration(request);
@@ -618,7 +767,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @ReadReplica
     public GetIntegrationListResponse getIntegrationList() {
         logger.info("GetIntegrationListRequest received");
         GetIntegrationListResponse response = behavior.getIntegrationBehavior().getIntegrationList();
@@ -628,6 +778,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public RemoveIntegrationResponse removeIntegration(RemoveIntegrationRequest request) {
         logger.info("RemoveIntegrationRequest received, id: {}", request.getId());
         RemoveIntegrationResponse response = behavior.getIntegrationBehavior().removeIntegration(request);
@@ -637,6 +788,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public CreateCallbackUrlResponse createCallbackUrl(CreateCallbackUrlRequest request) throws Exception {
         logger.info("CreateCallbackUrlRequest received, name: {}", request.getName());
         CreateCallbackUrlResponse response = behavior.getCallbackUrlBehavior().createCallbackUrl(request);
@@ -645,7 +797,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @ReadReplica
     public GetCallbackUrlListResponse getCallbackUrlList(GetCallbackUrlListRequest request) {
         logger.info("GetCallbackUrlListRequest received, applicationId: {}", String.valueOf(request.getApplicationId()));
         GetCallbackUrlListResponse response = behavior.getCallbackUrlBehavior().getCallbackUrlList(request);
@@ -655,6 +808,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.REFERENCE_DATA)
     public RemoveCallbackUrlResponse removeCallbackUrl(RemoveCallbackUrlRequest request) {
         logger.info("RemoveCallbackUrlRequest received, id: {}", request.getId());
         RemoveCallbackUrlResponse response = behavior.getCallbackUrlBehavior().removeIntegration(request);
@@ -664,6 +818,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.TOKEN)
+    @Sharded(ShardKey.ACTIVATION_ID)
     public CreateTokenResponse createToken(CreateTokenRequest request) throws Exception {
         logger.info("CreateTokenRequest received, activationId: {}", request.getActivationId());
         CreateTokenResponse response = behavior.getTokenBehavior().createToken(request, keyConversionUtilities);
@@ -673,6 +829,8 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Bulkhead(BulkheadType.TOKEN)
+    @Sharded(ShardKey.TOKEN_ID)
     public ValidateTokenResponse validateToken(ValidateTokenRequest request) throws Exception {
         logger.info("ValidateTokenRequest received, tokenId: {}", request.getTokenId());
         ValidateTokenResponse response = behavior.getTokenBehavior().validateToken(request);
@@ -682,6 +840,7 @@ public class PowerAuthServiceImpl implements PowerAuthService {
 
     @Override
     @Transactional
+    @Sharded(ShardKey.TOKEN_ID)
     public RemoveTokenResponse removeToken(RemoveTokenRequest request) {
         logger.info("RemoveTokenRequest received, tokenId: {}", request.getTokenId());
         RemoveTokenResponse response = behavior.getTokenBehavior().removeToken(request);
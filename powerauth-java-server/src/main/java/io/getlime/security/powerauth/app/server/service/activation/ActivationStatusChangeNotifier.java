@@ -0,0 +1,214 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.activation;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
+import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class notifying requests waiting for activation status change. Waiting requests are represented by futures,
+ * so that no thread is blocked while waiting. Status changes are published after the transaction which
+ * changed the status commits.
+ *
+ * <p>Only status changes made by this server instance are published. Waiting requests which time out
+ * should check the current activation status, since the status could be changed by another server instance.
+ * Such work must not run on the scheduler thread or on the thread committing the status change, waiting requests
+ * should be completed using the {@link #getCompletionExecutor()} instead.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class ActivationStatusChangeNotifier {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(ActivationStatusChangeNotifier.class);
+
+    private final PowerAuthServiceConfiguration configuration;
+    private final LocalizationProvider localizationProvider;
+
+    // Futures of waiting requests by activation ID
+    private final ConcurrentMap<String, Set<CompletableFuture<ActivationStatus>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    // Scheduler of waiting timeouts
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    // Executor completing waiting requests, the queue is bounded by the maximum number of waiting requests
+    private final ThreadPoolExecutor completionExecutor;
+
+    @Autowired
+    public ActivationStatusChangeNotifier(PowerAuthServiceConfiguration configuration, LocalizationProvider localizationProvider) {
+        this.configuration = configuration;
+        this.localizationProvider = localizationProvider;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "activation-status-wait");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final int threads = configuration.getActivationStatusWaitThreads();
+        this.completionExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(configuration.getActivationStatusWaitMaxWaiters()), runnable -> {
+            Thread thread = new Thread(runnable, "activation-status-wait-completion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completionExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get executor for completing waiting requests, e.g. for reading the current activation status once
+     * the waiting times out.
+     *
+     * @return Executor for completing waiting requests.
+     */
+    public Executor getCompletionExecutor() {
+        return completionExecutor;
+    }
+
+    /**
+     * Stop the scheduler, complete all waiting requests and stop the completion executor.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (Set<CompletableFuture<ActivationStatus>> futures : waiters.values()) {
+            for (CompletableFuture<ActivationStatus> future : futures) {
+                future.complete(null);
+            }
+        }
+        completionExecutor.shutdown();
+    }
+
+    /**
+     * Wait for status change of activation with given ID.
+     *
+     * @param activationId Activation ID.
+     * @param timeout Timeout in milliseconds.
+     * @return Future completed with the new activation status once the status changes, or with null value
+     * once the timeout expires.
+     * @throws GenericServiceException In case too many requests are already waiting.
+     */
+    public CompletableFuture<ActivationStatus> waitForStatusChange(String activationId, long timeout) throws GenericServiceException {
+        if (waiterCount.incrementAndGet() > configuration.getActivationStatusWaitMaxWaiters()) {
+            waiterCount.decrementAndGet();
+            logger.warn("Waiting for status change of activation {} was rejected, too many waiting requests", activationId);
+            throw localizationProvider.buildExceptionForCode(ServiceError.SERVICE_OVERLOADED);
+        }
+        final CompletableFuture<ActivationStatus> future = new CompletableFuture<>();
+        waiters.compute(activationId, (id, futures) -> {
+            if (futures == null) {
+                futures = ConcurrentHashMap.newKeySet();
+            }
+            futures.add(future);
+            return futures;
+        });
+        final ScheduledFuture<?> timeoutTask = scheduler.schedule(() -> future.complete(null), timeout, TimeUnit.MILLISECONDS);
+        future.whenComplete((status, ex) -> {
+            timeoutTask.cancel(false);
+            waiterCount.decrementAndGet();
+            waiters.computeIfPresent(activationId, (id, futures) -> {
+                futures.remove(future);
+                return futures.isEmpty() ? null : futures;
+            });
+        });
+        return future;
+    }
+
+    /**
+     * Notify requests waiting for status change of activation with given ID. In case a transaction is active,
+     * the requests are notified after the transaction commits, with the last status set in the transaction.
+     *
+     * @param activationId Activation ID.
+     * @param activationStatus New activation status.
+     */
+    public void notifyStatusChange(String activationId, ActivationStatus activationStatus) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getPendingStatusChanges().put(activationId, activationStatus);
+        } else {
+            publishStatusChange(activationId, activationStatus);
+        }
+    }
+
+    private void publishStatusChange(String activationId, ActivationStatus activationStatus) {
+        final Set<CompletableFuture<ActivationStatus>> futures = waiters.remove(activationId);
+        if (futures != null) {
+            for (CompletableFuture<ActivationStatus> future : futures) {
+                future.complete(activationStatus);
+            }
+        }
+    }
+
+    /**
+     * Get the status changes bound to current transaction, register new ones in case they do not exist yet.
+     *
+     * @return Status changes bound to current transaction.
+     */
+    private PendingStatusChanges getPendingStatusChanges() {
+        PendingStatusChanges pendingStatusChanges = (PendingStatusChanges) TransactionSynchronizationManager.getResource(this);
+        if (pendingStatusChanges == null) {
+            pendingStatusChanges = new PendingStatusChanges();
+            TransactionSynchronizationManager.bindResource(this, pendingStatusChanges);
+            TransactionSynchronizationManager.registerSynchronization(pendingStatusChanges);
+        }
+        return pendingStatusChanges;
+    }
+
+    /**
+     * Activation status changes made within a single transaction, published after the transaction commits.
+     */
+    private class PendingStatusChanges extends TransactionSynchronizationAdapter {
+
+        private final Map<String, ActivationStatus> statusChanges = new LinkedHashMap<>();
+
+        void put(String activationId, ActivationStatus activationStatus) {
+            statusChanges.put(activationId, activationStatus);
+        }
+
+        @Override
+        public void afterCommit() {
+            for (Map.Entry<String, ActivationStatus> statusChange : statusChanges.entrySet()) {
+                publishStatusChange(statusChange.getKey(), statusChange.getValue());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ActivationStatusChangeNotifier.this);
+        }
+
+    }
+
+}
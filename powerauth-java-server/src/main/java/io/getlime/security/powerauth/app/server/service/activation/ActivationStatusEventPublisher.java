@@ -0,0 +1,391 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.activation;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.converter.ActivationStatusConverter;
+import io.getlime.security.powerauth.app.server.database.model.projection.ActivationStatusChangeItem;
+import io.getlime.security.powerauth.app.server.database.repository.ActivationHistoryRepository;
+import io.getlime.security.powerauth.app.server.database.repository.ApplicationRepository;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
+import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
+import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
+import io.getlime.security.powerauth.app.server.service.model.ActivationStatusChangeEvent;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class publishing activation status change events to subscribers of event streams. Each subscriber receives
+ * status changes of activations of a single application. Event ID sent in the stream is the creation timestamp
+ * of related activation history record, a subscriber which reconnects with the last received event ID gets
+ * the missed events replayed from the activation history of all shards first.
+ *
+ * <p>Activation history identifiers are not assigned in commit order and each shard has its own identifiers,
+ * so the replay starts earlier than the last received event by a configured overlap, which should be longer
+ * than the longest transaction changing the activation status. Events can be therefore delivered more than
+ * once and subscribers are expected to de-duplicate them using the activation ID and the event ID
+ * in the event data.</p>
+ *
+ * <p>Each subscription has its own bounded queue of events, which is drained by a pool of threads, so that
+ * a slow subscriber does not delay the others. Events published during the replay wait in the queue until
+ * the replay finishes. Event streams of subscribers whose queue overflows are closed and the subscribers
+ * receive the missed events after they reconnect. Only status changes made by this server instance are
+ * published live, status changes made by other server instances are received after the subscriber reconnects.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class ActivationStatusEventPublisher {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(ActivationStatusEventPublisher.class);
+
+    private static final String EVENT_NAME = "activationStatusChange";
+
+    private final PowerAuthServiceConfiguration configuration;
+    private final ApplicationRepository applicationRepository;
+    private final ActivationHistoryRepository activationHistoryRepository;
+    private final ShardRouter shardRouter;
+    private final LocalizationProvider localizationProvider;
+
+    // Prepare converters
+    private final ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+
+    // Subscriptions by application ID
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    private final ExecutorService executorService;
+
+    @Autowired
+    public ActivationStatusEventPublisher(PowerAuthServiceConfiguration configuration, ApplicationRepository applicationRepository,
+                                          ActivationHistoryRepository activationHistoryRepository, ShardRouter shardRouter,
+                                          LocalizationProvider localizationProvider) {
+        this.configuration = configuration;
+        this.applicationRepository = applicationRepository;
+        this.activationHistoryRepository = activationHistoryRepository;
+        this.shardRouter = shardRouter;
+        this.localizationProvider = localizationProvider;
+        // Each subscription has at most one task queued, so the task queue is bounded by the number of subscribers
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(configuration.getActivationEventsThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "activation-status-events-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop sending events and close all event streams.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+        for (Set<Subscription> applicationSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : applicationSubscriptions) {
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Check whether there are any subscribers of activation status change events.
+     *
+     * @return True in case there is at least one subscriber.
+     */
+    public boolean hasSubscribers() {
+        return subscriptionCount.get() > 0;
+    }
+
+    /**
+     * Subscribe to activation status change events of given application.
+     *
+     * @param applicationId Application ID.
+     * @param lastEventId ID of the last event received by the subscriber, or null for new subscribers.
+     * @return Emitter of the event stream.
+     * @throws GenericServiceException In case the application does not exist or too many subscribers are connected.
+     */
+    public SseEmitter subscribe(Long applicationId, Long lastEventId) throws GenericServiceException {
+        if (applicationId == null || !applicationRepository.findById(applicationId).isPresent()) {
+            throw localizationProvider.buildExceptionForCode(ServiceError.INVALID_APPLICATION);
+        }
+        if (subscriptionCount.incrementAndGet() > configuration.getActivationEventsMaxSubscribers()) {
+            subscriptionCount.decrementAndGet();
+            logger.warn("Subscription to activation status events of application {} was rejected, too many subscribers", applicationId);
+            throw localizationProvider.buildExceptionForCode(ServiceError.SERVICE_OVERLOADED);
+        }
+        final Subscription subscription = new Subscription(applicationId, new SseEmitter(configuration.getActivationEventsTimeout()));
+        subscription.emitter.onCompletion(() -> unsubscribe(subscription));
+        subscription.emitter.onTimeout(() -> unsubscribe(subscription));
+        subscription.emitter.onError(ex -> unsubscribe(subscription));
+        subscriptions.compute(applicationId, (id, applicationSubscriptions) -> {
+            if (applicationSubscriptions == null) {
+                applicationSubscriptions = ConcurrentHashMap.newKeySet();
+            }
+            applicationSubscriptions.add(subscription);
+            return applicationSubscriptions;
+        });
+        if (lastEventId != null) {
+            // Published events are queued until the replay finishes
+            subscription.draining.set(true);
+            try {
+                executorService.execute(() -> {
+                    if (replay(subscription, lastEventId)) {
+                        drain(subscription);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                logger.warn("Activation status events were not replayed, the publisher is stopped");
+                subscription.emitter.complete();
+            }
+        }
+        logger.info("Subscriber of activation status events of application {} connected, last event ID: {}", applicationId, lastEventId);
+        return subscription.emitter;
+    }
+
+    /**
+     * Publish activation status change events. The method should be called after the status changes are committed.
+     *
+     * @param events Activation status change events.
+     */
+    public void publish(List<ActivationStatusChangeEvent> events) {
+        if (events.isEmpty() || !hasSubscribers()) {
+            return;
+        }
+        for (ActivationStatusChangeEvent event : events) {
+            final Set<Subscription> applicationSubscriptions = subscriptions.get(event.getApplicationId());
+            if (applicationSubscriptions != null) {
+                for (Subscription subscription : applicationSubscriptions) {
+                    enqueue(subscription, event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add an event to the queue of the subscriber and schedule sending of queued events. In case the queue
+     * is full, the event stream is closed.
+     *
+     * @param subscription Subscription.
+     * @param event Activation status change event.
+     */
+    private void enqueue(Subscription subscription, ActivationStatusChangeEvent event) {
+        if (subscription.queueSize.incrementAndGet() > configuration.getActivationEventsQueueCapacity()) {
+            subscription.queueSize.decrementAndGet();
+            logger.warn("Subscriber of activation status events of application {} does not keep up, closing event stream", subscription.applicationId);
+            unsubscribe(subscription);
+            subscription.emitter.complete();
+            return;
+        }
+        subscription.events.add(event);
+        if (subscription.draining.compareAndSet(false, true)) {
+            try {
+                executorService.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException ex) {
+                subscription.draining.set(false);
+                logger.warn("Activation status events were not published, the publisher is stopped");
+            }
+        }
+    }
+
+    /**
+     * Send queued events to the subscriber. Only a single thread drains the queue of a subscription at a time.
+     *
+     * @param subscription Subscription.
+     */
+    private void drain(Subscription subscription) {
+        do {
+            ActivationStatusChangeEvent event;
+            while ((event = subscription.events.poll()) != null) {
+                subscription.queueSize.decrementAndGet();
+                if (!send(subscription, event)) {
+                    // Subscriber disconnected, keep the draining flag set so that no more events are sent
+                    subscription.events.clear();
+                    return;
+                }
+            }
+            subscription.draining.set(false);
+            // Events queued after the queue was found empty would not be sent by anyone else
+        } while (!subscription.events.isEmpty() && subscription.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Replay events missed by the subscriber from the activation history. Events of all shards are merged
+     * by their creation timestamp.
+     *
+     * @param subscription Subscription.
+     * @param lastEventId ID of the last event received by the subscriber.
+     * @return Whether all missed events were sent.
+     */
+    private boolean replay(Subscription subscription, long lastEventId) {
+        final Date timestampFrom = new Date(lastEventId - configuration.getActivationEventsReplayOverlap());
+        final List<ReplayCursor> cursors = new ArrayList<>(shardRouter.getShardCount());
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            cursors.add(new ReplayCursor(shard, subscription.applicationId, timestampFrom));
+        }
+        try {
+            while (true) {
+                ReplayCursor nextCursor = null;
+                for (ReplayCursor cursor : cursors) {
+                    final ActivationStatusChangeItem item = cursor.peek();
+                    if (item != null && (nextCursor == null || item.getTimestampCreated().getTime() < nextCursor.peek().getTimestampCreated().getTime())) {
+                        nextCursor = cursor;
+                    }
+                }
+                if (nextCursor == null) {
+                    break;
+                }
+                final ActivationStatusChangeItem item = nextCursor.poll();
+                ActivationStatusChangeEvent event = new ActivationStatusChangeEvent();
+                event.setId(item.getId());
+                event.setActivationId(item.getActivationId());
+                event.setApplicationId(subscription.applicationId);
+                event.setActivationStatus(activationStatusConverter.convert(item.getActivationStatus()));
+                event.setTimestampCreated(item.getTimestampCreated());
+                if (!send(subscription, event)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            logger.error("Activation status events could not be replayed", ex);
+            subscription.emitter.completeWithError(ex);
+            return false;
+        }
+    }
+
+    /**
+     * Send an event to the subscriber.
+     *
+     * @param subscription Subscription.
+     * @param event Activation status change event.
+     * @return Whether the event was sent.
+     */
+    private boolean send(Subscription subscription, ActivationStatusChangeEvent event) {
+        try {
+            subscription.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getTimestampCreated().getTime()))
+                    .name(EVENT_NAME)
+                    .data(event, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            logger.debug("Activation status event could not be sent, subscriber disconnected", ex);
+            unsubscribe(subscription);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        final boolean[] removed = new boolean[1];
+        subscriptions.computeIfPresent(subscription.applicationId, (id, applicationSubscriptions) -> {
+            removed[0] = applicationSubscriptions.remove(subscription);
+            return applicationSubscriptions.isEmpty() ? null : applicationSubscriptions;
+        });
+        if (removed[0]) {
+            subscriptionCount.decrementAndGet();
+            logger.info("Subscriber of activation status events of application {} disconnected", subscription.applicationId);
+        }
+    }
+
+    /**
+     * Subscription to activation status change events of a single application.
+     */
+    private static class Subscription {
+
+        private final Long applicationId;
+        private final SseEmitter emitter;
+        private final Queue<ActivationStatusChangeEvent> events = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queueSize = new AtomicInteger();
+
+        // Whether a task sending queued events, or replaying missed events, is scheduled or running
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(Long applicationId, SseEmitter emitter) {
+            this.applicationId = applicationId;
+            this.emitter = emitter;
+        }
+
+    }
+
+    /**
+     * Cursor over activation status changes of a single application stored in a single shard, ordered
+     * by creation timestamp. Status changes are loaded in batches when needed.
+     */
+    private class ReplayCursor {
+
+        private final int shard;
+        private final Long applicationId;
+        private final Deque<ActivationStatusChangeItem> items = new ArrayDeque<>();
+
+        // Position of the last loaded status change
+        private Date lastTimestamp;
+        private long lastId = -1;
+        private boolean exhausted;
+
+        ReplayCursor(int shard, Long applicationId, Date timestampFrom) {
+            this.shard = shard;
+            this.applicationId = applicationId;
+            this.lastTimestamp = timestampFrom;
+        }
+
+        /**
+         * Get the next status change without removing it, load the next batch when needed.
+         *
+         * @return Next status change, or null when there are no more status changes.
+         */
+        ActivationStatusChangeItem peek() {
+            if (items.isEmpty() && !exhausted) {
+                final int batchSize = configuration.getActivationEventsReplayBatchSize();
+                final List<ActivationStatusChangeItem> batch = shardRouter.executeOnShard(shard, () ->
+                        activationHistoryRepository.findActivationStatusChanges(applicationId, lastTimestamp, lastId, PageRequest.of(0, batchSize)));
+                items.addAll(batch);
+                exhausted = batch.size() < batchSize;
+                if (!batch.isEmpty()) {
+                    final ActivationStatusChangeItem lastItem = batch.get(batch.size() - 1);
+                    lastTimestamp = lastItem.getTimestampCreated();
+                    lastId = lastItem.getId();
+                }
+            }
+            return items.peekFirst();
+        }
+
+        /**
+         * Remove the next status change.
+         *
+         * @return Next status change.
+         */
+        ActivationStatusChangeItem poll() {
+            return items.pollFirst();
+        }
+
+    }
+
+}
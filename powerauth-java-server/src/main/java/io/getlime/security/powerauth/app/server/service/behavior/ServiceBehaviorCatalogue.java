@@ -38,6 +38,8 @@ public class ServiceBehaviorCatalogue {
 
     private AuditingServiceBehavior auditingServiceBehavior;
 
+    private SignatureStatisticsServiceBehavior signatureStatisticsServiceBehavior;
+
     private SignatureServiceBehavior signatureServiceBehavior;
 
     private VaultUnlockServiceBehavior vaultUnlockServiceBehavior;
@@ -76,6 +78,11 @@ public class ServiceBehaviorCatalogue {
         this.auditingServiceBehavior = auditingServiceBehavior;
     }
 
+    @Autowired
+    public void setSignatureStatisticsServiceBehavior(SignatureStatisticsServiceBehavior signatureStatisticsServiceBehavior) {
+        this.signatureStatisticsServiceBehavior = signatureStatisticsServiceBehavior;
+    }
+
     @Autowired
     public void setSignatureServiceBehavior(SignatureServiceBehavior signatureServiceBehavior) {
         this.signatureServiceBehavior = signatureServiceBehavior;
@@ -122,6 +129,10 @@ public class ServiceBehaviorCatalogue {
         return auditingServiceBehavior;
     }
 
+    public SignatureStatisticsServiceBehavior getSignatureStatisticsServiceBehavior() {
+        return signatureStatisticsServiceBehavior;
+    }
+
     public SignatureServiceBehavior getSignatureServiceBehavior() {
         return signatureServiceBehavior;
     }
@@ -19,36 +19,61 @@
 package io.getlime.security.powerauth.app.server.service.behavior.tasks;
 
 import io.getlime.security.powerauth.ActivationHistoryResponse;
+import io.getlime.security.powerauth.app.server.converter.ActivationHistoryItemConverter;
 import io.getlime.security.powerauth.app.server.converter.ActivationStatusConverter;
-import io.getlime.security.powerauth.app.server.converter.SignatureTypeConverter;
-import io.getlime.security.powerauth.app.server.converter.XMLGregorianCalendarConverter;
 import io.getlime.security.powerauth.app.server.database.model.entity.ActivationHistoryEntity;
 import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.projection.ActivationHistoryItem;
 import io.getlime.security.powerauth.app.server.database.repository.ActivationHistoryRepository;
+import io.getlime.security.powerauth.app.server.database.writer.AuditRecordWriter;
+import io.getlime.security.powerauth.app.server.service.activation.ActivationStatusChangeNotifier;
+import io.getlime.security.powerauth.app.server.service.activation.ActivationStatusEventPublisher;
+import io.getlime.security.powerauth.app.server.service.model.ActivationStatusChangeEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.xml.datatype.DatatypeConfigurationException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 /**
  * Behavior class used for storing and retrieving activation history which includes activation status change log.
  *
+ * <p>Activation status changes are not inserted one by one. When a transaction is active, history records are
+ * collected for the whole transaction and stored together right before the transaction commits as a single
+ * JDBC batch. History records are inserted by {@link AuditRecordWriter}, they are not managed by the persistence
+ * context.</p>
+ *
+ * <p>Requests waiting for activation status change are notified about each logged status change. Subscribers
+ * of activation status event streams receive the stored history records once the transaction commits.</p>
+ *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 @Component
 public class ActivationHistoryServiceBehavior {
 
     private final ActivationHistoryRepository activationHistoryRepository;
+    private final AuditRecordWriter auditRecordWriter;
+    private final ActivationStatusChangeNotifier activationStatusChangeNotifier;
+    private final ActivationStatusEventPublisher activationStatusEventPublisher;
 
     // Prepare converters
     private ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
-    private SignatureTypeConverter signatureTypeConverter = new SignatureTypeConverter();
+    private ActivationHistoryItemConverter activationHistoryItemConverter = new ActivationHistoryItemConverter();
 
     @Autowired
-    public ActivationHistoryServiceBehavior(ActivationHistoryRepository activationHistoryRepository) {
+    public ActivationHistoryServiceBehavior(ActivationHistoryRepository activationHistoryRepository, AuditRecordWriter auditRecordWriter,
+                                            ActivationStatusChangeNotifier activationStatusChangeNotifier, ActivationStatusEventPublisher activationStatusEventPublisher) {
         this.activationHistoryRepository = activationHistoryRepository;
+        this.auditRecordWriter = auditRecordWriter;
+        this.activationStatusChangeNotifier = activationStatusChangeNotifier;
+        this.activationStatusEventPublisher = activationStatusEventPublisher;
     }
 
     /**
@@ -61,7 +86,50 @@ public class ActivationHistoryServiceBehavior {
         activationHistoryEntity.setActivation(activation);
         activationHistoryEntity.setActivationStatus(activation.getActivationStatus());
         activationHistoryEntity.setTimestampCreated(new Date());
-        activationHistoryRepository.save(activationHistoryEntity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getPendingHistory().add(activationHistoryEntity);
+        } else {
+            auditRecordWriter.insertActivationHistoryRecords(Collections.singletonList(activationHistoryEntity));
+            publishStatusChanges(Collections.singletonList(activationHistoryEntity));
+        }
+        activationStatusChangeNotifier.notifyStatusChange(activation.getActivationId(), activation.getActivationStatus());
+    }
+
+    /**
+     * Publish stored activation status changes to subscribers of activation status event streams.
+     *
+     * @param activationHistoryEntities Stored activation history records.
+     */
+    private void publishStatusChanges(List<ActivationHistoryEntity> activationHistoryEntities) {
+        if (!activationStatusEventPublisher.hasSubscribers()) {
+            return;
+        }
+        final List<ActivationStatusChangeEvent> events = new ArrayList<>();
+        for (ActivationHistoryEntity activationHistoryEntity : activationHistoryEntities) {
+            ActivationStatusChangeEvent event = new ActivationStatusChangeEvent();
+            event.setId(activationHistoryEntity.getId());
+            event.setActivationId(activationHistoryEntity.getActivation().getActivationId());
+            event.setApplicationId(activationHistoryEntity.getActivation().getApplication().getId());
+            event.setActivationStatus(activationStatusConverter.convert(activationHistoryEntity.getActivationStatus()));
+            event.setTimestampCreated(activationHistoryEntity.getTimestampCreated());
+            events.add(event);
+        }
+        activationStatusEventPublisher.publish(events);
+    }
+
+    /**
+     * Get the history writer bound to current transaction, register a new one in case it does not exist yet.
+     *
+     * @return History writer bound to current transaction.
+     */
+    private PendingActivationHistory getPendingHistory() {
+        PendingActivationHistory pendingHistory = (PendingActivationHistory) TransactionSynchronizationManager.getResource(this);
+        if (pendingHistory == null) {
+            pendingHistory = new PendingActivationHistory();
+            TransactionSynchronizationManager.bindResource(this, pendingHistory);
+            TransactionSynchronizationManager.registerSynchronization(pendingHistory);
+        }
+        return pendingHistory;
     }
 
     /**
@@ -73,25 +141,70 @@ public class ActivationHistoryServiceBehavior {
      * @throws DatatypeConfigurationException In case date cannot be converted.
      */
     public ActivationHistoryResponse getActivationHistory(String activationId, Date startingDate, Date endingDate) throws DatatypeConfigurationException {
+        return getActivationHistory(activationId, startingDate, endingDate, null, null);
+    }
+
+    /**
+     * List status changes for given activation, one page at a time.
+     * @param activationId Activation ID.
+     * @param startingDate Since when should the changes be displayed.
+     * @param endingDate Until when should the changes be displayed.
+     * @param pageNumber Page number, starting with 0. Null value means the first page.
+     * @param pageSize Page size. Null value means that all changes are returned.
+     * @return Response with activation changes.
+     * @throws DatatypeConfigurationException In case date cannot be converted.
+     */
+    public ActivationHistoryResponse getActivationHistory(String activationId, Date startingDate, Date endingDate, Integer pageNumber, Integer pageSize) throws DatatypeConfigurationException {
+
+        final Pageable pageable;
+        if (pageSize != null && pageSize > 0) {
+            pageable = PageRequest.of(pageNumber != null && pageNumber > 0 ? pageNumber : 0, pageSize);
+        } else {
+            pageable = Pageable.unpaged();
+        }
 
-        List<ActivationHistoryEntity> activationHistoryEntityList = activationHistoryRepository.findActivationHistory(activationId, startingDate, endingDate);
+        List<ActivationHistoryItem> activationHistoryItemList = activationHistoryRepository.findActivationHistoryItems(activationId, startingDate, endingDate, pageable);
 
         ActivationHistoryResponse response = new ActivationHistoryResponse();
-        if (activationHistoryEntityList != null) {
-            for (ActivationHistoryEntity activationHistoryEntity : activationHistoryEntityList) {
+        if (activationHistoryItemList != null) {
+            for (ActivationHistoryItem activationHistoryItem : activationHistoryItemList) {
+                response.getItems().add(activationHistoryItemConverter.convert(activationId, activationHistoryItem));
+            }
+        }
 
-                ActivationHistoryResponse.Items item = new ActivationHistoryResponse.Items();
+        return response;
+    }
 
-                item.setId(activationHistoryEntity.getId());
-                item.setActivationId(activationHistoryEntity.getActivation().getActivationId());
-                item.setActivationStatus(activationStatusConverter.convert(activationHistoryEntity.getActivationStatus()));
-                item.setTimestampCreated(XMLGregorianCalendarConverter.convertFrom(activationHistoryEntity.getTimestampCreated()));
+    /**
+     * Activation history records created within a single transaction, stored in one batch before commit.
+     */
+    private class PendingActivationHistory extends TransactionSynchronizationAdapter {
+
+        private final List<ActivationHistoryEntity> entities = new ArrayList<>();
 
-                response.getItems().add(item);
+        void add(ActivationHistoryEntity activationHistoryEntity) {
+            entities.add(activationHistoryEntity);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!entities.isEmpty()) {
+                auditRecordWriter.insertActivationHistoryRecords(entities);
             }
         }
 
-        return response;
+        @Override
+        public void afterCommit() {
+            if (!entities.isEmpty()) {
+                publishStatusChanges(entities);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ActivationHistoryServiceBehavior.this);
+        }
+
     }
 
 }
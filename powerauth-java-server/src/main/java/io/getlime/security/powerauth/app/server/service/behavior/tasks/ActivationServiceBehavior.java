@@ -21,8 +21,8 @@ package io.getlime.security.powerauth.app.server.service.behavior.tasks;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.BaseEncoding;
 import io.getlime.security.powerauth.*;
-import io.getlime.security.powerauth.GetActivationListForUserResponse.Activations;
 import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.converter.ActivationListItemConverter;
 import io.getlime.security.powerauth.app.server.converter.ActivationStatusConverter;
 import io.getlime.security.powerauth.app.server.converter.ServerPrivateKeyConverter;
 import io.getlime.security.powerauth.app.server.converter.XMLGregorianCalendarConverter;
@@ -38,9 +38,12 @@ import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyP
 import io.getlime.security.powerauth.app.server.database.repository.ActivationRepository;
 import io.getlime.security.powerauth.app.server.database.repository.ApplicationVersionRepository;
 import io.getlime.security.powerauth.app.server.database.repository.MasterKeyPairRepository;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
 import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
 import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
 import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import io.getlime.security.powerauth.app.server.service.sharding.ShardKey;
+import io.getlime.security.powerauth.app.server.service.sharding.Sharded;
 import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
 import io.getlime.security.powerauth.crypto.server.activation.PowerAuthServerActivation;
 import io.getlime.security.powerauth.crypto.server.keyfactory.PowerAuthServerKeyFactory;
@@ -49,6 +52,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.crypto.SecretKey;
 import javax.xml.datatype.DatatypeConfigurationException;
@@ -59,6 +63,7 @@ import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -85,9 +90,12 @@ public class ActivationServiceBehavior {
 
     // Prepare converters
     private ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
+    private ActivationListItemConverter activationListItemConverter = new ActivationListItemConverter();
 
     private ServerPrivateKeyConverter serverPrivateKeyConverter;
 
+    private ShardRouter shardRouter;
+
     // Prepare logger
     private static final Logger logger = LoggerFactory.getLogger(ActivationServiceBehavior.class);
 
@@ -117,6 +125,11 @@ public class ActivationServiceBehavior {
         this.serverPrivateKeyConverter = serverPrivateKeyConverter;
     }
 
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
     private final PowerAuthServerKeyFactory powerAuthServerKeyFactory = new PowerAuthServerKeyFactory();
     private final PowerAuthServerActivation powerAuthServerActivation = new PowerAuthServerActivation();
 
@@ -132,7 +145,27 @@ public class ActivationServiceBehavior {
             activation.setActivationStatus(io.getlime.security.powerauth.app.server.database.model.ActivationStatus.REMOVED);
             repositoryCatalogue.getActivationRepository().save(activation);
             activationHistoryServiceBehavior.logActivationStatusChange(activation);
-            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
+        }
+    }
+
+    /**
+     * Deactivate the activation in CREATED or OTP_USED if it's activation expiration timestamp
+     * is below the given timestamp, without locking the activation in advance. The status is changed
+     * only in case the activation is still pending in the database.
+     *
+     * @param timestamp  Timestamp to check activations against.
+     * @param activation Activation to check, loaded without lock.
+     */
+    private void deactivateExpiredPendingActivation(Date timestamp, ActivationRecordEntity activation) {
+        if ((activation.getActivationStatus().equals(ActivationStatus.CREATED) || activation.getActivationStatus().equals(ActivationStatus.OTP_USED)) && (timestamp.getTime() > activation.getTimestampActivationExpire().getTime())) {
+            final int updatedCount = repositoryCatalogue.getActivationRepository().updateExpiredActivationStatus(activation.getActivationId(),
+                    ActivationStatus.REMOVED, ImmutableSet.of(ActivationStatus.CREATED, ActivationStatus.OTP_USED), timestamp);
+            if (updatedCount > 0) {
+                activation.setActivationStatus(ActivationStatus.REMOVED);
+                activationHistoryServiceBehavior.logActivationStatusChange(activation);
+                callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
+            }
         }
     }
 
@@ -149,13 +182,14 @@ public class ActivationServiceBehavior {
             activation.setActivationStatus(ActivationStatus.REMOVED);
             repositoryCatalogue.getActivationRepository().save(activation);
             activationHistoryServiceBehavior.logActivationStatusChange(activation);
-            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
             throw localizationProvider.buildExceptionForCode(ServiceError.ACTIVATION_NOT_FOUND);
         }
     }
 
     /**
-     * Get activations for application ID and user ID
+     * Get activations for application ID and user ID. In case activations are sharded, activations
+     * are looked up in all shards.
      *
      * @param applicationId Application ID
      * @param userId        User ID
@@ -167,6 +201,25 @@ public class ActivationServiceBehavior {
         // Generate timestamp in advance
         Date timestamp = new Date();
 
+        GetActivationListForUserResponse response = new GetActivationListForUserResponse();
+        response.setUserId(userId);
+        for (List<GetActivationListForUserResponse.Activations> activations : shardRouter.executeOnAllShards(false, () -> getShardActivationList(applicationId, userId, timestamp))) {
+            response.getActivations().addAll(activations);
+        }
+        return response;
+    }
+
+    /**
+     * Get activations for application ID and user ID from the current shard.
+     *
+     * @param applicationId Application ID
+     * @param userId        User ID
+     * @param timestamp     Timestamp to check pending activations against.
+     * @return List of matching activations
+     * @throws DatatypeConfigurationException If calendar conversion fails.
+     */
+    private List<GetActivationListForUserResponse.Activations> getShardActivationList(Long applicationId, String userId, Date timestamp) throws DatatypeConfigurationException {
+
         // Get the repository
         final ActivationRepository activationRepository = repositoryCatalogue.getActivationRepository();
 
@@ -177,33 +230,22 @@ public class ActivationServiceBehavior {
             activationsList = activationRepository.findByApplicationIdAndUserId(applicationId, userId);
         }
 
-        GetActivationListForUserResponse response = new GetActivationListForUserResponse();
-        response.setUserId(userId);
+        final List<GetActivationListForUserResponse.Activations> activations = new ArrayList<>();
         if (activationsList != null) {
             for (ActivationRecordEntity activation : activationsList) {
 
                 deactivatePendingActivation(timestamp, activation);
 
                 // Map between database object and service objects
-                Activations activationServiceItem = new Activations();
-                activationServiceItem.setActivationId(activation.getActivationId());
-                activationServiceItem.setActivationStatus(activationStatusConverter.convert(activation.getActivationStatus()));
-                activationServiceItem.setBlockedReason(activation.getBlockedReason());
-                activationServiceItem.setActivationName(activation.getActivationName());
-                activationServiceItem.setExtras(activation.getExtras());
-                activationServiceItem.setTimestampCreated(XMLGregorianCalendarConverter.convertFrom(activation.getTimestampCreated()));
-                activationServiceItem.setTimestampLastUsed(XMLGregorianCalendarConverter.convertFrom(activation.getTimestampLastUsed()));
-                activationServiceItem.setUserId(activation.getUserId());
-                activationServiceItem.setApplicationId(activation.getApplication().getId());
-                activationServiceItem.setApplicationName(activation.getApplication().getName());
-                response.getActivations().add(activationServiceItem);
+                activations.add(activationListItemConverter.convert(activation));
             }
         }
-        return response;
+        return activations;
     }
 
     /**
-     * Get activation status for given activation ID
+     * Get activation status for given activation ID. The activation is not locked, since the status is only
+     * read, except for removal of an expired pending activation, which is done by a conditional update.
      *
      * @param activationId           Activation ID
      * @param keyConversionUtilities Key conversion utility class
@@ -213,6 +255,7 @@ public class ActivationServiceBehavior {
      * @throws InvalidKeyException            Thrown when invalid key is provided.
      * @throws GenericServiceException        Thrown when any other error occurs.
      */
+    @Transactional
     public GetActivationStatusResponse getActivationStatus(String activationId, CryptoProviderUtil keyConversionUtilities) throws DatatypeConfigurationException, InvalidKeySpecException, InvalidKeyException, GenericServiceException {
 
         // Generate timestamp in advance
@@ -222,13 +265,13 @@ public class ActivationServiceBehavior {
         final ActivationRepository activationRepository = repositoryCatalogue.getActivationRepository();
         final MasterKeyPairRepository masterKeyPairRepository = repositoryCatalogue.getMasterKeyPairRepository();
 
-        ActivationRecordEntity activation = activationRepository.findActivation(activationId);
+        ActivationRecordEntity activation = activationRepository.findActivationWithoutLock(activationId);
 
         // Check if the activation exists
         if (activation != null) {
 
             // Deactivate old pending activations first
-            deactivatePendingActivation(timestamp, activation);
+            deactivateExpiredPendingActivation(timestamp, activation);
 
             // Handle CREATED activation
             if (activation.getActivationStatus() == io.getlime.security.powerauth.app.server.database.model.ActivationStatus.CREATED) {
@@ -360,6 +403,26 @@ public class ActivationServiceBehavior {
         }
     }
 
+    /**
+     * Get current status of activation with given ID. The activation is not locked and it is not modified,
+     * expired pending activations are reported as REMOVED. Activations that do not exist are reported as REMOVED.
+     *
+     * @param activationId Activation ID
+     * @return Current activation status
+     */
+    @Transactional(readOnly = true)
+    @Sharded(ShardKey.ACTIVATION_ID)
+    public io.getlime.security.powerauth.ActivationStatus getCurrentActivationStatus(String activationId) {
+        final ActivationRecordEntity activation = repositoryCatalogue.getActivationRepository().findActivationWithoutLock(activationId);
+        if (activation == null) {
+            return activationStatusConverter.convert(ActivationStatus.REMOVED);
+        }
+        if ((activation.getActivationStatus().equals(ActivationStatus.CREATED) || activation.getActivationStatus().equals(ActivationStatus.OTP_USED)) && (new Date().getTime() > activation.getTimestampActivationExpire().getTime())) {
+            return activationStatusConverter.convert(ActivationStatus.REMOVED);
+        }
+        return activationStatusConverter.convert(activation.getActivationStatus());
+    }
+
     /**
      * Init activation with given parameters
      *
@@ -416,10 +479,10 @@ public class ActivationServiceBehavior {
             throw ex;
         }
 
-        // Generate new activation data, generate a unique activation ID
+        // Generate new activation data, generate a unique activation ID stored in the current shard
         String activationId = null;
         for (int i = 0; i < powerAuthServiceConfiguration.getActivationGenerateActivationIdIterations(); i++) {
-            String tmpActivationId = powerAuthServerActivation.generateActivationId();
+            String tmpActivationId = shardRouter.generateLocalKey(powerAuthServerActivation::generateActivationId);
             ActivationRecordEntity record = activationRepository.findActivation(tmpActivationId);
             if (record == null) {
                 activationId = tmpActivationId;
@@ -430,11 +493,11 @@ public class ActivationServiceBehavior {
             throw localizationProvider.buildExceptionForCode(ServiceError.UNABLE_TO_GENERATE_ACTIVATION_ID);
         }
 
-        // Generate a unique short activation ID for created and OTP used states
+        // Generate a unique short activation ID for created and OTP used states, stored in the current shard
         String activationIdShort = null;
         Set<io.getlime.security.powerauth.app.server.database.model.ActivationStatus> states = ImmutableSet.of(io.getlime.security.powerauth.app.server.database.model.ActivationStatus.CREATED, io.getlime.security.powerauth.app.server.database.model.ActivationStatus.OTP_USED);
         for (int i = 0; i < powerAuthServiceConfiguration.getActivationGenerateActivationShortIdIterations(); i++) {
-            String tmpActivationIdShort = powerAuthServerActivation.generateActivationIdShort();
+            String tmpActivationIdShort = shardRouter.generateLocalKey(powerAuthServerActivation::generateActivationIdShort);
             ActivationRecordEntity record = activationRepository.findCreatedActivation(applicationId, tmpActivationIdShort, states, timestamp);
             // this activation short ID has a collision, reset it and find
             // another one
@@ -494,7 +557,7 @@ public class ActivationServiceBehavior {
         // A reference to saved ActivationRecordEntity is required when logging activation status change, otherwise issue #57 occurs on Oracle.
         activation = activationRepository.save(activation);
         activationHistoryServiceBehavior.logActivationStatusChange(activation);
-        callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+        callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
 
         // Return the server response
         InitActivationResponse response = new InitActivationResponse();
@@ -608,7 +671,7 @@ public class ActivationServiceBehavior {
         activation.setExtras(extras);
         activationRepository.save(activation);
         activationHistoryServiceBehavior.logActivationStatusChange(activation);
-        callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+        callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
 
         // Generate response data
         byte[] activationNonceServer = powerAuthServerActivation.generateActivationNonce();
@@ -742,7 +805,7 @@ public class ActivationServiceBehavior {
         activation.setExtras(extras);
         activationRepository.save(activation);
         activationHistoryServiceBehavior.logActivationStatusChange(activation);
-        callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+        callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
 
         // Generate response data
         byte[] activationNonceServer = powerAuthServerActivation.generateActivationNonce();
@@ -804,7 +867,7 @@ public class ActivationServiceBehavior {
                 activation.setActivationStatus(io.getlime.security.powerauth.app.server.database.model.ActivationStatus.ACTIVE);
                 activationRepository.save(activation);
                 activationHistoryServiceBehavior.logActivationStatusChange(activation);
-                callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+                callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
 
                 CommitActivationResponse response = new CommitActivationResponse();
                 response.setActivationId(activationId);
@@ -833,7 +896,7 @@ public class ActivationServiceBehavior {
             activation.setActivationStatus(io.getlime.security.powerauth.app.server.database.model.ActivationStatus.REMOVED);
             repositoryCatalogue.getActivationRepository().save(activation);
             activationHistoryServiceBehavior.logActivationStatusChange(activation);
-            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
             RemoveActivationResponse response = new RemoveActivationResponse();
             response.setActivationId(activationId);
             response.setRemoved(true);
@@ -868,7 +931,7 @@ public class ActivationServiceBehavior {
             }
             repositoryCatalogue.getActivationRepository().save(activation);
             activationHistoryServiceBehavior.logActivationStatusChange(activation);
-            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
         }
         BlockActivationResponse response = new BlockActivationResponse();
         response.setActivationId(activationId);
@@ -899,7 +962,7 @@ public class ActivationServiceBehavior {
             activation.setFailedAttempts(0L);
             repositoryCatalogue.getActivationRepository().save(activation);
             activationHistoryServiceBehavior.logActivationStatusChange(activation);
-            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId());
+            callbackUrlBehavior.notifyCallbackListeners(activation.getApplication().getId(), activation.getActivationId(), activation.getActivationStatus());
         }
         UnblockActivationResponse response = new UnblockActivationResponse();
         response.setActivationId(activationId);
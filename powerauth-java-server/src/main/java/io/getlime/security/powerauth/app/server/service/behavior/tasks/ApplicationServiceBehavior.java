@@ -21,6 +21,7 @@ package io.getlime.security.powerauth.app.server.service.behavior.tasks;
 import com.google.common.io.BaseEncoding;
 import io.getlime.security.powerauth.*;
 import io.getlime.security.powerauth.app.server.database.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationEntity;
 import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationVersionEntity;
 import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
@@ -50,6 +51,7 @@ public class ApplicationServiceBehavior {
 
     private RepositoryCatalogue repositoryCatalogue;
     private LocalizationProvider localizationProvider;
+    private ReferenceEntityCache referenceEntityCache;
 
     @Autowired
     public ApplicationServiceBehavior(RepositoryCatalogue repositoryCatalogue, LocalizationProvider localizationProvider) {
@@ -57,6 +59,11 @@ public class ApplicationServiceBehavior {
         this.localizationProvider = localizationProvider;
     }
 
+    @Autowired
+    public void setReferenceEntityCache(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     /**
      * Get application details.
      *
@@ -165,6 +172,7 @@ public class ApplicationServiceBehavior {
         version.setApplicationKey(BaseEncoding.base64().encode(applicationKeyBytes));
         version.setApplicationSecret(BaseEncoding.base64().encode(applicationSecretBytes));
         repositoryCatalogue.getApplicationVersionRepository().save(version);
+        referenceEntityCache.evict(ApplicationEntity.class, MasterKeyPairEntity.class, ApplicationVersionEntity.class);
 
         CreateApplicationResponse response = new CreateApplicationResponse();
         response.setApplicationId(application.getId());
@@ -196,6 +204,7 @@ public class ApplicationServiceBehavior {
         version.setApplicationKey(BaseEncoding.base64().encode(applicationKeyBytes));
         version.setApplicationSecret(BaseEncoding.base64().encode(applicationSecretBytes));
         version = repositoryCatalogue.getApplicationVersionRepository().save(version);
+        referenceEntityCache.evict(ApplicationVersionEntity.class);
 
         CreateApplicationVersionResponse response = new CreateApplicationVersionResponse();
         response.setApplicationVersionId(version.getId());
@@ -220,6 +229,7 @@ public class ApplicationServiceBehavior {
 
         version.setSupported(false);
         version = repositoryCatalogue.getApplicationVersionRepository().save(version);
+        referenceEntityCache.evict(ApplicationVersionEntity.class);
 
         UnsupportApplicationVersionResponse response = new UnsupportApplicationVersionResponse();
         response.setApplicationVersionId(version.getId());
@@ -241,6 +251,7 @@ public class ApplicationServiceBehavior {
 
         version.setSupported(true);
         version = repositoryCatalogue.getApplicationVersionRepository().save(version);
+        referenceEntityCache.evict(ApplicationVersionEntity.class);
 
         SupportApplicationVersionResponse response = new SupportApplicationVersionResponse();
         response.setApplicationVersionId(version.getId());
@@ -22,17 +22,21 @@ import com.google.common.io.BaseEncoding;
 import io.getlime.security.powerauth.KeyValueMap;
 import io.getlime.security.powerauth.SignatureAuditResponse;
 import io.getlime.security.powerauth.SignatureType;
-import io.getlime.security.powerauth.app.server.converter.ActivationStatusConverter;
 import io.getlime.security.powerauth.app.server.converter.KeyValueMapConverter;
-import io.getlime.security.powerauth.app.server.converter.SignatureTypeConverter;
-import io.getlime.security.powerauth.app.server.converter.XMLGregorianCalendarConverter;
+import io.getlime.security.powerauth.app.server.converter.SignatureAuditItemConverter;
 import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
 import io.getlime.security.powerauth.app.server.database.model.entity.SignatureEntity;
 import io.getlime.security.powerauth.app.server.database.repository.SignatureAuditRepository;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
+import io.getlime.security.powerauth.app.server.database.writer.AuditRecordWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import javax.xml.datatype.DatatypeConfigurationException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
@@ -47,60 +51,109 @@ public class AuditingServiceBehavior {
 
     private SignatureAuditRepository signatureAuditRepository;
 
+    private AuditRecordWriter auditRecordWriter;
+
+    private SignatureStatisticsServiceBehavior signatureStatisticsServiceBehavior;
+
+    private ShardRouter shardRouter;
+
     // Prepare converters
-    private ActivationStatusConverter activationStatusConverter = new ActivationStatusConverter();
-    private SignatureTypeConverter signatureTypeConverter = new SignatureTypeConverter();
     private KeyValueMapConverter keyValueMapConverter = new KeyValueMapConverter();
+    private SignatureAuditItemConverter signatureAuditItemConverter = new SignatureAuditItemConverter();
 
     @Autowired
     public AuditingServiceBehavior(SignatureAuditRepository signatureAuditRepository) {
         this.signatureAuditRepository = signatureAuditRepository;
     }
 
+    @Autowired
+    public void setAuditRecordWriter(AuditRecordWriter auditRecordWriter) {
+        this.auditRecordWriter = auditRecordWriter;
+    }
+
+    @Autowired
+    public void setSignatureStatisticsServiceBehavior(SignatureStatisticsServiceBehavior signatureStatisticsServiceBehavior) {
+        this.signatureStatisticsServiceBehavior = signatureStatisticsServiceBehavior;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
     /**
-     * List records from the signature audit log for given user
+     * List records from the signature audit log for given user. In case activations are sharded, records
+     * are looked up in all shards and merged, newest records first.
      *
      * @param userId        User ID
      * @param applicationId Application ID. If null is provided, all applications are checked.
      * @param startingDate  Since when should the log be displayed.
      * @param endingDate    Until when should the log be displayed.
+     * @param pageNumber    Page number, starting with 0. Null value means the first page.
+     * @param pageSize      Page size. Null value means that all records are returned.
      * @return Response with log items.
      * @throws DatatypeConfigurationException In case date cannot be converted.
      */
-    public SignatureAuditResponse getSignatureAuditLog(String userId, Long applicationId, Date startingDate, Date endingDate) throws DatatypeConfigurationException {
+    public SignatureAuditResponse getSignatureAuditLog(String userId, Long applicationId, Date startingDate, Date endingDate, Integer pageNumber, Integer pageSize) throws DatatypeConfigurationException {
+
+        final boolean paged = pageSize != null && pageSize > 0;
+        final int page = pageNumber != null && pageNumber > 0 ? pageNumber : 0;
+        final boolean sharded = shardRouter.getShardCount() > 1;
+
+        final Pageable pageable;
+        if (!paged) {
+            pageable = Pageable.unpaged();
+        } else if (sharded) {
+            // Each shard returns records of all pages up to the requested page, the page is selected after merge
+            pageable = PageRequest.of(0, (page + 1) * pageSize);
+        } else {
+            pageable = PageRequest.of(page, pageSize);
+        }
+
+        List<SignatureAuditResponse.Items> items = new ArrayList<>();
+        for (List<SignatureAuditResponse.Items> shardItems : shardRouter.executeOnAllShards(true, () -> getShardSignatureAuditLog(userId, applicationId, startingDate, endingDate, pageable))) {
+            items.addAll(shardItems);
+        }
+        if (sharded) {
+            items.sort(Comparator.comparingLong((SignatureAuditResponse.Items item) -> item.getTimestampCreated().toGregorianCalendar().getTimeInMillis())
+                    .thenComparing(SignatureAuditResponse.Items::getId)
+                    .reversed());
+            if (paged) {
+                items = items.subList(Math.min(page * pageSize, items.size()), Math.min((page + 1) * pageSize, items.size()));
+            }
+        }
 
+        SignatureAuditResponse response = new SignatureAuditResponse();
+        response.getItems().addAll(items);
+        return response;
+    }
+
+    /**
+     * List records from the signature audit log for given user stored in the current shard.
+     *
+     * @param userId        User ID
+     * @param applicationId Application ID. If null is provided, all applications are checked.
+     * @param startingDate  Since when should the log be displayed.
+     * @param endingDate    Until when should the log be displayed.
+     * @param pageable      Requested page.
+     * @return List of log items.
+     * @throws DatatypeConfigurationException In case date cannot be converted.
+     */
+    private List<SignatureAuditResponse.Items> getShardSignatureAuditLog(String userId, Long applicationId, Date startingDate, Date endingDate, Pageable pageable) throws DatatypeConfigurationException {
         List<SignatureEntity> signatureAuditEntityList;
         if (applicationId == null) {
-            signatureAuditEntityList = signatureAuditRepository.findSignatureAutitRecordsForUser(userId, startingDate, endingDate);
+            signatureAuditEntityList = signatureAuditRepository.findSignatureAutitRecordsForUser(userId, startingDate, endingDate, pageable);
         } else {
-            signatureAuditEntityList = signatureAuditRepository.findSignatureAutitRecordsForApplicationAndUser(applicationId, userId, startingDate, endingDate);
+            signatureAuditEntityList = signatureAuditRepository.findSignatureAutitRecordsForApplicationAndUser(applicationId, userId, startingDate, endingDate, pageable);
         }
 
-        SignatureAuditResponse response = new SignatureAuditResponse();
+        final List<SignatureAuditResponse.Items> items = new ArrayList<>();
         if (signatureAuditEntityList != null) {
             for (SignatureEntity signatureEntity : signatureAuditEntityList) {
-
-                SignatureAuditResponse.Items item = new SignatureAuditResponse.Items();
-
-                item.setId(signatureEntity.getId());
-                item.setApplicationId(signatureEntity.getActivation().getApplication().getId());
-                item.setActivationCounter(signatureEntity.getActivationCounter());
-                item.setActivationStatus(activationStatusConverter.convert(signatureEntity.getActivationStatus()));
-                item.setAdditionalInfo(keyValueMapConverter.fromString(signatureEntity.getAdditionalInfo()));
-                item.setActivationId(signatureEntity.getActivation().getActivationId());
-                item.setDataBase64(signatureEntity.getDataBase64());
-                item.setSignature(signatureEntity.getSignature());
-                item.setSignatureType(signatureTypeConverter.convertFrom(signatureEntity.getSignatureType()));
-                item.setValid(signatureEntity.getValid());
-                item.setTimestampCreated(XMLGregorianCalendarConverter.convertFrom(signatureEntity.getTimestampCreated()));
-                item.setNote(signatureEntity.getNote());
-                item.setUserId(signatureEntity.getActivation().getUserId());
-
-                response.getItems().add(item);
+                items.add(signatureAuditItemConverter.convert(signatureEntity));
             }
         }
-
-        return response;
+        return items;
     }
 
     /**
@@ -127,7 +180,10 @@ public class AuditingServiceBehavior {
         signatureAuditRecord.setValid(valid);
         signatureAuditRecord.setNote(note);
         signatureAuditRecord.setTimestampCreated(currentTimestamp);
-        signatureAuditRepository.save(signatureAuditRecord);
+        auditRecordWriter.insertSignatureAuditRecord(signatureAuditRecord);
+
+        // Count the signature in signature statistics
+        signatureStatisticsServiceBehavior.recordSignature(activation.getApplication().getId(), signatureType, valid, note, currentTimestamp);
     }
 
 }
@@ -19,27 +19,22 @@
 package io.getlime.security.powerauth.app.server.service.behavior.tasks;
 
 import io.getlime.security.powerauth.*;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
 import io.getlime.security.powerauth.app.server.database.model.entity.CallbackUrlEntity;
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.repository.CallbackUrlRepository;
+import io.getlime.security.powerauth.app.server.service.callback.CallbackOutbox;
+import io.getlime.security.powerauth.app.server.service.callback.CallbackUrlRegistry;
 import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
 import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
 import io.getlime.security.powerauth.app.server.service.model.ServiceError;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.ClientResponse;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Consumer;
 
 /**
  * Class that manages the service logic related to callback URL management.
@@ -53,15 +48,30 @@ public class CallbackUrlBehavior {
 
     private LocalizationProvider localizationProvider;
 
-    private WebClient webClient;
+    private CallbackOutbox callbackOutbox;
 
-    // Prepare logger
-    private static final Logger logger = LoggerFactory.getLogger(CallbackUrlBehavior.class);
+    private CallbackUrlRegistry callbackUrlRegistry;
+
+    private ReferenceEntityCache referenceEntityCache;
 
     @Autowired
     public CallbackUrlBehavior(CallbackUrlRepository callbackUrlRepository) {
         this.callbackUrlRepository = callbackUrlRepository;
-        webClient = WebClient.create();
+    }
+
+    @Autowired
+    public void setCallbackOutbox(CallbackOutbox callbackOutbox) {
+        this.callbackOutbox = callbackOutbox;
+    }
+
+    @Autowired
+    public void setCallbackUrlRegistry(CallbackUrlRegistry callbackUrlRegistry) {
+        this.callbackUrlRegistry = callbackUrlRegistry;
+    }
+
+    @Autowired
+    public void setReferenceEntityCache(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
     }
 
     @Autowired
@@ -89,12 +99,16 @@ public class CallbackUrlBehavior {
         entity.setApplicationId(request.getApplicationId());
         entity.setName(request.getName());
         entity.setCallbackUrl(request.getCallbackUrl());
+        entity.setBatched(request.isBatched() != null && request.isBatched());
         callbackUrlRepository.save(entity);
+        referenceEntityCache.evict(CallbackUrlEntity.class);
+        callbackUrlRegistry.reload(entity.getApplicationId());
         CreateCallbackUrlResponse response = new CreateCallbackUrlResponse();
         response.setId(entity.getId());
         response.setApplicationId(entity.getApplicationId());
         response.setName(entity.getName());
         response.setCallbackUrl(entity.getCallbackUrl());
+        response.setBatched(entity.getBatched());
         return response;
     }
 
@@ -112,6 +126,7 @@ public class CallbackUrlBehavior {
             item.setApplicationId(callbackUrl.getApplicationId());
             item.setName(callbackUrl.getName());
             item.setCallbackUrl(callbackUrl.getCallbackUrl());
+            item.setBatched(Boolean.TRUE.equals(callbackUrl.getBatched()));
             response.getCallbackUrlList().add(item);
         }
         return response;
@@ -128,6 +143,8 @@ public class CallbackUrlBehavior {
         final Optional<CallbackUrlEntity> callbackUrlEntityOptional = callbackUrlRepository.findById(request.getId());
         if (callbackUrlEntityOptional.isPresent()) {
             callbackUrlRepository.delete(callbackUrlEntityOptional.get());
+            referenceEntityCache.evict(CallbackUrlEntity.class);
+            callbackUrlRegistry.reload(callbackUrlEntityOptional.get().getApplicationId());
             response.setRemoved(true);
         } else {
             response.setRemoved(false);
@@ -137,28 +154,16 @@ public class CallbackUrlBehavior {
 
     /**
      * Tries to asynchronously notify all callbacks that are registered for given application.
+     * Callback URLs are resolved from {@link CallbackUrlRegistry}, notifications are stored in {@link CallbackOutbox}
+     * within the current transaction and sent after commit.
      * @param applicationId Application for the callbacks to be used.
      * @param activationId Activation ID to be notified about.
+     * @param activationStatus Activation status after the change, it is included in batched notifications.
      */
-    public void notifyCallbackListeners(Long applicationId, String activationId) {
-        final Iterable<CallbackUrlEntity> callbackUrlEntities = callbackUrlRepository.findByApplicationIdOrderByName(applicationId);
-        Map<String, String> callbackData = new HashMap<>();
-        callbackData.put("activationId", activationId);
+    public void notifyCallbackListeners(Long applicationId, String activationId, ActivationStatus activationStatus) {
+        final Iterable<CallbackUrlEntity> callbackUrlEntities = callbackUrlRegistry.getCallbackUrls(applicationId);
         for (CallbackUrlEntity callbackUrl: callbackUrlEntities) {
-            Consumer<ClientResponse> onSuccess = response -> {
-                if (response.statusCode().isError()) {
-                    logger.warn( "Callback failed, URL: {}, status code: {}", callbackUrl.getCallbackUrl(), response.statusCode().toString());
-                }
-            };
-            Consumer<Throwable> onError = error -> logger.warn( "Callback failed, URL: {}, error: {}", callbackUrl.getCallbackUrl(), error.getMessage());
-            webClient
-                    .post()
-                    .uri(callbackUrl.getCallbackUrl())
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(BodyInserters.fromObject(callbackData))
-                    .retrieve()
-                    .bodyToMono(ClientResponse.class)
-                    .subscribe(onSuccess, onError);
+            callbackOutbox.enqueue(callbackUrl.getCallbackUrl(), Boolean.TRUE.equals(callbackUrl.getBatched()), activationId, activationStatus);
         }
     }
 
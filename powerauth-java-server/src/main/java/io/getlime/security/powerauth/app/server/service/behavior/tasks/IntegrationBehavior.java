@@ -20,8 +20,10 @@ package io.getlime.security.powerauth.app.server.service.behavior.tasks;
 
 import io.getlime.security.powerauth.*;
 import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.database.cache.ReferenceEntityCache;
 import io.getlime.security.powerauth.app.server.database.model.entity.IntegrationEntity;
 import io.getlime.security.powerauth.app.server.database.repository.IntegrationRepository;
+import io.getlime.security.powerauth.app.server.integration.IntegrationUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -38,6 +40,8 @@ public class IntegrationBehavior {
 
     private IntegrationRepository integrationRepository;
     private PowerAuthServiceConfiguration configuration;
+    private IntegrationUserDetailsService integrationUserDetailsService;
+    private ReferenceEntityCache referenceEntityCache;
 
     @Autowired
     public IntegrationBehavior(IntegrationRepository integrationRepository) {
@@ -49,6 +53,16 @@ public class IntegrationBehavior {
         this.configuration = configuration;
     }
 
+    @Autowired
+    public void setIntegrationUserDetailsService(IntegrationUserDetailsService integrationUserDetailsService) {
+        this.integrationUserDetailsService = integrationUserDetailsService;
+    }
+
+    @Autowired
+    public void setReferenceEntityCache(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     /**
      * Creates a new integration record for application with given name, and automatically generates credentials.
      * @param request CreateIntegraionRequest instance specifying name of new integration.
@@ -61,6 +75,8 @@ public class IntegrationBehavior {
         entity.setClientToken(UUID.randomUUID().toString());
         entity.setClientSecret(UUID.randomUUID().toString());
         integrationRepository.save(entity);
+        referenceEntityCache.evict(IntegrationEntity.class);
+        integrationUserDetailsService.invalidateCredentials();
         CreateIntegrationResponse response = new CreateIntegrationResponse();
         response.setId(entity.getId());
         response.setName(entity.getName());
@@ -99,6 +115,8 @@ public class IntegrationBehavior {
         final Optional<IntegrationEntity> integrationEntityOptional = integrationRepository.findById(request.getId());
         if (integrationEntityOptional.isPresent()) {
             integrationRepository.delete(integrationEntityOptional.get());
+            referenceEntityCache.evict(IntegrationEntity.class);
+            integrationUserDetailsService.invalidateCredentials();
             response.setRemoved(true);
         } else {
             response.setRemoved(false);
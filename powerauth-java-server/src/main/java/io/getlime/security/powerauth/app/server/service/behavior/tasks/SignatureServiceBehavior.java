@@ -33,6 +33,7 @@ import io.getlime.security.powerauth.app.server.database.model.entity.Applicatio
 import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
 import io.getlime.security.powerauth.app.server.database.repository.ActivationRepository;
 import io.getlime.security.powerauth.app.server.database.repository.MasterKeyPairRepository;
+import io.getlime.security.powerauth.app.server.database.repository.SignatureVerificationRepository;
 import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
 import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
 import io.getlime.security.powerauth.app.server.service.model.ServiceError;
@@ -177,7 +178,7 @@ public class SignatureServiceBehavior {
         Date currentTimestamp = new Date();
 
         // Fetch related activation
-        ActivationRecordEntity activation = repositoryCatalogue.getActivationRepository().findActivation(activationId);
+        ActivationRecordEntity activation = repositoryCatalogue.getSignatureVerificationRepository().findActivation(activationId);
 
         // Only validate signature for existing ACTIVE activation records
         if (activation != null) {
@@ -203,7 +204,7 @@ public class SignatureServiceBehavior {
 
                     // Notify callback listeners, if needed
                     if (notifyCallbackListeners) {
-                        callbackUrlBehavior.notifyCallbackListeners(applicationId, activationId);
+                        callbackUrlBehavior.notifyCallbackListeners(applicationId, activationId, activation.getActivationStatus());
                     }
 
                     // return the data
@@ -233,7 +234,7 @@ public class SignatureServiceBehavior {
 
                     // Notify callback listeners, if needed
                     if (notifyCallbackListeners) {
-                        callbackUrlBehavior.notifyCallbackListeners(applicationId, activationId);
+                        callbackUrlBehavior.notifyCallbackListeners(applicationId, activationId, activation.getActivationStatus());
                     }
 
                     Long remainingAttempts = (activation.getMaxFailedAttempts() - activation.getFailedAttempts());
@@ -349,8 +350,8 @@ public class SignatureServiceBehavior {
     }
 
     private boolean handleInvalidApplicationVersion(ActivationRecordEntity activation, SignatureRequest signatureRequest, Date currentTimestamp) {
-        // Get ActivationRepository
-        final ActivationRepository activationRepository = repositoryCatalogue.getActivationRepository();
+        // Get SignatureVerificationRepository
+        final SignatureVerificationRepository signatureVerificationRepository = repositoryCatalogue.getSignatureVerificationRepository();
 
         // By default do not notify listeners
         boolean notifyCallbackListeners = false;
@@ -377,7 +378,7 @@ public class SignatureServiceBehavior {
         activation.setTimestampLastUsed(currentTimestamp);
 
         // Save the activation
-        activationRepository.save(activation);
+        signatureVerificationRepository.updateActivation(activation);
 
         // Create the audit log record
         auditingServiceBehavior.logSignatureAuditRecord(activation, signatureRequest.getSignatureType(), signatureRequest.getSignature(), signatureRequest.getAdditionalInfo(), signatureRequest.getData(),
@@ -387,8 +388,8 @@ public class SignatureServiceBehavior {
     }
 
     private void handleValidSignature(ActivationRecordEntity activation, ValidateSignatureResponse validationResponse, SignatureRequest signatureRequest, Date currentTimestamp) {
-        // Get ActivationRepository
-        final ActivationRepository activationRepository = repositoryCatalogue.getActivationRepository();
+        // Get SignatureVerificationRepository
+        final SignatureVerificationRepository signatureVerificationRepository = repositoryCatalogue.getSignatureVerificationRepository();
 
         // Set the activation record counter to the lowest counter
         // (+1, since the client has incremented the counter)
@@ -403,7 +404,7 @@ public class SignatureServiceBehavior {
         activation.setTimestampLastUsed(currentTimestamp);
 
         // Save the activation
-        activationRepository.save(activation);
+        signatureVerificationRepository.updateActivation(activation);
 
         // Create the audit log record.
         auditingServiceBehavior.logSignatureAuditRecord(activation, signatureRequest.getSignatureType(), signatureRequest.getSignature(), signatureRequest.getAdditionalInfo(),
@@ -411,8 +412,8 @@ public class SignatureServiceBehavior {
     }
 
     private boolean handleInvalidSignature(ActivationRecordEntity activation, SignatureRequest signatureRequest, Date currentTimestamp) {
-        // Get ActivationRepository
-        final ActivationRepository activationRepository = repositoryCatalogue.getActivationRepository();
+        // Get SignatureVerificationRepository
+        final SignatureVerificationRepository signatureVerificationRepository = repositoryCatalogue.getSignatureVerificationRepository();
 
         // By default do not notify listeners
         boolean notifyCallbackListeners = false;
@@ -440,7 +441,7 @@ public class SignatureServiceBehavior {
         activation.setTimestampLastUsed(currentTimestamp);
 
         // Save the activation
-        activationRepository.save(activation);
+        signatureVerificationRepository.updateActivation(activation);
 
         // Create the audit log record.
         auditingServiceBehavior.logSignatureAuditRecord(activation, signatureRequest.getSignatureType(), signatureRequest.getSignature(), signatureRequest.getAdditionalInfo(), signatureRequest.getData(),
@@ -545,14 +546,14 @@ public class SignatureServiceBehavior {
     }
 
     private void handleInactiveActivationSignature(ActivationRecordEntity activation, SignatureRequest signatureRequest, Date currentTimestamp) {
-        // Get ActivationRepository
-        final ActivationRepository activationRepository = repositoryCatalogue.getActivationRepository();
+        // Get SignatureVerificationRepository
+        final SignatureVerificationRepository signatureVerificationRepository = repositoryCatalogue.getSignatureVerificationRepository();
 
         // Update the last used date
         activation.setTimestampLastUsed(currentTimestamp);
 
         // Save the activation
-        activationRepository.save(activation);
+        signatureVerificationRepository.updateActivation(activation);
 
         // Create the audit log record.
         auditingServiceBehavior.logSignatureAuditRecord(activation, signatureRequest.getSignatureType(), signatureRequest.getSignature(), signatureRequest.getAdditionalInfo(), signatureRequest.getData(),
@@ -0,0 +1,296 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.getlime.security.powerauth.app.server.service.behavior.tasks;
+
+import io.getlime.security.powerauth.GetSignatureStatisticsResponse;
+import io.getlime.security.powerauth.SignatureType;
+import io.getlime.security.powerauth.app.server.converter.XMLGregorianCalendarConverter;
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureStatisticsEntity;
+import io.getlime.security.powerauth.app.server.database.repository.SignatureStatisticsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.xml.datatype.DatatypeConfigurationException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Behavior class implementing the signature verification statistics. Signature verification results
+ * are counted in memory, bucketed by application, day, signature type, result and audit note, and
+ * periodically flushed into a small aggregate table. This allows dashboards to obtain signature
+ * statistics without scanning the signature audit log.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class SignatureStatisticsServiceBehavior {
+
+    private final SignatureStatisticsRepository signatureStatisticsRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Counters which were not flushed into the database yet
+    private final Map<StatisticsKey, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(SignatureStatisticsServiceBehavior.class);
+
+    @Autowired
+    public SignatureStatisticsServiceBehavior(SignatureStatisticsRepository signatureStatisticsRepository, PlatformTransactionManager transactionManager) {
+        this.signatureStatisticsRepository = signatureStatisticsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Count a signature verification. In case a transaction is active, the signature is counted
+     * only after the transaction is committed, so that the statistics match the signature audit log.
+     *
+     * @param applicationId    Application ID.
+     * @param signatureType    Signature type.
+     * @param valid            Flag indicating if the signature was valid.
+     * @param note             Signature audit note (for example, "signature_ok").
+     * @param currentTimestamp Timestamp of the signature verification.
+     */
+    void recordSignature(Long applicationId, SignatureType signatureType, boolean valid, String note, Date currentTimestamp) {
+        final StatisticsKey key = new StatisticsKey(applicationId, truncateToDay(currentTimestamp), signatureType.value(), valid, note);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    increment(key, 1L);
+                }
+            });
+        } else {
+            increment(key, 1L);
+        }
+    }
+
+    /**
+     * Flush the in-memory counters into the aggregate table. The method is called periodically
+     * and when the application is shutting down. Counts which could not be stored are kept
+     * in memory and stored during the next flush.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.service.statistics.flushIntervalInMilliseconds}")
+    @PreDestroy
+    public void flushStatistics() {
+        final Date today = truncateToDay(new Date());
+        for (Map.Entry<StatisticsKey, AtomicLong> entry : counters.entrySet()) {
+            final StatisticsKey key = entry.getKey();
+            final AtomicLong counter = entry.getValue();
+            if (key.getStatisticsDate().before(today)) {
+                // Buckets for previous days are removed before they are drained, late signatures of the previous day
+                // counted after the removal create a new bucket, which is stored during the next flush
+                counters.remove(key, counter);
+            }
+            final long count = counter.getAndSet(0L);
+            if (count > 0) {
+                try {
+                    storeCount(key, count);
+                } catch (RuntimeException ex) {
+                    logger.warn("Signature statistics flush failed, the counts will be stored later, error: {}", ex.getMessage());
+                    increment(key, count);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get aggregated signature statistics for given application and date range. The statistics
+     * include the counts which were not flushed into the database yet.
+     *
+     * @param applicationId Application ID. If null is provided, all applications are included.
+     * @param startingDate  Since when should the statistics be returned.
+     * @param endingDate    Until when should the statistics be returned.
+     * @return Response with statistics items.
+     * @throws DatatypeConfigurationException In case date cannot be converted.
+     */
+    public GetSignatureStatisticsResponse getSignatureStatistics(Long applicationId, Date startingDate, Date endingDate) throws DatatypeConfigurationException {
+        final Date startingDay = truncateToDay(startingDate);
+
+        final List<SignatureStatisticsEntity> statisticsEntityList;
+        if (applicationId == null) {
+            statisticsEntityList = signatureStatisticsRepository.findStatistics(startingDay, endingDate);
+        } else {
+            statisticsEntityList = signatureStatisticsRepository.findStatisticsForApplication(applicationId, startingDay, endingDate);
+        }
+
+        // Merge persisted and pending counts, keep the ordering from the database
+        final Map<StatisticsKey, Long> statistics = new LinkedHashMap<>();
+        for (SignatureStatisticsEntity entity : statisticsEntityList) {
+            final StatisticsKey key = new StatisticsKey(entity.getApplicationId(), truncateToDay(entity.getStatisticsDate()), entity.getSignatureType(), entity.getValid(), entity.getNote());
+            statistics.merge(key, entity.getSignatureCount(), Long::sum);
+        }
+        for (Map.Entry<StatisticsKey, AtomicLong> entry : counters.entrySet()) {
+            final StatisticsKey key = entry.getKey();
+            final long count = entry.getValue().get();
+            if (count > 0
+                    && (applicationId == null || applicationId.equals(key.getApplicationId()))
+                    && !key.getStatisticsDate().before(startingDay)
+                    && !key.getStatisticsDate().after(endingDate)) {
+                statistics.merge(key, count, Long::sum);
+            }
+        }
+
+        GetSignatureStatisticsResponse response = new GetSignatureStatisticsResponse();
+        for (Map.Entry<StatisticsKey, Long> entry : statistics.entrySet()) {
+            final StatisticsKey key = entry.getKey();
+            GetSignatureStatisticsResponse.Items item = new GetSignatureStatisticsResponse.Items();
+            item.setApplicationId(key.getApplicationId());
+            item.setStatisticsDate(XMLGregorianCalendarConverter.convertFrom(key.getStatisticsDate()));
+            item.setSignatureType(SignatureType.fromValue(key.getSignatureType()));
+            item.setValid(key.isValid());
+            item.setNote(key.getNote());
+            item.setCount(entry.getValue());
+            response.getItems().add(item);
+        }
+        return response;
+    }
+
+    private void increment(StatisticsKey key, long count) {
+        // The counter is incremented within the map operation, so that it cannot be removed from the map meanwhile
+        counters.compute(key, (k, counter) -> {
+            if (counter == null) {
+                counter = new AtomicLong();
+            }
+            counter.addAndGet(count);
+            return counter;
+        });
+    }
+
+    /**
+     * Add the count to the statistics record, multiple server instances can store counts of the same bucket
+     * concurrently. The count is incremented atomically in the database, the record is inserted only when
+     * it does not exist yet. In case another server instance inserts the record first, the unique constraint
+     * is violated and the count is incremented again.
+     *
+     * @param key Statistics bucket.
+     * @param count Number of signatures to add.
+     */
+    private void storeCount(StatisticsKey key, long count) {
+        if (incrementCount(key, count)) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                SignatureStatisticsEntity entity = new SignatureStatisticsEntity();
+                entity.setApplicationId(key.getApplicationId());
+                entity.setStatisticsDate(key.getStatisticsDate());
+                entity.setSignatureType(key.getSignatureType());
+                entity.setValid(key.isValid());
+                entity.setNote(key.getNote());
+                entity.setSignatureCount(count);
+                return signatureStatisticsRepository.save(entity);
+            });
+        } catch (DataIntegrityViolationException ex) {
+            logger.debug("Signature statistics record was inserted concurrently, the count is incremented instead");
+            if (!incrementCount(key, count)) {
+                throw ex;
+            }
+        }
+    }
+
+    private boolean incrementCount(StatisticsKey key, long count) {
+        final Integer updated = transactionTemplate.execute(status -> signatureStatisticsRepository.incrementSignatureCount(
+                key.getApplicationId(), key.getStatisticsDate(), key.getSignatureType(), key.isValid(), key.getNote(), count));
+        return updated != null && updated > 0;
+    }
+
+    private Date truncateToDay(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+
+    /**
+     * Key of a single statistics bucket.
+     */
+    private static class StatisticsKey {
+
+        private final Long applicationId;
+        private final Date statisticsDate;
+        private final String signatureType;
+        private final boolean valid;
+        private final String note;
+
+        StatisticsKey(Long applicationId, Date statisticsDate, String signatureType, boolean valid, String note) {
+            this.applicationId = applicationId;
+            this.statisticsDate = statisticsDate;
+            this.signatureType = signatureType;
+            this.valid = valid;
+            this.note = note;
+        }
+
+        Long getApplicationId() {
+            return applicationId;
+        }
+
+        Date getStatisticsDate() {
+            return statisticsDate;
+        }
+
+        String getSignatureType() {
+            return signatureType;
+        }
+
+        boolean isValid() {
+            return valid;
+        }
+
+        String getNote() {
+            return note;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            StatisticsKey that = (StatisticsKey) o;
+            return valid == that.valid
+                    && Objects.equals(applicationId, that.applicationId)
+                    && statisticsDate.getTime() == that.statisticsDate.getTime()
+                    && Objects.equals(signatureType, that.signatureType)
+                    && Objects.equals(note, that.note);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(applicationId, statisticsDate.getTime(), signatureType, valid, note);
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
 import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
 import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
 import io.getlime.security.powerauth.app.server.database.model.entity.TokenEntity;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
 import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
 import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
 import io.getlime.security.powerauth.app.server.service.model.ServiceError;
@@ -61,6 +62,7 @@ public class TokenBehavior {
     private RepositoryCatalogue repositoryCatalogue;
     private LocalizationProvider localizationProvider;
     private PowerAuthServiceConfiguration powerAuthServiceConfiguration;
+    private ShardRouter shardRouter;
 
     // Business logic implementation classes
     private final ServerTokenGenerator tokenGenerator = new ServerTokenGenerator();
@@ -76,6 +78,11 @@ public class TokenBehavior {
         this.powerAuthServiceConfiguration = powerAuthServiceConfiguration;
     }
 
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
     /**
      * Method that creates a new token provided activation.
      *
@@ -109,10 +116,10 @@ public class TokenBehavior {
             final byte[] ephemeralPublicKeyBytes = BaseEncoding.base64().decode(ephemeralPublicKeyBase64);
             final PublicKey ephemeralPublicKey = keyConversion.convertBytesToPublicKey(ephemeralPublicKeyBytes);
 
-            // Generate unique token ID.
+            // Generate unique token ID, stored in the shard of the activation.
             String tokenId = null;
             for (int i = 0; i < powerAuthServiceConfiguration.getGenerateTokenIdIterations(); i++) {
-                String tmpTokenId = tokenGenerator.generateTokenId();
+                String tmpTokenId = shardRouter.generateLocalKey(tokenGenerator::generateTokenId);
                 final Optional<TokenEntity> tmpTokenOptional = repositoryCatalogue.getTokenRepository().findById(tmpTokenId);
                 if (!tmpTokenOptional.isPresent()) {
                     tokenId = tmpTokenId;
@@ -172,7 +179,7 @@ public class TokenBehavior {
         final byte[] tokenDigest = BaseEncoding.base64().decode(request.getTokenDigest());
 
         // Lookup the token.
-        final Optional<TokenEntity> tokenEntityOptional = repositoryCatalogue.getTokenRepository().findById(tokenId);
+        final Optional<TokenEntity> tokenEntityOptional = repositoryCatalogue.getTokenRepository().findTokenForValidation(tokenId);
         if (!tokenEntityOptional.isPresent()) {
             throw localizationProvider.buildExceptionForCode(ServiceError.INVALID_TOKEN);
         }
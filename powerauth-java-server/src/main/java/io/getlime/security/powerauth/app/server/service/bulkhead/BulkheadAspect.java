@@ -0,0 +1,176 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.bulkhead;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aspect executing service methods annotated with {@link Bulkhead} in bounded executors, one for each
+ * {@link BulkheadType}. A burst of CPU intensive activation calls then occupies only the threads of the
+ * activation bulkhead, while signature and token verification keep running in their own bulkheads.
+ *
+ * <p>The aspect is applied before the transactional advice, so that the database transaction is started
+ * in the bulkhead thread and calls waiting in the bulkhead queue do not hold database connections.</p>
+ *
+ * <p>A call waits in the bulkhead queue for a limited time only. A call which is not started in time is rejected
+ * as if the bulkhead was full and it is never executed. Once the call is started, the caller waits for its result,
+ * since the call may already have changed data. The run time of the call is limited by the database timeouts.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadAspect {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadAspect.class);
+
+    private final LocalizationProvider localizationProvider;
+
+    // States of a call executed in the bulkhead
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int ABANDONED = 2;
+
+    private final long queueTimeout;
+
+    private final Map<BulkheadType, ThreadPoolExecutor> executors = new EnumMap<>(BulkheadType.class);
+
+    @Autowired
+    public BulkheadAspect(PowerAuthServiceConfiguration configuration, LocalizationProvider localizationProvider, MeterRegistry meterRegistry) {
+        this.localizationProvider = localizationProvider;
+        this.queueTimeout = configuration.getBulkheadQueueTimeout();
+        executors.put(BulkheadType.ACTIVATION, createExecutor(BulkheadType.ACTIVATION,
+                configuration.getBulkheadActivationThreads(),
+                configuration.getBulkheadActivationQueueCapacity(),
+                configuration.getBulkheadActivationRejectionPolicy(),
+                meterRegistry));
+        executors.put(BulkheadType.SIGNATURE, createExecutor(BulkheadType.SIGNATURE,
+                configuration.getBulkheadSignatureThreads(),
+                configuration.getBulkheadSignatureQueueCapacity(),
+                configuration.getBulkheadSignatureRejectionPolicy(),
+                meterRegistry));
+        executors.put(BulkheadType.TOKEN, createExecutor(BulkheadType.TOKEN,
+                configuration.getBulkheadTokenThreads(),
+                configuration.getBulkheadTokenQueueCapacity(),
+                configuration.getBulkheadTokenRejectionPolicy(),
+                meterRegistry));
+    }
+
+    /**
+     * Execute the annotated method in the bulkhead.
+     *
+     * @param joinPoint Join point of the annotated method.
+     * @param bulkhead Bulkhead annotation.
+     * @return Result of the method.
+     * @throws Throwable In case the method throws an exception or the call is rejected by the bulkhead.
+     */
+    @Around("@annotation(bulkhead)")
+    public Object execute(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        final ThreadPoolExecutor executor = executors.get(bulkhead.value());
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        final Runnable task = () -> {
+            if (!state.compareAndSet(QUEUED, STARTED)) {
+                // The caller stopped waiting for the call to start
+                return;
+            }
+            try {
+                future.complete(joinPoint.proceed());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Call of {} was rejected by bulkhead {}", joinPoint.getSignature().getName(), bulkhead.value());
+            throw localizationProvider.buildExceptionForCode(ServiceError.SERVICE_OVERLOADED);
+        }
+        try {
+            try {
+                return future.get(queueTimeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (state.compareAndSet(QUEUED, ABANDONED)) {
+                    executor.remove(task);
+                    logger.warn("Call of {} was not started in time by bulkhead {}", joinPoint.getSignature().getName(), bulkhead.value());
+                    throw localizationProvider.buildExceptionForCode(ServiceError.SERVICE_OVERLOADED);
+                }
+                // The call is already running, its result must be returned
+                return future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Stop the bulkhead executors.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    private ThreadPoolExecutor createExecutor(BulkheadType type, int threads, int queueCapacity, BulkheadRejectionPolicy rejectionPolicy, MeterRegistry meterRegistry) {
+        final String name = type.name().toLowerCase(Locale.ENGLISH);
+        final Counter rejectedCounter = meterRegistry.counter("powerauth.bulkhead.rejected", "bulkhead", name);
+        final AtomicInteger threadCounter = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    rejectedCounter.increment();
+                    if (rejectionPolicy == BulkheadRejectionPolicy.CALLER_RUNS && !pool.isShutdown()) {
+                        task.run();
+                    } else {
+                        throw new RejectedExecutionException("Bulkhead " + name + " is full");
+                    }
+                });
+        new ExecutorServiceMetrics(executor, "powerauth.bulkhead." + name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+}
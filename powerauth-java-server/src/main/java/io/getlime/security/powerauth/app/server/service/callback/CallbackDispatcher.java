@@ -0,0 +1,391 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.callback;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatcher of callback notifications about activation changes.
+ *
+ * <p>Callback deliveries are kept in a bounded queue and sent to each callback URL with limited concurrency
+ * and limited request rate. Failed deliveries are retried with exponential backoff. In case a delivery for
+ * the same callback URL and activation is still waiting in the queue, the new event is merged into it, since
+ * the callback only informs the receiver that the activation has changed.</p>
+ *
+ * <p>Callback URLs in batched mode receive changes of multiple activations in a single request. Events are
+ * collected for a configured time window, or until the configured number of events is reached, and sent as
+ * a JSON array with the activation ID and the new activation status of each activation.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class CallbackDispatcher {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(CallbackDispatcher.class);
+
+    private final PowerAuthServiceConfiguration configuration;
+
+    private final WebClient webClient;
+
+    private final Map<String, CallbackEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    private final Map<String, CallbackEndpoint> batchedEndpoints = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "callback-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Metrics
+    private final Timer deliveryTimer;
+    private final Counter deliveredCounter;
+    private final Counter mergedCounter;
+    private final Counter rejectedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public CallbackDispatcher(PowerAuthServiceConfiguration configuration, MeterRegistry meterRegistry) {
+        this.configuration = configuration;
+        this.webClient = WebClient.create();
+        meterRegistry.gauge("powerauth.callback.queue.size", queueSize);
+        this.deliveryTimer = meterRegistry.timer("powerauth.callback.delivery");
+        this.deliveredCounter = meterRegistry.counter("powerauth.callback.delivered");
+        this.mergedCounter = meterRegistry.counter("powerauth.callback.merged");
+        this.rejectedCounter = meterRegistry.counter("powerauth.callback.rejected");
+        this.retriedCounter = meterRegistry.counter("powerauth.callback.retried");
+        this.failedCounter = meterRegistry.counter("powerauth.callback.failed");
+    }
+
+    /**
+     * Enqueue callback notification about a change of given activation.
+     *
+     * @param callbackUrl Callback URL.
+     * @param batched Whether the callback URL receives notifications in batches.
+     * @param activationId Activation ID.
+     * @param activationStatus Activation status after the change.
+     * @param completionListener Listener called once the delivery is finished, either successfully or after
+     *                           the last failed attempt. It is not called when the callback could not be queued.
+     * @return True in case the callback was queued or merged with a queued callback, false in case the queue is full.
+     */
+    public boolean dispatch(String callbackUrl, boolean batched, String activationId, ActivationStatus activationStatus, Runnable completionListener) {
+        final Map<String, CallbackEndpoint> endpointMap = batched ? batchedEndpoints : endpoints;
+        final CallbackEndpoint endpoint = endpointMap.computeIfAbsent(callbackUrl, url -> new CallbackEndpoint(url, batched));
+        synchronized (endpoint) {
+            final CallbackDelivery pendingDelivery = endpoint.pending.get(activationId);
+            if (pendingDelivery != null) {
+                // Activation change is already waiting for delivery, there is no need to notify twice
+                pendingDelivery.activationStatus = activationStatus;
+                pendingDelivery.completionListeners.add(completionListener);
+                mergedCounter.increment();
+                return true;
+            }
+            if (queueSize.incrementAndGet() > configuration.getCallbackQueueCapacity()) {
+                queueSize.decrementAndGet();
+                rejectedCounter.increment();
+                logger.warn("Callback queue is full, URL: {}, activation ID: {}", callbackUrl, activationId);
+                return false;
+            }
+            final CallbackDelivery delivery = new CallbackDelivery(activationId, activationStatus);
+            delivery.completionListeners.add(completionListener);
+            endpoint.pending.put(activationId, delivery);
+        }
+        scheduleDrain(endpoint, 0);
+        return true;
+    }
+
+    /**
+     * Get the number of callback deliveries that are queued or in progress.
+     *
+     * @return Number of queued callback deliveries.
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    /**
+     * Schedule drain of given endpoint. Each endpoint has at most one drain scheduled, a new drain is scheduled
+     * only when there is none yet or when the new drain is due earlier than the scheduled one.
+     *
+     * @param endpoint Callback endpoint.
+     * @param delayNanos Delay of the drain in nanoseconds.
+     */
+    private void scheduleDrain(CallbackEndpoint endpoint, long delayNanos) {
+        synchronized (endpoint) {
+            final long drainTime = System.nanoTime() + delayNanos;
+            if (endpoint.scheduledDrain != null) {
+                if (endpoint.scheduledDrainTime - drainTime <= 0) {
+                    // The scheduled drain is due earlier and sends the new deliveries as well
+                    return;
+                }
+                endpoint.scheduledDrain.cancel(false);
+            }
+            endpoint.scheduledDrainTime = drainTime;
+            endpoint.scheduledDrain = scheduler.schedule(() -> drain(endpoint), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Send as many queued deliveries to given endpoint as the concurrency and rate limits allow.
+     * In case some deliveries cannot be sent right now, drain is scheduled again for later.
+     *
+     * @param endpoint Callback endpoint.
+     */
+    private void drain(CallbackEndpoint endpoint) {
+        final long minIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, configuration.getCallbackMaxRequestsPerSecondPerUrl());
+        final int maxConcurrentRequests = Math.max(1, configuration.getCallbackMaxConcurrentRequestsPerUrl());
+        final int batchSize = endpoint.batched ? Math.max(1, configuration.getCallbackBatchSize()) : 1;
+        final long batchWindowNanos = endpoint.batched ? TimeUnit.MILLISECONDS.toNanos(configuration.getCallbackBatchWindowInMilliseconds()) : 0;
+        final List<List<CallbackDelivery>> requests = new ArrayList<>();
+        long nextDrainDelayNanos = -1;
+        synchronized (endpoint) {
+            final long now = System.nanoTime();
+            if (endpoint.scheduledDrain != null && endpoint.scheduledDrainTime - now <= 0) {
+                // This drain is the scheduled one, any later request needs a new drain
+                endpoint.scheduledDrain = null;
+            }
+            while (endpoint.inFlight < maxConcurrentRequests) {
+                // Collect deliveries which are not waiting for retry
+                final List<CallbackDelivery> ready = new ArrayList<>();
+                long oldestEventTime = now;
+                for (CallbackDelivery delivery : endpoint.pending.values()) {
+                    if (delivery.notBefore - now > 0) {
+                        // Delivery is waiting for retry
+                        nextDrainDelayNanos = earlier(nextDrainDelayNanos, delivery.notBefore - now);
+                        continue;
+                    }
+                    if (ready.isEmpty()) {
+                        oldestEventTime = delivery.notBefore;
+                    }
+                    ready.add(delivery);
+                    if (ready.size() >= batchSize) {
+                        break;
+                    }
+                }
+                if (ready.isEmpty()) {
+                    break;
+                }
+                if (ready.size() < batchSize && oldestEventTime + batchWindowNanos - now > 0) {
+                    // Batch is not full yet, wait until the batch window of the oldest event elapses
+                    nextDrainDelayNanos = earlier(nextDrainDelayNanos, oldestEventTime + batchWindowNanos - now);
+                    break;
+                }
+                if (endpoint.nextPermit - now > 0) {
+                    // Rate limit of the endpoint was reached
+                    nextDrainDelayNanos = earlier(nextDrainDelayNanos, endpoint.nextPermit - now);
+                    break;
+                }
+                endpoint.nextPermit = Math.max(endpoint.nextPermit, now) + minIntervalNanos;
+                endpoint.inFlight++;
+                for (CallbackDelivery delivery : ready) {
+                    endpoint.pending.remove(delivery.activationId);
+                }
+                requests.add(ready);
+            }
+        }
+        for (List<CallbackDelivery> deliveries : requests) {
+            send(endpoint, deliveries);
+        }
+        if (nextDrainDelayNanos >= 0) {
+            scheduleDrain(endpoint, nextDrainDelayNanos);
+        }
+    }
+
+    /**
+     * Send the callback HTTP request.
+     *
+     * @param endpoint Callback endpoint.
+     * @param deliveries Callback deliveries, a single delivery unless the endpoint is in batched mode.
+     */
+    private void send(CallbackEndpoint endpoint, List<CallbackDelivery> deliveries) {
+        final Object callbackData;
+        if (endpoint.batched) {
+            final List<Map<String, String>> items = new ArrayList<>();
+            for (CallbackDelivery delivery : deliveries) {
+                final Map<String, String> item = new LinkedHashMap<>();
+                item.put("activationId", delivery.activationId);
+                item.put("activationStatus", delivery.activationStatus != null ? delivery.activationStatus.name() : null);
+                items.add(item);
+            }
+            callbackData = items;
+        } else {
+            final Map<String, String> item = new HashMap<>();
+            item.put("activationId", deliveries.get(0).activationId);
+            callbackData = item;
+        }
+        final long startTime = System.nanoTime();
+        webClient
+                .post()
+                .uri(endpoint.callbackUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromObject(callbackData))
+                .exchange()
+                .flatMap(response -> response.bodyToMono(Void.class).thenReturn(response))
+                .timeout(Duration.ofMillis(configuration.getCallbackRequestTimeoutInMilliseconds()))
+                .subscribe(response -> {
+                    deliveryTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                    if (response.statusCode().isError()) {
+                        onFailure(endpoint, deliveries, "status code: " + response.statusCode().toString());
+                    } else {
+                        onSuccess(endpoint, deliveries);
+                    }
+                }, error -> {
+                    deliveryTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                    onFailure(endpoint, deliveries, "error: " + error.getMessage());
+                });
+    }
+
+    private void onSuccess(CallbackEndpoint endpoint, List<CallbackDelivery> deliveries) {
+        deliveredCounter.increment(deliveries.size());
+        synchronized (endpoint) {
+            endpoint.inFlight--;
+        }
+        queueSize.addAndGet(-deliveries.size());
+        for (CallbackDelivery delivery : deliveries) {
+            complete(delivery);
+        }
+        scheduleDrain(endpoint, 0);
+    }
+
+    private void onFailure(CallbackEndpoint endpoint, List<CallbackDelivery> deliveries, String reason) {
+        synchronized (endpoint) {
+            endpoint.inFlight--;
+            for (CallbackDelivery delivery : deliveries) {
+                delivery.attempts++;
+                if (delivery.attempts < configuration.getCallbackMaxAttempts()) {
+                    final long backoff = Math.min(
+                            configuration.getCallbackInitialBackoffInMilliseconds() << Math.min(delivery.attempts - 1, 30),
+                            configuration.getCallbackMaxBackoffInMilliseconds());
+                    logger.warn("Callback failed, URL: {}, activation ID: {}, {}, retry in {} ms", endpoint.callbackUrl, delivery.activationId, reason, backoff);
+                    delivery.notBefore = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+                    final CallbackDelivery newerDelivery = endpoint.pending.putIfAbsent(delivery.activationId, delivery);
+                    if (newerDelivery == null) {
+                        retriedCounter.increment();
+                    } else {
+                        // A newer event for the same activation was queued meanwhile, it replaces the retry
+                        newerDelivery.completionListeners.addAll(delivery.completionListeners);
+                        queueSize.decrementAndGet();
+                        mergedCounter.increment();
+                    }
+                } else {
+                    logger.warn("Callback failed, URL: {}, activation ID: {}, {}, giving up after {} attempts", endpoint.callbackUrl, delivery.activationId, reason, delivery.attempts);
+                    failedCounter.increment();
+                    queueSize.decrementAndGet();
+                    complete(delivery);
+                }
+            }
+        }
+        scheduleDrain(endpoint, 0);
+    }
+
+    /**
+     * Notify completion listeners of finished delivery.
+     *
+     * @param delivery Callback delivery.
+     */
+    private void complete(CallbackDelivery delivery) {
+        for (Runnable completionListener : delivery.completionListeners) {
+            try {
+                completionListener.run();
+            } catch (RuntimeException ex) {
+                logger.warn("Callback completion listener failed, error: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private static long earlier(long currentDelay, long delay) {
+        return currentDelay < 0 ? delay : Math.min(currentDelay, delay);
+    }
+
+    /**
+     * Stop the dispatcher, queued deliveries are discarded without notifying the completion listeners.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (queueSize.get() > 0) {
+            logger.warn("Callback dispatcher stopped, {} callbacks were not delivered", queueSize.get());
+        }
+    }
+
+    /**
+     * State of a single callback URL.
+     */
+    private static class CallbackEndpoint {
+
+        private final String callbackUrl;
+        private final boolean batched;
+        private final LinkedHashMap<String, CallbackDelivery> pending = new LinkedHashMap<>();
+        private int inFlight;
+        private long nextPermit = System.nanoTime();
+        // Drain which is scheduled and not started yet, with the time when it is due
+        private ScheduledFuture<?> scheduledDrain;
+        private long scheduledDrainTime;
+
+        CallbackEndpoint(String callbackUrl, boolean batched) {
+            this.callbackUrl = callbackUrl;
+            this.batched = batched;
+        }
+
+    }
+
+    /**
+     * Single callback delivery.
+     */
+    private static class CallbackDelivery {
+
+        private final String activationId;
+        private final List<Runnable> completionListeners = new ArrayList<>();
+        private volatile ActivationStatus activationStatus;
+        private volatile int attempts;
+        // Time when the event was queued, or the time of the next retry
+        private volatile long notBefore = System.nanoTime();
+
+        CallbackDelivery(String activationId, ActivationStatus activationStatus) {
+            this.activationId = activationId;
+            this.activationStatus = activationStatus;
+        }
+
+    }
+
+}
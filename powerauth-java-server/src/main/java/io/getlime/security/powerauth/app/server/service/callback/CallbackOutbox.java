@@ -0,0 +1,246 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.callback;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.entity.CallbackOutboxEntity;
+import io.getlime.security.powerauth.app.server.database.repository.CallbackOutboxRepository;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox of callback notifications.
+ *
+ * <p>Callback notifications are stored in the "pa_callback_outbox" table in the same transaction as the
+ * activation change, so that no callback is sent for a change which was rolled back and the receiver always
+ * sees the committed state. The records are claimed in batches after the transaction commits (and periodically,
+ * to pick up records left by a stopped server instance) and handed over to {@link CallbackDispatcher}.
+ * A claim expires after a configured time, so that undelivered records are claimed again after a restart.
+ * Records are removed once their delivery is finished.</p>
+ *
+ * <p>In case activations are sharded, each shard contains its own outbox, all outboxes are polled.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class CallbackOutbox {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(CallbackOutbox.class);
+
+    private final CallbackOutboxRepository callbackOutboxRepository;
+
+    private final CallbackDispatcher callbackDispatcher;
+
+    private final PowerAuthServiceConfiguration configuration;
+
+    private final ShardRouter shardRouter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Records whose delivery is finished by shards, they are removed during the next poll
+    private final List<Queue<Long>> completedIds = new ArrayList<>();
+
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "callback-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public CallbackOutbox(CallbackOutboxRepository callbackOutboxRepository, CallbackDispatcher callbackDispatcher,
+                          PowerAuthServiceConfiguration configuration, ShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+        this.callbackOutboxRepository = callbackOutboxRepository;
+        this.callbackDispatcher = callbackDispatcher;
+        this.configuration = configuration;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            completedIds.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Store a callback notification about a change of given activation. The notification is written in the
+     * current transaction and dispatched after the transaction commits.
+     *
+     * @param callbackUrl Callback URL.
+     * @param batched Whether the callback URL receives notifications in batches.
+     * @param activationId Activation ID.
+     * @param activationStatus Activation status after the change.
+     */
+    public void enqueue(String callbackUrl, boolean batched, String activationId, ActivationStatus activationStatus) {
+        CallbackOutboxEntity entity = new CallbackOutboxEntity();
+        entity.setCallbackUrl(callbackUrl);
+        entity.setBatched(batched);
+        entity.setActivationId(activationId);
+        entity.setActivationStatus(activationStatus);
+        entity.setTimestampCreated(new Date());
+        callbackOutboxRepository.save(entity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    requestPoll();
+                }
+            });
+        } else {
+            requestPoll();
+        }
+    }
+
+    /**
+     * Request asynchronous poll of the outbox. Multiple requests are coalesced into a single poll.
+     */
+    private void requestPoll() {
+        if (pollRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                pollRequested.set(false);
+                poll();
+            });
+        }
+    }
+
+    /**
+     * Periodically poll the outbox for records that were not dispatched yet, including records whose claim has
+     * expired, for example because a server instance was stopped before the delivery finished.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.service.callback.outbox.pollIntervalInMilliseconds}")
+    public void schedulePoll() {
+        requestPoll();
+    }
+
+    /**
+     * Remove finished records and claim a batch of new records for delivery in outboxes of all shards.
+     */
+    private synchronized void poll() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            final Queue<Long> shardCompletedIds = completedIds.get(shard);
+            try {
+                if (!shardRouter.executeOnShard(shard, () -> pollShard(shardCompletedIds))) {
+                    return;
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Callback outbox poll failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Remove finished records and claim a batch of new records for delivery in the outbox of the current shard.
+     *
+     * @param shardCompletedIds Records of the shard whose delivery is finished.
+     * @return False in case the dispatcher queue is full, true otherwise.
+     */
+    private boolean pollShard(Queue<Long> shardCompletedIds) {
+        removeCompleted(shardCompletedIds);
+        List<CallbackOutboxEntity> claimed;
+        do {
+            claimed = claim();
+            for (CallbackOutboxEntity entity : claimed) {
+                final Long id = entity.getId();
+                final boolean queued = callbackDispatcher.dispatch(entity.getCallbackUrl(), Boolean.TRUE.equals(entity.getBatched()),
+                        entity.getActivationId(), entity.getActivationStatus(), () -> shardCompletedIds.add(id));
+                if (!queued) {
+                    // Dispatcher queue is full, remaining records stay claimed and are picked up after the claim expires
+                    return false;
+                }
+            }
+        } while (claimed.size() >= configuration.getCallbackOutboxBatchSize());
+        return true;
+    }
+
+    /**
+     * Claim a batch of records in a separate transaction.
+     *
+     * @return Claimed records.
+     */
+    private List<CallbackOutboxEntity> claim() {
+        return transactionTemplate.execute(status -> {
+            final Date now = new Date();
+            final Date claimExpires = new Date(now.getTime() + configuration.getCallbackOutboxClaimDurationInMilliseconds());
+            final List<CallbackOutboxEntity> entities = callbackOutboxRepository.findClaimable(now, PageRequest.of(0, configuration.getCallbackOutboxBatchSize()));
+            for (CallbackOutboxEntity entity : entities) {
+                entity.setTimestampClaimExpires(claimExpires);
+            }
+            return entities;
+        });
+    }
+
+    /**
+     * Remove records whose delivery is finished.
+     *
+     * @param shardCompletedIds Records of the current shard whose delivery is finished.
+     */
+    private void removeCompleted(Queue<Long> shardCompletedIds) {
+        final List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = shardCompletedIds.poll()) != null) {
+            ids.add(id);
+            if (ids.size() >= configuration.getCallbackOutboxBatchSize()) {
+                deleteByIds(shardCompletedIds, ids);
+                ids.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            deleteByIds(shardCompletedIds, ids);
+        }
+    }
+
+    private void deleteByIds(Queue<Long> shardCompletedIds, List<Long> ids) {
+        final List<Long> batch = new ArrayList<>(ids);
+        try {
+            transactionTemplate.execute(status -> callbackOutboxRepository.deleteByIds(batch));
+        } catch (RuntimeException ex) {
+            // Keep the records for next attempt
+            shardCompletedIds.addAll(batch);
+            throw ex;
+        }
+    }
+
+    /**
+     * Stop the outbox poller.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
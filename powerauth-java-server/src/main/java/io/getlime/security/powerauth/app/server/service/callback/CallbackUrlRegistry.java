@@ -0,0 +1,124 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.callback;
+
+import io.getlime.security.powerauth.app.server.database.model.entity.CallbackUrlEntity;
+import io.getlime.security.powerauth.app.server.database.repository.CallbackUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * In-memory registry of callback URLs per application.
+ *
+ * <p>The registry is loaded at startup and updated whenever a callback URL is created or removed, so that
+ * activation changes in applications without any callback URL do not require a database query. Since callback
+ * URLs may be changed by another server instance, the registry is also reloaded periodically.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class CallbackUrlRegistry {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(CallbackUrlRegistry.class);
+
+    private final CallbackUrlRepository callbackUrlRepository;
+
+    // Immutable snapshot of callback URLs per application, replaced as a whole on update
+    private volatile Map<Long, List<CallbackUrlEntity>> callbackUrls = Collections.emptyMap();
+
+    @Autowired
+    public CallbackUrlRegistry(CallbackUrlRepository callbackUrlRepository) {
+        this.callbackUrlRepository = callbackUrlRepository;
+    }
+
+    /**
+     * Get callback URLs registered for given application, ordered by name.
+     *
+     * @param applicationId Application ID.
+     * @return Callback URLs of the application, empty list in case the application has no callback URLs.
+     */
+    public List<CallbackUrlEntity> getCallbackUrls(Long applicationId) {
+        final List<CallbackUrlEntity> result = callbackUrls.get(applicationId);
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * Reload callback URLs of all applications.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${powerauth.service.callback.registryRefreshIntervalInMilliseconds}",
+            initialDelayString = "${powerauth.service.callback.registryRefreshIntervalInMilliseconds}")
+    public synchronized void reload() {
+        try {
+            final Map<Long, List<CallbackUrlEntity>> result = new HashMap<>();
+            for (CallbackUrlEntity callbackUrl : callbackUrlRepository.findAll()) {
+                result.computeIfAbsent(callbackUrl.getApplicationId(), id -> new ArrayList<>()).add(callbackUrl);
+            }
+            for (Map.Entry<Long, List<CallbackUrlEntity>> entry : result.entrySet()) {
+                entry.getValue().sort(Comparator.comparing(CallbackUrlEntity::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            callbackUrls = Collections.unmodifiableMap(result);
+        } catch (RuntimeException ex) {
+            logger.error("Callback URL registry could not be loaded", ex);
+        }
+    }
+
+    /**
+     * Reload callback URLs of given application. In case a transaction is active, the application is reloaded
+     * after the transaction commits.
+     *
+     * @param applicationId Application ID.
+     */
+    public void reload(Long applicationId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    reloadApplication(applicationId);
+                }
+            });
+        } else {
+            reloadApplication(applicationId);
+        }
+    }
+
+    private synchronized void reloadApplication(Long applicationId) {
+        final List<CallbackUrlEntity> applicationCallbackUrls = new ArrayList<>();
+        for (CallbackUrlEntity callbackUrl : callbackUrlRepository.findByApplicationIdOrderByName(applicationId)) {
+            applicationCallbackUrls.add(callbackUrl);
+        }
+        final Map<Long, List<CallbackUrlEntity>> result = new HashMap<>(callbackUrls);
+        if (applicationCallbackUrls.isEmpty()) {
+            result.remove(applicationId);
+        } else {
+            result.put(applicationId, Collections.unmodifiableList(applicationCallbackUrls));
+        }
+        callbackUrls = Collections.unmodifiableMap(result);
+    }
+
+}
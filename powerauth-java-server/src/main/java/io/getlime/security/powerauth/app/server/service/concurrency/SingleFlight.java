@@ -0,0 +1,72 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.concurrency;
+
+import java.util.concurrent.*;
+
+/**
+ * Class coalescing concurrent calls with the same key. While a call for a key is in progress,
+ * other calls for the same key do not execute and wait for the result of the call in progress
+ * instead. Once the call completes, the next call for the key is executed again.
+ *
+ * @param <K> Type of the key.
+ * @param <V> Type of the result.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Execute the call, or wait for the result of a call with the same key in progress.
+     *
+     * @param key Key of the call.
+     * @param call Call to be executed.
+     * @return Result of the call.
+     * @throws Exception In case the call throws an exception.
+     */
+    public V execute(K key, Callable<V> call) throws Exception {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> callInProgress = calls.putIfAbsent(key, future);
+        if (callInProgress != null) {
+            try {
+                return callInProgress.get();
+            } catch (ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw ex;
+            }
+        }
+        try {
+            final V result = call.call();
+            future.complete(result);
+            return result;
+        } catch (Exception | Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            calls.remove(key, future);
+        }
+    }
+
+}
@@ -46,6 +46,21 @@ public class GenericServiceException extends Exception {
         this.localizedMessage = localizedMessage;
     }
 
+    /**
+     * Constructor with error code and error message, which allows creating the exception without
+     * stack trace. Filling in the stack trace is expensive and it is not needed for business errors.
+     *
+     * @param code               Error code
+     * @param message            Error message
+     * @param localizedMessage   Localized error message
+     * @param writableStackTrace Whether the stack trace should be filled in
+     */
+    public GenericServiceException(String code, String message, String localizedMessage, boolean writableStackTrace) {
+        super(message, null, true, writableStackTrace);
+        this.code = code;
+        this.localizedMessage = localizedMessage;
+    }
+
     /**
      * Get the error code
      *
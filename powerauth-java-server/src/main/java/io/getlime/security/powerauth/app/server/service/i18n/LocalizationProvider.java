@@ -19,28 +19,46 @@
 package io.getlime.security.powerauth.app.server.service.i18n;
 
 import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.stereotype.Service;
 
-import java.util.Locale;
+import java.util.*;
 
 /**
  * Class responsible for providing localized error messages in case of
  * SOAP fault exceptions. Currently, only EN locale is provided with the
  * server.
  *
+ * <p>Error messages of all error codes are loaded for all ISO languages at startup into an immutable
+ * catalog, so that building an exception for a business error does not require any message lookup.</p>
+ *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Service
 public class LocalizationProvider {
 
-    @Bean
-    public ResourceBundleMessageSource messageSource() {
+    private final ResourceBundleMessageSource messageSource;
+
+    // Immutable catalog of error messages by language and error code
+    private final Map<String, Map<String, String>> errorCatalog;
+
+    public LocalizationProvider() {
         ResourceBundleMessageSource source = new ResourceBundleMessageSource();
         source.setBasename("i18n/errors");
         source.setUseCodeAsDefaultMessage(true);
-        return source;
+        this.messageSource = source;
+        final Map<String, Map<String, String>> catalog = new HashMap<>();
+        for (String language : Locale.getISOLanguages()) {
+            catalog.put(language, loadErrorMessages(new Locale(language)));
+        }
+        this.errorCatalog = Collections.unmodifiableMap(catalog);
+    }
+
+    @Bean
+    public ResourceBundleMessageSource messageSource() {
+        return messageSource;
     }
 
     public String getLocalizedErrorMessage(String code) {
@@ -48,7 +66,12 @@ public class LocalizationProvider {
     }
 
     public String getLocalizedErrorMessage(String code, Locale locale) {
-        return messageSource().getMessage("ServiceError." + code, null, locale);
+        final Map<String, String> errorMessages = errorCatalog.get(locale.getLanguage());
+        final String message = errorMessages != null ? errorMessages.get(code) : null;
+        if (message != null) {
+            return message;
+        }
+        return messageSource.getMessage("ServiceError." + code, null, locale);
     }
 
     public GenericServiceException buildExceptionForCode(String code) {
@@ -58,7 +81,16 @@ public class LocalizationProvider {
     public GenericServiceException buildExceptionForCode(String code, Locale locale) {
         String message = this.getLocalizedErrorMessage(code);
         String localizedMessage = this.getLocalizedErrorMessage(code, locale);
-        return new GenericServiceException(code, message, localizedMessage);
+        // Business errors do not need a stack trace
+        return new GenericServiceException(code, message, localizedMessage, false);
+    }
+
+    private Map<String, String> loadErrorMessages(Locale locale) {
+        final Map<String, String> errorMessages = new HashMap<>();
+        for (String code : ServiceError.allCodes()) {
+            errorMessages.put(code, messageSource.getMessage("ServiceError." + code, null, locale));
+        }
+        return Collections.unmodifiableMap(errorMessages);
     }
 
 }
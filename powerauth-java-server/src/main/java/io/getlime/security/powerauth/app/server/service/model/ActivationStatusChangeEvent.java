@@ -0,0 +1,118 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.model;
+
+import io.getlime.security.powerauth.ActivationStatus;
+
+import java.util.Date;
+
+/**
+ * Class representing an activation status change event sent to event stream subscribers.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class ActivationStatusChangeEvent {
+
+    private Long id;
+    private String activationId;
+    private Long applicationId;
+    private ActivationStatus activationStatus;
+    private Date timestampCreated;
+
+    /**
+     * Get event ID, the ID of related activation history record. Event IDs are unique for an activation,
+     * an event delivered more than once has the same activation ID and event ID.
+     * @return Event ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set event ID.
+     * @param id Event ID.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get activation ID.
+     * @return Activation ID.
+     */
+    public String getActivationId() {
+        return activationId;
+    }
+
+    /**
+     * Set activation ID.
+     * @param activationId Activation ID.
+     */
+    public void setActivationId(String activationId) {
+        this.activationId = activationId;
+    }
+
+    /**
+     * Get application ID.
+     * @return Application ID.
+     */
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * Set application ID.
+     * @param applicationId Application ID.
+     */
+    public void setApplicationId(Long applicationId) {
+        this.applicationId = applicationId;
+    }
+
+    /**
+     * Get new activation status.
+     * @return Activation status.
+     */
+    public ActivationStatus getActivationStatus() {
+        return activationStatus;
+    }
+
+    /**
+     * Set new activation status.
+     * @param activationStatus Activation status.
+     */
+    public void setActivationStatus(ActivationStatus activationStatus) {
+        this.activationStatus = activationStatus;
+    }
+
+    /**
+     * Get timestamp of the status change.
+     * @return Timestamp of the status change.
+     */
+    public Date getTimestampCreated() {
+        return timestampCreated;
+    }
+
+    /**
+     * Set timestamp of the status change.
+     * @param timestampCreated Timestamp of the status change.
+     */
+    public void setTimestampCreated(Date timestampCreated) {
+        this.timestampCreated = timestampCreated;
+    }
+
+}
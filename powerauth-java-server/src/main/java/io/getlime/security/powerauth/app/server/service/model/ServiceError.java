@@ -141,6 +141,16 @@ public class ServiceError {
      */
     public static final String UNSUPPORTED_ENCRYPTION_MODE = "ERR0021";
 
+    /**
+     * Too many concurrent requests of the same kind.
+     */
+    public static final String SERVICE_OVERLOADED = "ERR0022";
+
+    /**
+     * Integration credentials are invalid.
+     */
+    public static final String INTEGRATION_AUTHENTICATION_FAILED = "ERR0023";
+
     public static List<String> allCodes() {
         List<String> list = new ArrayList<>(20);
         list.add(UNKNOWN_ERROR);
@@ -165,6 +175,8 @@ public class ServiceError {
         list.add(UNABLE_TO_GENERATE_TOKEN);
         list.add(MISSING_MASTER_DB_ENCRYPTION_KEY);
         list.add(UNSUPPORTED_ENCRYPTION_MODE);
+        list.add(SERVICE_OVERLOADED);
+        list.add(INTEGRATION_AUTHENTICATION_FAILED);
         return list;
     }
 
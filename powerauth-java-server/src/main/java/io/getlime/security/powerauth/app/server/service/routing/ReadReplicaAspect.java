@@ -0,0 +1,59 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.routing;
+
+import io.getlime.security.powerauth.app.server.database.routing.ReadReplicaContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect allowing service methods annotated with {@link ReadReplica} to read data from the read replica.
+ *
+ * <p>The aspect is applied after the bulkhead aspect, which switches the thread, and before the transactional
+ * advice, so that the flag is set before the database connection of the transaction is obtained.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ReadReplicaAspect {
+
+    /**
+     * Execute the annotated method with the read replica allowed.
+     *
+     * @param joinPoint Join point of the annotated method.
+     * @return Result of the method.
+     * @throws Throwable In case the method throws an exception.
+     */
+    @Around("@annotation(io.getlime.security.powerauth.app.server.service.routing.ReadReplica)")
+    public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        final boolean previouslyAllowed = ReadReplicaContext.isReplicaAllowed();
+        ReadReplicaContext.setReplicaAllowed(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadReplicaContext.setReplicaAllowed(previouslyAllowed);
+        }
+    }
+
+}
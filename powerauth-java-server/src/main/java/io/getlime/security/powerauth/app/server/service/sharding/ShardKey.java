@@ -0,0 +1,68 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.sharding;
+
+/**
+ * Enum representing keys which determine the activation shard of a service method.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum ShardKey {
+
+    /**
+     * Activation ID of an existing activation.
+     */
+    ACTIVATION_ID("getActivationId"),
+
+    /**
+     * Short activation ID of a pending activation.
+     */
+    ACTIVATION_ID_SHORT("getActivationIdShort"),
+
+    /**
+     * Token ID of an activation token.
+     */
+    TOKEN_ID("getTokenId"),
+
+    /**
+     * New activation, the shard is selected so that new activations are distributed evenly.
+     */
+    NEW_ACTIVATION(null),
+
+    /**
+     * Reference data maintained in the default shard, which are replicated to other shards once the method
+     * completes.
+     */
+    REFERENCE_DATA(null);
+
+    private final String getterName;
+
+    ShardKey(String getterName) {
+        this.getterName = getterName;
+    }
+
+    /**
+     * Get name of the request getter which returns the key.
+     *
+     * @return Name of the getter, null for keys not taken from the request.
+     */
+    public String getGetterName() {
+        return getterName;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.sharding;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation marking service methods whose data are stored in an activation shard determined by given key.
+ * The key is taken from the first argument of the method, which is either the key itself, or a request
+ * object with a getter of the key.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Sharded {
+
+    /**
+     * Key determining the shard.
+     * @return Key determining the shard.
+     */
+    ShardKey value();
+
+}
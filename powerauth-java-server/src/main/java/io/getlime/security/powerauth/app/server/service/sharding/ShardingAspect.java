@@ -0,0 +1,139 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.sharding;
+
+import io.getlime.security.powerauth.app.server.database.sharding.ReferenceDataReplicator;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardContext;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Aspect selecting the activation shard for service methods annotated with {@link Sharded}. The aspect does
+ * nothing when sharding is disabled.
+ *
+ * <p>The aspect is applied after the bulkhead aspect, which switches the thread, and before the transactional
+ * advice, so that the shard is selected before the database connection of the transaction is obtained.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ShardingAspect {
+
+    // Prepare logger
+    private static final Logger logger = LoggerFactory.getLogger(ShardingAspect.class);
+
+    private final ShardRouter shardRouter;
+
+    private ReferenceDataReplicator referenceDataReplicator;
+
+    // Getters of keys by request classes
+    private final Map<ShardKey, ConcurrentMap<Class<?>, Method>> keyGetters = new EnumMap<>(ShardKey.class);
+
+    @Autowired
+    public ShardingAspect(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+        for (ShardKey shardKey : ShardKey.values()) {
+            keyGetters.put(shardKey, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Autowired(required = false)
+    public void setReferenceDataReplicator(ReferenceDataReplicator referenceDataReplicator) {
+        this.referenceDataReplicator = referenceDataReplicator;
+    }
+
+    /**
+     * Execute the annotated method with the shard selected.
+     *
+     * @param joinPoint Join point of the annotated method.
+     * @param sharded Sharded annotation.
+     * @return Result of the method.
+     * @throws Throwable In case the method throws an exception.
+     */
+    @Around("@annotation(sharded)")
+    public Object execute(ProceedingJoinPoint joinPoint, Sharded sharded) throws Throwable {
+        if (!shardRouter.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        final Integer previousShard = ShardContext.getCurrentShard();
+        ShardContext.setCurrentShard(resolveShard(joinPoint, sharded.value()));
+        final Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            ShardContext.setCurrentShard(previousShard);
+        }
+        if (sharded.value() == ShardKey.REFERENCE_DATA && referenceDataReplicator != null) {
+            try {
+                referenceDataReplicator.replicate();
+            } catch (RuntimeException ex) {
+                // Reference data are replicated again by the scheduled replication
+                logger.error("Reference data could not be replicated to shards", ex);
+            }
+        }
+        return result;
+    }
+
+    private int resolveShard(ProceedingJoinPoint joinPoint, ShardKey shardKey) {
+        switch (shardKey) {
+            case NEW_ACTIVATION:
+                return shardRouter.getShardForNewActivation();
+            case REFERENCE_DATA:
+                return ShardContext.DEFAULT_SHARD;
+            default:
+                final Object[] args = joinPoint.getArgs();
+                return shardRouter.getShard(resolveKey(args.length > 0 ? args[0] : null, shardKey));
+        }
+    }
+
+    private String resolveKey(Object argument, ShardKey shardKey) {
+        if (argument == null || argument instanceof String) {
+            return (String) argument;
+        }
+        final Method getter = keyGetters.get(shardKey).computeIfAbsent(argument.getClass(), requestClass -> {
+            try {
+                return requestClass.getMethod(shardKey.getGetterName());
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException("Request " + requestClass.getName() + " does not contain key " + shardKey, ex);
+            }
+        });
+        try {
+            return (String) getter.invoke(argument);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Key " + shardKey + " could not be read from request " + argument.getClass().getName(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.*;
+import io.getlime.security.powerauth.app.server.database.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.KeyEncryptionMode;
+import io.getlime.security.powerauth.app.server.database.model.entity.*;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import io.getlime.security.powerauth.crypto.lib.config.PowerAuthConfiguration;
+import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
+import io.getlime.security.powerauth.provider.CryptoProviderUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests verifying fetch plans of activations, so that the associated application and master key pair
+ * are loaded only by the operations which need them.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ActivationFetchPlanTest {
+
+    private PowerAuthService powerAuthService;
+    private RepositoryCatalogue repositoryCatalogue;
+    private Statistics statistics;
+
+    private String activationId;
+    private String applicationKey;
+    private String userId;
+    private long applicationId;
+
+    @Autowired
+    public void setPowerAuthService(PowerAuthService powerAuthService) {
+        this.powerAuthService = powerAuthService;
+    }
+
+    @Autowired
+    public void setRepositoryCatalogue(RepositoryCatalogue repositoryCatalogue) {
+        this.repositoryCatalogue = repositoryCatalogue;
+    }
+
+    @Autowired
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Before
+    public void createActivation() throws Exception {
+        final CreateApplicationRequest createApplicationRequest = new CreateApplicationRequest();
+        createApplicationRequest.setApplicationName("Test_" + System.currentTimeMillis());
+        applicationId = powerAuthService.createApplication(createApplicationRequest).getApplicationId();
+        final ApplicationEntity application = repositoryCatalogue.getApplicationRepository().findById(applicationId).get();
+        final MasterKeyPairEntity masterKeyPair = repositoryCatalogue.getMasterKeyPairRepository().findFirstByApplicationIdOrderByTimestampCreatedDesc(applicationId);
+        applicationKey = repositoryCatalogue.getApplicationVersionRepository().findByApplicationId(applicationId).get(0).getApplicationKey();
+
+        final CryptoProviderUtil keyConvertor = PowerAuthConfiguration.INSTANCE.getKeyConvertor();
+        final KeyGenerator keyGenerator = new KeyGenerator();
+        final KeyPair serverKeyPair = keyGenerator.generateKeyPair();
+        final KeyPair deviceKeyPair = keyGenerator.generateKeyPair();
+        final Date now = new Date();
+        activationId = UUID.randomUUID().toString();
+        userId = "user_" + activationId;
+        final ActivationRecordEntity activation = new ActivationRecordEntity(activationId, "ABCDE-FGHIJ", "KLMNO-PQRST", userId,
+                "test", null,
+                BaseEncoding.base64().encode(keyConvertor.convertPrivateKeyToBytes(serverKeyPair.getPrivate())),
+                BaseEncoding.base64().encode(keyConvertor.convertPublicKeyToBytes(serverKeyPair.getPublic())),
+                BaseEncoding.base64().encode(keyConvertor.convertPublicKeyToBytes(deviceKeyPair.getPublic())),
+                0L, 0L, 5L, now, new Date(now.getTime() + 300_000L), now, ActivationStatus.ACTIVE, null,
+                KeyEncryptionMode.NO_ENCRYPTION, masterKeyPair, application);
+        repositoryCatalogue.getActivationRepository().save(activation);
+    }
+
+    @Test
+    public void testActivationStatusFetchPlan() throws Exception {
+        statistics.clear();
+        final GetActivationStatusRequest request = new GetActivationStatusRequest();
+        request.setActivationId(activationId);
+        assertEquals(io.getlime.security.powerauth.ActivationStatus.ACTIVE, powerAuthService.getActivationStatus(request).getActivationStatus());
+
+        // Single query loads the activation together with the application
+        assertEquals(1, statistics.getQueryStatistics("SELECT a FROM ActivationRecordEntity a WHERE a.activationId = ?1").getExecutionCount());
+        assertEquals(1, statistics.getEntityStatistics(ActivationRecordEntity.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(ApplicationEntity.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(MasterKeyPairEntity.class.getName()).getLoadCount());
+    }
+
+    @Test
+    public void testActivationListFetchPlan() throws Exception {
+        statistics.clear();
+        final GetActivationListForUserRequest request = new GetActivationListForUserRequest();
+        request.setApplicationId(applicationId);
+        request.setUserId(userId);
+        final GetActivationListForUserResponse response = powerAuthService.getActivationListForUser(request);
+        assertEquals(1, response.getActivations().size());
+        assertEquals(applicationId, response.getActivations().get(0).getApplicationId());
+
+        // Application name is loaded by the activation query, master key pair is not loaded at all
+        assertEquals(1, statistics.getEntityStatistics(ActivationRecordEntity.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(ApplicationEntity.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(MasterKeyPairEntity.class.getName()).getLoadCount());
+    }
+
+    @Test
+    public void testTokenValidationFetchPlan() throws Exception {
+        final TokenEntity token = new TokenEntity();
+        token.setTokenId(UUID.randomUUID().toString());
+        token.setTokenSecret(BaseEncoding.base64().encode(new KeyGenerator().generateRandomBytes(16)));
+        token.setActivation(repositoryCatalogue.getActivationRepository().findById(activationId).get());
+        token.setSignatureTypeCreated(SignatureType.POSSESSION.value());
+        token.setTimestampCreated(new Date());
+        repositoryCatalogue.getTokenRepository().save(token);
+
+        statistics.clear();
+        final ValidateTokenRequest request = new ValidateTokenRequest();
+        request.setTokenId(token.getTokenId());
+        request.setNonce(BaseEncoding.base64().encode(new KeyGenerator().generateRandomBytes(16)));
+        request.setTimestamp(System.currentTimeMillis());
+        request.setTokenDigest(BaseEncoding.base64().encode(new KeyGenerator().generateRandomBytes(32)));
+        assertFalse(powerAuthService.validateToken(request).isTokenValid());
+
+        // Token, activation and application are loaded by a single query
+        assertEquals(1, statistics.getEntityStatistics(TokenEntity.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(ActivationRecordEntity.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(ApplicationEntity.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(MasterKeyPairEntity.class.getName()).getLoadCount());
+    }
+
+    @Test
+    public void testSignatureVerificationFetchPlan() throws Exception {
+        statistics.clear();
+        final VerifySignatureRequest request = new VerifySignatureRequest();
+        request.setActivationId(activationId);
+        request.setApplicationKey(applicationKey);
+        request.setData("POST&L3BhL3NpZ25hdHVyZS92YWxpZGF0ZQ==&" + BaseEncoding.base64().encode(new KeyGenerator().generateRandomBytes(16)));
+        request.setSignature("12345678");
+        request.setSignatureType(SignatureType.POSSESSION);
+        assertFalse(powerAuthService.verifySignature(request).isSignatureValid());
+
+        // Activation is locked without joining other tables, application is not loaded from the database
+        assertEquals(1, statistics.getQueryStatistics("SELECT a FROM ActivationRecordEntity a WHERE a.activationId = ?1").getExecutionCount());
+        assertEquals(1, statistics.getEntityStatistics(ActivationRecordEntity.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(ApplicationEntity.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(MasterKeyPairEntity.class.getName()).getLoadCount());
+    }
+
+}
@@ -0,0 +1,148 @@
+package io.getlime.security.powerauth.app.server;
+
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.CreateApplicationRequest;
+import io.getlime.security.powerauth.CreateApplicationResponse;
+import io.getlime.security.powerauth.app.server.database.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.KeyEncryptionMode;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Benchmark of activation updates performed during signature verification on the H2 database. The benchmark
+ * reports the number of columns in the UPDATE statement issued for a counter and last used timestamp change,
+ * compared to the number of columns a full update writes, and the average latency of the transaction.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.getlime.security.powerauth.app.server.ActivationUpdateBenchmarkTest$UpdateStatementInspector")
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ActivationUpdateBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private static volatile String lastActivationUpdate;
+
+    /**
+     * Statement inspector recording the last UPDATE statement of the activation table.
+     */
+    public static class UpdateStatementInspector implements StatementInspector {
+
+        private static final long serialVersionUID = -4713425874016218465L;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("update pa_activation ")) {
+                lastActivationUpdate = sql;
+            }
+            return sql;
+        }
+    }
+
+    private PowerAuthService powerAuthService;
+    private RepositoryCatalogue repositoryCatalogue;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public void setPowerAuthService(PowerAuthService powerAuthService) {
+        this.powerAuthService = powerAuthService;
+    }
+
+    @Autowired
+    public void setRepositoryCatalogue(RepositoryCatalogue repositoryCatalogue) {
+        this.repositoryCatalogue = repositoryCatalogue;
+    }
+
+    @Autowired
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Ignore("Benchmark, run manually.")
+    @Test
+    public void benchmarkActivationUpdate() throws Exception {
+        final String activationId = createActivation();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            updateActivation(activationId);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            updateActivation(activationId);
+        }
+        final long time = System.nanoTime() - start;
+
+        assertNotNull(lastActivationUpdate);
+        final AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(ActivationRecordEntity.class);
+        int fullUpdateColumns = 0;
+        final boolean[] updateability = persister.getPropertyUpdateability();
+        for (int i = 0; i < updateability.length; i++) {
+            if (updateability[i]) {
+                fullUpdateColumns += persister.getPropertyColumnNames(i).length;
+            }
+        }
+        final String setClause = lastActivationUpdate.substring(lastActivationUpdate.indexOf(" set ") + 5, lastActivationUpdate.indexOf(" where "));
+        System.out.printf("UPDATE columns: %d (full update: %d), statement: %s%n", setClause.split(",").length, fullUpdateColumns, lastActivationUpdate);
+        System.out.printf("Average update transaction: %.2f us%n", time / 1000.0 / ITERATIONS);
+    }
+
+    private String createActivation() throws Exception {
+        final CreateApplicationRequest createApplicationRequest = new CreateApplicationRequest();
+        createApplicationRequest.setApplicationName("Test_" + System.currentTimeMillis());
+        final CreateApplicationResponse createApplicationResponse = powerAuthService.createApplication(createApplicationRequest);
+        final ApplicationEntity application = repositoryCatalogue.getApplicationRepository().findById(createApplicationResponse.getApplicationId()).get();
+        final MasterKeyPairEntity masterKeyPair = repositoryCatalogue.getMasterKeyPairRepository().findFirstByApplicationIdOrderByTimestampCreatedDesc(application.getId());
+
+        // Keys are random data of the same size as real keys, they are not used for any cryptographic operation
+        final Date now = new Date();
+        final ActivationRecordEntity activation = new ActivationRecordEntity(UUID.randomUUID().toString(), "ABCDE-FGHIJ", "KLMNO-PQRST",
+                "benchmark_user", "benchmark", null, randomBase64(32), randomBase64(65), randomBase64(65), 0L, 0L, 5L,
+                now, new Date(now.getTime() + 300_000L), now, ActivationStatus.ACTIVE, null, KeyEncryptionMode.NO_ENCRYPTION,
+                masterKeyPair, application);
+        repositoryCatalogue.getActivationRepository().save(activation);
+        return activation.getActivationId();
+    }
+
+    private void updateActivation(String activationId) {
+        transactionTemplate.execute(status -> {
+            final ActivationRecordEntity activation = repositoryCatalogue.getActivationRepository().findActivation(activationId);
+            activation.setCounter(activation.getCounter() + 1);
+            activation.setTimestampLastUsed(new Date());
+            return repositoryCatalogue.getActivationRepository().save(activation);
+        });
+    }
+
+    private String randomBase64(int length) {
+        final byte[] bytes = new byte[length];
+        new SecureRandom().nextBytes(bytes);
+        return BaseEncoding.base64().encode(bytes);
+    }
+
+}
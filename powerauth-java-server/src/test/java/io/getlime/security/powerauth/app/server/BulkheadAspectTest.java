@@ -0,0 +1,129 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.service.bulkhead.Bulkhead;
+import io.getlime.security.powerauth.app.server.service.bulkhead.BulkheadAspect;
+import io.getlime.security.powerauth.app.server.service.bulkhead.BulkheadRejectionPolicy;
+import io.getlime.security.powerauth.app.server.service.bulkhead.BulkheadType;
+import io.getlime.security.powerauth.app.server.service.exceptions.GenericServiceException;
+import io.getlime.security.powerauth.app.server.service.i18n.LocalizationProvider;
+import io.getlime.security.powerauth.app.server.service.model.ServiceError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests of the bulkhead aspect verifying that only calls which were not started in time are rejected.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class BulkheadAspectTest {
+
+    private static final long QUEUE_TIMEOUT = 100L;
+
+    private BulkheadAspect bulkheadAspect;
+    private Bulkhead bulkhead;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        PowerAuthServiceConfiguration configuration = new PowerAuthServiceConfiguration();
+        configuration.setBulkheadActivationThreads(1);
+        configuration.setBulkheadActivationQueueCapacity(1);
+        configuration.setBulkheadActivationRejectionPolicy(BulkheadRejectionPolicy.ABORT);
+        configuration.setBulkheadSignatureThreads(1);
+        configuration.setBulkheadSignatureQueueCapacity(1);
+        configuration.setBulkheadSignatureRejectionPolicy(BulkheadRejectionPolicy.ABORT);
+        configuration.setBulkheadTokenThreads(1);
+        configuration.setBulkheadTokenQueueCapacity(1);
+        configuration.setBulkheadTokenRejectionPolicy(BulkheadRejectionPolicy.ABORT);
+        configuration.setBulkheadQueueTimeout(QUEUE_TIMEOUT);
+        bulkheadAspect = new BulkheadAspect(configuration, new LocalizationProvider(), new SimpleMeterRegistry());
+        bulkhead = BulkheadAspectTest.class.getDeclaredMethod("activationCall").getAnnotation(Bulkhead.class);
+    }
+
+    @After
+    public void tearDown() {
+        bulkheadAspect.shutdown();
+    }
+
+    @Test
+    public void testStartedCallReturnsResultAfterQueueTimeout() throws Throwable {
+        final ProceedingJoinPoint joinPoint = mockJoinPoint();
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            Thread.sleep(QUEUE_TIMEOUT * 3);
+            return "OK";
+        });
+        assertEquals("OK", bulkheadAspect.execute(joinPoint, bulkhead));
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    public void testQueuedCallIsRejectedAndNotExecuted() throws Throwable {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ProceedingJoinPoint blockingJoinPoint = mockJoinPoint();
+        when(blockingJoinPoint.proceed()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "OK";
+        });
+        final CompletableFuture<Object> blockingCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkheadAspect.execute(blockingJoinPoint, bulkhead);
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final ProceedingJoinPoint queuedJoinPoint = mockJoinPoint();
+        final GenericServiceException ex = assertThrows(GenericServiceException.class, () -> bulkheadAspect.execute(queuedJoinPoint, bulkhead));
+        assertEquals(ServiceError.SERVICE_OVERLOADED, ex.getCode());
+
+        release.countDown();
+        assertEquals("OK", blockingCall.get(5, TimeUnit.SECONDS));
+        // The blocking call finished, a queued call would have been started by now
+        Thread.sleep(QUEUE_TIMEOUT);
+        verify(queuedJoinPoint, never()).proceed();
+    }
+
+    private ProceedingJoinPoint mockJoinPoint() {
+        final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        final Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn("activationCall");
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+
+    @Bulkhead(BulkheadType.ACTIVATION)
+    private void activationCall() {
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.service.callback.CallbackDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the callback dispatcher retries, merging and batching against a local HTTP server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class CallbackDispatcherTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final long BATCH_WINDOW = 1000L;
+    private static final long TIMEOUT = 5000L;
+
+    private CallbackServerStub callbackServer;
+    private CallbackDispatcher callbackDispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        PowerAuthServiceConfiguration configuration = new PowerAuthServiceConfiguration();
+        configuration.setCallbackQueueCapacity(100);
+        configuration.setCallbackMaxConcurrentRequestsPerUrl(1);
+        configuration.setCallbackMaxRequestsPerSecondPerUrl(1000);
+        configuration.setCallbackMaxAttempts(3);
+        configuration.setCallbackInitialBackoffInMilliseconds(100L);
+        configuration.setCallbackMaxBackoffInMilliseconds(1000L);
+        configuration.setCallbackRequestTimeoutInMilliseconds(TIMEOUT);
+        configuration.setCallbackBatchSize(BATCH_SIZE);
+        configuration.setCallbackBatchWindowInMilliseconds(BATCH_WINDOW);
+        callbackServer = new CallbackServerStub();
+        callbackDispatcher = new CallbackDispatcher(configuration, new SimpleMeterRegistry());
+    }
+
+    @After
+    public void tearDown() {
+        callbackDispatcher.shutdown();
+        callbackServer.close();
+    }
+
+    @Test
+    public void testFailedDeliveryMergedWithNewerEvent() throws Exception {
+        final AtomicInteger firstListenerCalls = new AtomicInteger();
+        final AtomicInteger secondListenerCalls = new AtomicInteger();
+        callbackServer.setResponseStatus(index -> index == 0 ? 500 : 200);
+        callbackServer.holdResponses();
+
+        assertTrue(callbackDispatcher.dispatch(callbackServer.getUrl(), false, "activation-1", ActivationStatus.ACTIVE, firstListenerCalls::incrementAndGet));
+        callbackServer.awaitRequests(1, TIMEOUT);
+        // The first request is in progress, the newer event waits in the queue
+        assertTrue(callbackDispatcher.dispatch(callbackServer.getUrl(), false, "activation-1", ActivationStatus.BLOCKED, secondListenerCalls::incrementAndGet));
+        assertEquals(2, callbackDispatcher.getQueueSize());
+        callbackServer.releaseResponses();
+
+        awaitQueueEmpty();
+        // The failed delivery is not retried on its own, the newer event notifies about the activation again
+        assertEquals(2, callbackServer.getRequests().size());
+        assertEquals(Collections.singletonList("activation-1"), callbackServer.getActivationIds(1));
+        assertEquals(1, firstListenerCalls.get());
+        assertEquals(1, secondListenerCalls.get());
+    }
+
+    @Test
+    public void testBatchSentWhenFull() throws Exception {
+        final long startTime = System.currentTimeMillis();
+        for (int i = 1; i <= BATCH_SIZE; i++) {
+            assertTrue(callbackDispatcher.dispatch(callbackServer.getUrl(), true, "activation-" + i, ActivationStatus.ACTIVE, () -> {}));
+        }
+        callbackServer.awaitRequests(1, TIMEOUT);
+        assertTrue(System.currentTimeMillis() - startTime < BATCH_WINDOW, "Full batch should not wait for the batch window");
+        awaitQueueEmpty();
+        assertEquals(1, callbackServer.getRequests().size());
+        assertEquals(Arrays.asList("activation-1", "activation-2", "activation-3"), callbackServer.getActivationIds(0));
+    }
+
+    @Test
+    public void testBatchSentWhenWindowElapses() throws Exception {
+        final long startTime = System.currentTimeMillis();
+        assertTrue(callbackDispatcher.dispatch(callbackServer.getUrl(), true, "activation-1", ActivationStatus.ACTIVE, () -> {}));
+        Thread.sleep(BATCH_WINDOW / 2);
+        assertTrue(callbackServer.getRequests().isEmpty(), "Incomplete batch should wait for the batch window");
+        callbackServer.awaitRequests(1, TIMEOUT);
+        assertTrue(System.currentTimeMillis() - startTime >= BATCH_WINDOW);
+        awaitQueueEmpty();
+        assertEquals(Collections.singletonList("activation-1"), callbackServer.getActivationIds(0));
+    }
+
+    private void awaitQueueEmpty() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (callbackDispatcher.getQueueSize() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Callback queue was not drained");
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.app.server.configuration.PowerAuthServiceConfiguration;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.entity.CallbackOutboxEntity;
+import io.getlime.security.powerauth.app.server.database.repository.CallbackOutboxRepository;
+import io.getlime.security.powerauth.app.server.service.callback.CallbackDispatcher;
+import io.getlime.security.powerauth.app.server.service.callback.CallbackOutbox;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the callback outbox claiming, delivery and removal of records against a local HTTP server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class CallbackOutboxTest {
+
+    private static final long TIMEOUT = 10000L;
+
+    private CallbackOutbox callbackOutbox;
+    private CallbackOutboxRepository callbackOutboxRepository;
+    private CallbackDispatcher callbackDispatcher;
+    private PowerAuthServiceConfiguration configuration;
+
+    private CallbackServerStub callbackServer;
+
+    @Autowired
+    public void setCallbackOutbox(CallbackOutbox callbackOutbox) {
+        this.callbackOutbox = callbackOutbox;
+    }
+
+    @Autowired
+    public void setCallbackOutboxRepository(CallbackOutboxRepository callbackOutboxRepository) {
+        this.callbackOutboxRepository = callbackOutboxRepository;
+    }
+
+    @Autowired
+    public void setCallbackDispatcher(CallbackDispatcher callbackDispatcher) {
+        this.callbackDispatcher = callbackDispatcher;
+    }
+
+    @Autowired
+    public void setConfiguration(PowerAuthServiceConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        // Records left by other tests would be claimed together with the records of this test
+        callbackOutboxRepository.deleteAll();
+        callbackServer = new CallbackServerStub();
+    }
+
+    @After
+    public void tearDown() {
+        callbackServer.close();
+        callbackOutboxRepository.deleteAll();
+    }
+
+    @Test
+    public void testRecordRemovedAfterDelivery() throws Exception {
+        final String activationId = UUID.randomUUID().toString();
+        callbackServer.holdResponses();
+        callbackOutbox.enqueue(callbackServer.getUrl(), false, activationId, ActivationStatus.ACTIVE);
+        callbackServer.awaitRequests(1, TIMEOUT);
+
+        // Polls during the delivery must keep the record
+        callbackOutbox.schedulePoll();
+        Thread.sleep(500);
+        final List<CallbackOutboxEntity> records = findAll();
+        assertEquals(1, records.size());
+        assertTrue(records.get(0).getTimestampClaimExpires().after(new Date()));
+
+        callbackServer.releaseResponses();
+        awaitRemoved(records.get(0).getId());
+        assertEquals(1, callbackServer.getRequests().size());
+        assertEquals(Collections.singletonList(activationId), callbackServer.getActivationIds(0));
+    }
+
+    @Test
+    public void testExpiredClaimReclaimed() throws Exception {
+        final CallbackOutboxEntity expiredRecord = createRecord(new Date(System.currentTimeMillis() - 1000));
+        final CallbackOutboxEntity claimedRecord = createRecord(new Date(System.currentTimeMillis() + TIMEOUT * 6));
+
+        callbackOutbox.schedulePoll();
+        callbackServer.awaitRequests(1, TIMEOUT);
+        awaitRemoved(expiredRecord.getId());
+
+        assertEquals(1, callbackServer.getRequests().size());
+        assertEquals(Collections.singletonList(expiredRecord.getActivationId()), callbackServer.getActivationIds(0));
+        assertTrue(callbackOutboxRepository.findById(claimedRecord.getId()).isPresent());
+    }
+
+    @Test
+    public void testFullQueueKeepsRecordsClaimed() throws Exception {
+        final int queueCapacity = configuration.getCallbackQueueCapacity();
+        try {
+            // Only a single delivery fits into the dispatcher queue
+            configuration.setCallbackQueueCapacity(callbackDispatcher.getQueueSize() + 1);
+            callbackServer.holdResponses();
+            final List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                ids.add(createRecord(null).getId());
+            }
+
+            callbackOutbox.schedulePoll();
+            callbackServer.awaitRequests(1, TIMEOUT);
+            Thread.sleep(500);
+
+            assertEquals(1, callbackServer.getRequests().size());
+            final Date now = new Date();
+            for (Long id : ids) {
+                final CallbackOutboxEntity record = callbackOutboxRepository.findById(id).orElseThrow(AssertionError::new);
+                assertNotNull(record.getTimestampClaimExpires());
+                assertTrue(record.getTimestampClaimExpires().after(now));
+            }
+
+            // Records which did not fit into the queue are not claimed again before their claim expires
+            callbackServer.releaseResponses();
+            awaitRemoved(ids.get(0));
+            assertEquals(1, callbackServer.getRequests().size());
+            assertTrue(callbackOutboxRepository.findById(ids.get(1)).isPresent());
+            assertTrue(callbackOutboxRepository.findById(ids.get(2)).isPresent());
+        } finally {
+            configuration.setCallbackQueueCapacity(queueCapacity);
+        }
+    }
+
+    private CallbackOutboxEntity createRecord(Date timestampClaimExpires) {
+        CallbackOutboxEntity entity = new CallbackOutboxEntity();
+        entity.setCallbackUrl(callbackServer.getUrl());
+        entity.setBatched(false);
+        entity.setActivationId(UUID.randomUUID().toString());
+        entity.setActivationStatus(ActivationStatus.ACTIVE);
+        entity.setTimestampCreated(new Date());
+        entity.setTimestampClaimExpires(timestampClaimExpires);
+        return callbackOutboxRepository.save(entity);
+    }
+
+    private List<CallbackOutboxEntity> findAll() {
+        final List<CallbackOutboxEntity> records = new ArrayList<>();
+        callbackOutboxRepository.findAll().forEach(records::add);
+        return records;
+    }
+
+    /**
+     * Wait until the record is removed, finished records are removed by the next poll of the outbox.
+     */
+    private void awaitRemoved(Long id) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (callbackOutboxRepository.findById(id).isPresent()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Callback outbox record was not removed");
+            callbackOutbox.schedulePoll();
+            Thread.sleep(100);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Local HTTP server receiving callback requests in tests. Responses can be held back and their status code
+ * can be chosen by the index of the request.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class CallbackServerStub implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+    private final List<String> requests = new ArrayList<>();
+
+    private volatile IntUnaryOperator responseStatus = index -> 200;
+    private volatile CountDownLatch responseRelease = new CountDownLatch(0);
+
+    CallbackServerStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/callback", exchange -> {
+            final String body = StreamUtils.copyToString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            final int index;
+            synchronized (requests) {
+                index = requests.size();
+                requests.add(body);
+            }
+            final CountDownLatch release = responseRelease;
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(responseStatus.applyAsInt(index), -1);
+            exchange.close();
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/callback";
+    }
+
+    void setResponseStatus(IntUnaryOperator responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    void holdResponses() {
+        responseRelease = new CountDownLatch(1);
+    }
+
+    void releaseResponses() {
+        responseRelease.countDown();
+    }
+
+    List<String> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    /**
+     * Get activation IDs sent in given request, the request contains either a single activation ID,
+     * or an array of activations in batched mode.
+     */
+    List<String> getActivationIds(int index) throws IOException {
+        final String body = getRequests().get(index);
+        final List<String> activationIds = new ArrayList<>();
+        if (body.startsWith("[")) {
+            for (Object item : objectMapper.readValue(body, List.class)) {
+                activationIds.add((String) ((Map<?, ?>) item).get("activationId"));
+            }
+        } else {
+            activationIds.add((String) objectMapper.readValue(body, Map.class).get("activationId"));
+        }
+        return activationIds;
+    }
+
+    void awaitRequests(int count, long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (getRequests().size() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Expected " + count + " callback requests, received " + getRequests().size());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Override
+    public void close() {
+        releaseResponses();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.app.server.configuration.ReadReplicaDataSourceConfiguration;
+import io.getlime.security.powerauth.app.server.configuration.ShardingDataSourceConfiguration;
+import org.junit.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the data source configurations verifying that sharding cannot be enabled together with the read replica.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class DataSourceConfigurationTest {
+
+    @Test
+    public void testShardingWithReadReplicaFailsOnStartup() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(ShardingDataSourceConfiguration.class, ReadReplicaDataSourceConfiguration.class)
+                .withPropertyValues(
+                        "powerauth.service.datasource.sharding.enabled=true",
+                        "powerauth.service.datasource.sharding.urls=jdbc:h2:mem:powerauth_shard_1",
+                        "powerauth.service.datasource.sharding.username=sa",
+                        "powerauth.service.datasource.sharding.password=",
+                        "powerauth.service.datasource.replica.enabled=true",
+                        "powerauth.service.datasource.replica.url=jdbc:h2:mem:powerauth_replica",
+                        "powerauth.service.datasource.replica.username=sa",
+                        "powerauth.service.datasource.replica.password=",
+                        "powerauth.service.datasource.replica.retryIntervalInMilliseconds=30000")
+                .run(context -> {
+                    final Throwable failure = context.getStartupFailure();
+                    assertNotNull(failure);
+                    Throwable rootCause = failure;
+                    while (rootCause.getCause() != null) {
+                        rootCause = rootCause.getCause();
+                    }
+                    assertTrue(rootCause instanceof IllegalStateException);
+                    assertTrue(rootCause.getMessage().startsWith("Sharding cannot be combined with the read replica"));
+                });
+    }
+
+}
@@ -0,0 +1,108 @@
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.powerauth.soap.SignatureType;
+import io.getlime.powerauth.soap.VerifySignatureRequest;
+import io.getlime.powerauth.soap.VerifySignatureResponse;
+import io.getlime.security.powerauth.app.server.controller.RESTRequestWrapper;
+import io.getlime.security.powerauth.app.server.controller.RESTResponseWrapper;
+import io.getlime.security.powerauth.app.server.pipeline.PipelineServer;
+import io.getlime.security.powerauth.soap.spring.client.PowerAuthPipelineClient;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Loopback benchmark comparing signature verification over the pipelined protocol with the RESTful API.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "powerauth.service.pipeline.enabled=true",
+        "powerauth.service.pipeline.port=0"
+})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PipelineProtocolBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 50_000;
+
+    @LocalServerPort
+    private int serverPort;
+
+    private PipelineServer pipelineServer;
+
+    @Autowired
+    public void setPipelineServer(PipelineServer pipelineServer) {
+        this.pipelineServer = pipelineServer;
+    }
+
+    @Ignore("Benchmark, run manually.")
+    @Test
+    public void benchmarkPipelineProtocol() throws Exception {
+        final VerifySignatureRequest request = new VerifySignatureRequest();
+        request.setActivationId(UUID.randomUUID().toString());
+        request.setApplicationKey("Kjmfm1N2zZyNbXwvCWChUA==");
+        request.setData("POST&L3BhL3NpZ25hdHVyZS92YWxpZGF0ZQ==&bm9uY2U=&ZGF0YQ==");
+        request.setSignature("12345678-87654321");
+        request.setSignatureType(SignatureType.POSSESSION_KNOWLEDGE);
+
+        // RESTful API, each thread sends requests over its own HTTP connection
+        final RestTemplate restTemplate = new RestTemplate();
+        final String url = "http://localhost:" + serverPort + "/rest/signature/verify";
+        final ParameterizedTypeReference<RESTResponseWrapper<VerifySignatureResponse>> responseType = new ParameterizedTypeReference<RESTResponseWrapper<VerifySignatureResponse>>() {};
+        run("REST", () -> {
+            final VerifySignatureResponse response = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(new RESTRequestWrapper<>(request)), responseType)
+                    .getBody().getResponseObject();
+            assertFalse(response.isSignatureValid());
+            return null;
+        });
+
+        // Pipelined protocol, all threads share a single connection
+        try (PowerAuthPipelineClient client = new PowerAuthPipelineClient("localhost", pipelineServer.getLocalAddress().getPort())) {
+            client.connect();
+            run("Pipeline", () -> {
+                assertFalse(client.verifySignature(request).isSignatureValid());
+                return null;
+            });
+        }
+    }
+
+    private void run(String name, Callable<Void> call) throws Exception {
+        // Warm up
+        execute(call, REQUESTS / 10);
+        final long start = System.nanoTime();
+        execute(call, REQUESTS);
+        final long time = System.nanoTime() - start;
+        System.out.printf("%-8s requests: %d, threads: %d, time: %d ms, throughput: %.0f req/s%n",
+                name, REQUESTS, THREADS, time / 1_000_000, REQUESTS / (time / 1_000_000_000.0));
+    }
+
+    private void execute(Callable<Void> call, int requests) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Callable<Void>> calls = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                calls.add(call);
+            }
+            for (Future<Void> future : executorService.invokeAll(calls)) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+}
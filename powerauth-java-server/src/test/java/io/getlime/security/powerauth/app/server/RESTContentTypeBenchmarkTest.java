@@ -0,0 +1,155 @@
+package io.getlime.security.powerauth.app.server;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.ActivationStatus;
+import io.getlime.security.powerauth.SignatureType;
+import io.getlime.security.powerauth.VerifySignatureRequest;
+import io.getlime.security.powerauth.VerifySignatureResponse;
+import io.getlime.security.powerauth.app.server.controller.RESTRequestWrapper;
+import io.getlime.security.powerauth.app.server.controller.RESTResponseWrapper;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.SOAPMessage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark comparing encoding and decoding cost and payload size of the RESTful API in JSON
+ * and CBOR content types with the SOAP API, using the signature verification request and response.
+ */
+public class RESTContentTypeBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private interface Codec {
+        byte[] encode() throws Exception;
+        Object decode(byte[] data) throws Exception;
+    }
+
+    @Ignore("Benchmark, run manually.")
+    @Test
+    public void benchmarkContentTypes() throws Exception {
+        final VerifySignatureRequest request = new VerifySignatureRequest();
+        request.setActivationId(UUID.randomUUID().toString());
+        request.setApplicationKey(BaseEncoding.base64().encode(randomBytes(16)));
+        request.setData("POST&L3BhL3NpZ25hdHVyZS92YWxpZGF0ZQ==&" + BaseEncoding.base64().encode(randomBytes(16)) + "&" + BaseEncoding.base64().encode(randomBytes(256)));
+        request.setSignature("12345678-87654321-13572468");
+        request.setSignatureType(SignatureType.POSSESSION_KNOWLEDGE);
+
+        final VerifySignatureResponse response = new VerifySignatureResponse();
+        response.setSignatureValid(true);
+        response.setActivationStatus(ActivationStatus.ACTIVE);
+        response.setActivationId(request.getActivationId());
+        response.setUserId("user_1234567");
+        response.setApplicationId(1L);
+        response.setSignatureType(SignatureType.POSSESSION_KNOWLEDGE);
+        response.setRemainingAttempts(BigInteger.valueOf(5));
+
+        final ObjectMapper jsonMapper = new ObjectMapper();
+        final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        final JAXBContext jaxbContext = JAXBContext.newInstance(VerifySignatureRequest.class, VerifySignatureResponse.class);
+        final MessageFactory messageFactory = MessageFactory.newInstance();
+
+        for (String format : new String[] {"JSON", "CBOR", "SOAP"}) {
+            final Codec requestCodec;
+            final Codec responseCodec;
+            switch (format) {
+                case "JSON":
+                    requestCodec = jacksonCodec(jsonMapper, new RESTRequestWrapper<>(request), new TypeReference<RESTRequestWrapper<VerifySignatureRequest>>() {});
+                    responseCodec = jacksonCodec(jsonMapper, new RESTResponseWrapper<>("OK", response), new TypeReference<RESTResponseWrapper<VerifySignatureResponse>>() {});
+                    break;
+                case "CBOR":
+                    requestCodec = jacksonCodec(cborMapper, new RESTRequestWrapper<>(request), new TypeReference<RESTRequestWrapper<VerifySignatureRequest>>() {});
+                    responseCodec = jacksonCodec(cborMapper, new RESTResponseWrapper<>("OK", response), new TypeReference<RESTResponseWrapper<VerifySignatureResponse>>() {});
+                    break;
+                default:
+                    requestCodec = soapCodec(jaxbContext, messageFactory, request);
+                    responseCodec = soapCodec(jaxbContext, messageFactory, response);
+                    break;
+            }
+            measure(format + " request", requestCodec);
+            measure(format + " response", responseCodec);
+        }
+    }
+
+    private void measure(String name, Codec codec) throws Exception {
+        final byte[] data = codec.encode();
+        assertEquals(data.length, codec.encode().length);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            codec.decode(codec.encode());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.encode();
+        }
+        final long encodeTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.decode(data);
+        }
+        final long decodeTime = System.nanoTime() - start;
+        System.out.printf("%-14s size: %5d B, encode: %7.2f us, decode: %7.2f us%n",
+                name, data.length, encodeTime / 1000.0 / ITERATIONS, decodeTime / 1000.0 / ITERATIONS);
+    }
+
+    private <T> Codec jacksonCodec(ObjectMapper mapper, T value, TypeReference<T> type) {
+        return new Codec() {
+            @Override
+            public byte[] encode() throws Exception {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            @Override
+            public Object decode(byte[] data) throws Exception {
+                return mapper.readValue(data, type);
+            }
+        };
+    }
+
+    private Codec soapCodec(JAXBContext jaxbContext, MessageFactory messageFactory, Object value) {
+        return new Codec() {
+            @Override
+            public byte[] encode() throws Exception {
+                final SOAPMessage message = messageFactory.createMessage();
+                final Marshaller marshaller = jaxbContext.createMarshaller();
+                marshaller.marshal(value, message.getSOAPBody());
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                message.writeTo(outputStream);
+                return outputStream.toByteArray();
+            }
+
+            @Override
+            public Object decode(byte[] data) throws Exception {
+                final SOAPMessage message = messageFactory.createMessage(null, new ByteArrayInputStream(data));
+                final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+                Node payload = message.getSOAPBody().getFirstChild();
+                while (payload != null && payload.getNodeType() != Node.ELEMENT_NODE) {
+                    payload = payload.getNextSibling();
+                }
+                return unmarshaller.unmarshal(payload);
+            }
+        };
+    }
+
+    private byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.*;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests verifying that changes of cached reference entities made by admin operations are visible
+ * in subsequent lookups immediately.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ReferenceEntityCacheTest {
+
+    private PowerAuthService powerAuthService;
+
+    @Autowired
+    public void setPowerAuthService(PowerAuthService powerAuthService) {
+        this.powerAuthService = powerAuthService;
+    }
+
+    @Test
+    public void testApplicationChangesVisible() throws Exception {
+        final String applicationName = "Test_" + System.currentTimeMillis();
+        final CreateApplicationRequest createApplicationRequest = new CreateApplicationRequest();
+        createApplicationRequest.setApplicationName(applicationName);
+        final long applicationId = powerAuthService.createApplication(createApplicationRequest).getApplicationId();
+
+        boolean applicationListed = false;
+        for (GetApplicationListResponse.Applications application : powerAuthService.getApplicationList(new GetApplicationListRequest()).getApplications()) {
+            if (application.getId() == applicationId) {
+                applicationListed = true;
+                assertEquals(applicationName, application.getApplicationName());
+            }
+        }
+        assertTrue(applicationListed);
+
+        // Load the application detail into the cache before it is changed
+        assertEquals(1, getApplicationDetail(applicationId).getVersions().size());
+
+        final CreateApplicationVersionRequest createApplicationVersionRequest = new CreateApplicationVersionRequest();
+        createApplicationVersionRequest.setApplicationId(applicationId);
+        createApplicationVersionRequest.setApplicationVersionName("test");
+        final CreateApplicationVersionResponse createApplicationVersionResponse = powerAuthService.createApplicationVersion(createApplicationVersionRequest);
+        assertEquals(2, getApplicationDetail(applicationId).getVersions().size());
+
+        final LookupApplicationByAppKeyRequest lookupRequest = new LookupApplicationByAppKeyRequest();
+        lookupRequest.setApplicationKey(createApplicationVersionResponse.getApplicationKey());
+        assertEquals(applicationId, powerAuthService.lookupApplicationByAppKey(lookupRequest).getApplicationId());
+
+        final UnsupportApplicationVersionRequest unsupportRequest = new UnsupportApplicationVersionRequest();
+        unsupportRequest.setApplicationVersionId(createApplicationVersionResponse.getApplicationVersionId());
+        powerAuthService.unsupportApplicationVersion(unsupportRequest);
+        assertFalse(isVersionSupported(applicationId, createApplicationVersionResponse.getApplicationVersionId()));
+
+        final SupportApplicationVersionRequest supportRequest = new SupportApplicationVersionRequest();
+        supportRequest.setApplicationVersionId(createApplicationVersionResponse.getApplicationVersionId());
+        powerAuthService.supportApplicationVersion(supportRequest);
+        assertTrue(isVersionSupported(applicationId, createApplicationVersionResponse.getApplicationVersionId()));
+    }
+
+    @Test
+    public void testCallbackUrlChangesVisible() throws Exception {
+        final CreateApplicationRequest createApplicationRequest = new CreateApplicationRequest();
+        createApplicationRequest.setApplicationName("Test_" + System.currentTimeMillis());
+        final long applicationId = powerAuthService.createApplication(createApplicationRequest).getApplicationId();
+        assertEquals(0, getCallbackUrlList(applicationId).getCallbackUrlList().size());
+
+        final CreateCallbackUrlRequest createRequest = new CreateCallbackUrlRequest();
+        createRequest.setApplicationId(applicationId);
+        createRequest.setName("test");
+        createRequest.setCallbackUrl("http://localhost:8080/callback");
+        final String callbackUrlId = powerAuthService.createCallbackUrl(createRequest).getId();
+        assertEquals(1, getCallbackUrlList(applicationId).getCallbackUrlList().size());
+
+        final RemoveCallbackUrlRequest removeRequest = new RemoveCallbackUrlRequest();
+        removeRequest.setId(callbackUrlId);
+        assertTrue(powerAuthService.removeCallbackUrl(removeRequest).isRemoved());
+        assertEquals(0, getCallbackUrlList(applicationId).getCallbackUrlList().size());
+    }
+
+    @Test
+    public void testIntegrationChangesVisible() throws Exception {
+        final CreateIntegrationRequest createRequest = new CreateIntegrationRequest();
+        createRequest.setName("Test_" + System.currentTimeMillis());
+        final String integrationId = powerAuthService.createIntegration(createRequest).getId();
+        assertTrue(isIntegrationListed(integrationId));
+
+        final RemoveIntegrationRequest removeRequest = new RemoveIntegrationRequest();
+        removeRequest.setId(integrationId);
+        assertTrue(powerAuthService.removeIntegration(removeRequest).isRemoved());
+        assertFalse(isIntegrationListed(integrationId));
+    }
+
+    private GetApplicationDetailResponse getApplicationDetail(long applicationId) throws Exception {
+        final GetApplicationDetailRequest request = new GetApplicationDetailRequest();
+        request.setApplicationId(applicationId);
+        return powerAuthService.getApplicationDetail(request);
+    }
+
+    private boolean isVersionSupported(long applicationId, long versionId) throws Exception {
+        for (GetApplicationDetailResponse.Versions version : getApplicationDetail(applicationId).getVersions()) {
+            if (version.getApplicationVersionId() == versionId) {
+                return version.isSupported();
+            }
+        }
+        throw new IllegalStateException("Version not found: " + versionId);
+    }
+
+    private GetCallbackUrlListResponse getCallbackUrlList(long applicationId) throws Exception {
+        final GetCallbackUrlListRequest request = new GetCallbackUrlListRequest();
+        request.setApplicationId(applicationId);
+        return powerAuthService.getCallbackUrlList(request);
+    }
+
+    private boolean isIntegrationListed(String integrationId) throws Exception {
+        for (GetIntegrationListResponse.Items item : powerAuthService.getIntegrationList().getItems()) {
+            if (integrationId.equals(item.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
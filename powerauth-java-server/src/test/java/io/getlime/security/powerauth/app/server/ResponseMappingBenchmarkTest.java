@@ -0,0 +1,127 @@
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.GetActivationListForUserResponse;
+import io.getlime.security.powerauth.SignatureAuditResponse;
+import io.getlime.security.powerauth.app.server.converter.ActivationListItemConverter;
+import io.getlime.security.powerauth.app.server.converter.SignatureAuditItemConverter;
+import io.getlime.security.powerauth.app.server.converter.XMLGregorianCalendarConverter;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureEntity;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of mapping large activation lists and signature audit logs to response objects,
+ * including comparison of date conversion with a shared datatype factory and with a factory lookup
+ * for each conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmarkTest {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private final ActivationListItemConverter activationListItemConverter = new ActivationListItemConverter();
+    private final SignatureAuditItemConverter signatureAuditItemConverter = new SignatureAuditItemConverter();
+
+    private List<ActivationRecordEntity> activations;
+    private List<SignatureEntity> signatures;
+
+    @Ignore("Benchmark, run manually.")
+    @Test
+    public void benchmarkResponseMapping() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ResponseMappingBenchmarkTest.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        final ApplicationEntity application = new ApplicationEntity();
+        application.setId(1L);
+        application.setName("benchmark");
+        activations = new ArrayList<>(size);
+        signatures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ActivationRecordEntity activation = new ActivationRecordEntity();
+            activation.setActivationId(UUID.randomUUID().toString());
+            activation.setActivationName("Activation " + i);
+            activation.setActivationStatus(ActivationStatus.ACTIVE);
+            activation.setUserId("user_" + i);
+            activation.setExtras("{\"platform\":\"ios\"}");
+            activation.setTimestampCreated(new Date(System.currentTimeMillis() - i * 60_000L));
+            activation.setTimestampLastUsed(new Date());
+            activation.setApplication(application);
+            activations.add(activation);
+
+            final SignatureEntity signature = new SignatureEntity();
+            signature.setId((long) i);
+            signature.setActivation(activation);
+            signature.setActivationCounter((long) i);
+            signature.setActivationStatus(ActivationStatus.ACTIVE);
+            signature.setAdditionalInfo("{\"entry\":[{\"key\":\"ip\",\"value\":\"127.0.0.1\"}]}");
+            signature.setDataBase64("UE9TVCYvcGEvc2lnbmF0dXJlL3ZhbGlkYXRl");
+            signature.setSignature("12345678-87654321");
+            signature.setSignatureType("possession_knowledge");
+            signature.setValid(true);
+            signature.setNote("signature_ok");
+            signature.setTimestampCreated(new Date(System.currentTimeMillis() - i * 1_000L));
+            signatures.add(signature);
+        }
+    }
+
+    @Benchmark
+    public GetActivationListForUserResponse mapActivationList() throws DatatypeConfigurationException {
+        final GetActivationListForUserResponse response = new GetActivationListForUserResponse();
+        for (ActivationRecordEntity activation : activations) {
+            response.getActivations().add(activationListItemConverter.convert(activation));
+        }
+        return response;
+    }
+
+    @Benchmark
+    public SignatureAuditResponse mapSignatureAuditLog() throws DatatypeConfigurationException {
+        final SignatureAuditResponse response = new SignatureAuditResponse();
+        for (SignatureEntity signature : signatures) {
+            response.getItems().add(signatureAuditItemConverter.convert(signature));
+        }
+        return response;
+    }
+
+    @Benchmark
+    public void convertDatesWithSharedFactory(Blackhole blackhole) throws DatatypeConfigurationException {
+        for (SignatureEntity signature : signatures) {
+            blackhole.consume(XMLGregorianCalendarConverter.convertFrom(signature.getTimestampCreated()));
+        }
+    }
+
+    @Benchmark
+    public void convertDatesWithFactoryLookup(Blackhole blackhole) throws DatatypeConfigurationException {
+        for (SignatureEntity signature : signatures) {
+            final GregorianCalendar c = new GregorianCalendar();
+            c.setTime(signature.getTimestampCreated());
+            blackhole.consume(DatatypeFactory.newInstance().newXMLGregorianCalendar(c));
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.*;
+import io.getlime.security.powerauth.app.server.database.sharding.ReferenceDataReplicator;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRouter;
+import io.getlime.security.powerauth.app.server.database.sharding.ShardRoutingDataSource;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests verifying that activation data are stored in activation shards, reference data are replicated to all
+ * shards, activations of a user are listed from all shards and waiting for activation status change reads
+ * the activation shard. Each shard is an in-memory H2 database.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:powerauth_shard_0;DB_CLOSE_DELAY=-1",
+        "powerauth.service.datasource.sharding.enabled=true",
+        "powerauth.service.datasource.sharding.urls=jdbc:h2:mem:powerauth_shard_1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:powerauth_shard_2;DB_CLOSE_DELAY=-1",
+        "powerauth.service.datasource.sharding.username=sa",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ShardingTest {
+
+    private PowerAuthService powerAuthService;
+    private ShardRouter shardRouter;
+    private ReferenceDataReplicator referenceDataReplicator;
+    private List<JdbcTemplate> shards;
+
+    @Autowired
+    public void setPowerAuthService(PowerAuthService powerAuthService) {
+        this.powerAuthService = powerAuthService;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Autowired
+    public void setReferenceDataReplicator(ReferenceDataReplicator referenceDataReplicator) {
+        this.referenceDataReplicator = referenceDataReplicator;
+    }
+
+    @Autowired
+    public void setShardRoutingDataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        this.shards = new ArrayList<>();
+        for (DataSource dataSource : shardRoutingDataSource.getShardDataSources()) {
+            shards.add(new JdbcTemplate(dataSource));
+        }
+    }
+
+    /**
+     * Create schema of other shards from the schema of the default shard, which is created by Hibernate.
+     */
+    @Before
+    public void createShardSchema() {
+        final List<String> script = shards.get(0).queryForList("SCRIPT NODATA", String.class);
+        for (JdbcTemplate shard : shards.subList(1, shards.size())) {
+            if (shard.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PA_ACTIVATION'", Long.class) == 0) {
+                for (String statement : script) {
+                    if (!statement.startsWith("--") && !statement.startsWith("CREATE USER")) {
+                        shard.execute(statement);
+                    }
+                }
+            }
+        }
+        referenceDataReplicator.replicate();
+    }
+
+    @Test
+    public void testActivationsStoredInShards() throws Exception {
+        assertEquals(3, shardRouter.getShardCount());
+        final long applicationId = createApplication();
+        final String userId = "user_" + UUID.randomUUID();
+
+        final Set<Integer> usedShards = new HashSet<>();
+        final List<String> activationIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            final InitActivationRequest request = new InitActivationRequest();
+            request.setApplicationId(applicationId);
+            request.setUserId(userId);
+            final String activationId = powerAuthService.initActivation(request).getActivationId();
+            activationIds.add(activationId);
+
+            // Activation is stored only in the shard determined by the activation ID
+            final int shard = shardRouter.getShard(activationId);
+            usedShards.add(shard);
+            for (int j = 0; j < shards.size(); j++) {
+                assertEquals(j == shard ? 1L : 0L, (long) shards.get(j).queryForObject("SELECT COUNT(*) FROM pa_activation WHERE activation_id = ?", Long.class, activationId));
+            }
+        }
+        assertEquals(3, usedShards.size());
+
+        for (String activationId : activationIds) {
+            final GetActivationStatusRequest request = new GetActivationStatusRequest();
+            request.setActivationId(activationId);
+            assertEquals(ActivationStatus.CREATED, powerAuthService.getActivationStatus(request).getActivationStatus());
+        }
+
+        final GetActivationListForUserRequest request = new GetActivationListForUserRequest();
+        request.setUserId(userId);
+        final Set<String> listedActivationIds = new HashSet<>();
+        for (GetActivationListForUserResponse.Activations activation : powerAuthService.getActivationListForUser(request).getActivations()) {
+            listedActivationIds.add(activation.getActivationId());
+        }
+        assertEquals(new HashSet<>(activationIds), listedActivationIds);
+    }
+
+    @Test
+    public void testReferenceDataReplicated() throws Exception {
+        final long applicationId = createApplication();
+        for (JdbcTemplate shard : shards) {
+            assertEquals(1L, (long) shard.queryForObject("SELECT COUNT(*) FROM pa_application WHERE id = ?", Long.class, applicationId));
+            assertEquals(1L, (long) shard.queryForObject("SELECT COUNT(*) FROM pa_master_keypair WHERE application_id = ?", Long.class, applicationId));
+            assertEquals(1L, (long) shard.queryForObject("SELECT COUNT(*) FROM pa_application_version WHERE application_id = ?", Long.class, applicationId));
+        }
+
+        final CreateIntegrationRequest createIntegrationRequest = new CreateIntegrationRequest();
+        createIntegrationRequest.setName("test");
+        final String integrationId = powerAuthService.createIntegration(createIntegrationRequest).getId();
+        for (JdbcTemplate shard : shards) {
+            assertEquals(1L, (long) shard.queryForObject("SELECT COUNT(*) FROM pa_integration WHERE id = ?", Long.class, integrationId));
+        }
+
+        final RemoveIntegrationRequest removeIntegrationRequest = new RemoveIntegrationRequest();
+        removeIntegrationRequest.setId(integrationId);
+        powerAuthService.removeIntegration(removeIntegrationRequest);
+        for (JdbcTemplate shard : shards) {
+            assertEquals(0L, (long) shard.queryForObject("SELECT COUNT(*) FROM pa_integration WHERE id = ?", Long.class, integrationId));
+        }
+    }
+
+    @Test
+    public void testWaitForActivationStatusChangeTimeout() throws Exception {
+        final long applicationId = createApplication();
+
+        // Status of an activation outside of the default shard is read again when the waiting times out
+        String activationId;
+        do {
+            final InitActivationRequest request = new InitActivationRequest();
+            request.setApplicationId(applicationId);
+            request.setUserId("user_" + UUID.randomUUID());
+            activationId = powerAuthService.initActivation(request).getActivationId();
+        } while (shardRouter.getShard(activationId) == 0);
+
+        final WaitForActivationStatusChangeRequest request = new WaitForActivationStatusChangeRequest();
+        request.setActivationId(activationId);
+        request.setActivationStatus(ActivationStatus.CREATED);
+        request.setTimeout(100L);
+        final WaitForActivationStatusChangeResponse response = powerAuthService.waitForActivationStatusChange(request).get();
+        assertEquals(ActivationStatus.CREATED, response.getActivationStatus());
+        assertFalse(response.isStatusChanged());
+    }
+
+    private long createApplication() throws Exception {
+        final CreateApplicationRequest request = new CreateApplicationRequest();
+        request.setApplicationName("Test_" + UUID.randomUUID());
+        return powerAuthService.createApplication(request).getApplicationId();
+    }
+
+}
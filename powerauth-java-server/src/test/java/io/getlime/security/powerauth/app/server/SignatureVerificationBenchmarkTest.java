@@ -0,0 +1,154 @@
+package io.getlime.security.powerauth.app.server;
+
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.CreateApplicationRequest;
+import io.getlime.security.powerauth.CreateApplicationResponse;
+import io.getlime.security.powerauth.SignatureType;
+import io.getlime.security.powerauth.app.server.database.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.server.database.model.ActivationStatus;
+import io.getlime.security.powerauth.app.server.database.model.KeyEncryptionMode;
+import io.getlime.security.powerauth.app.server.database.model.entity.ActivationRecordEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.ApplicationEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.MasterKeyPairEntity;
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureEntity;
+import io.getlime.security.powerauth.app.server.database.repository.SignatureVerificationRepository;
+import io.getlime.security.powerauth.app.server.database.repository.impl.JdbcSignatureVerificationRepository;
+import io.getlime.security.powerauth.app.server.database.repository.impl.JpaSignatureVerificationRepository;
+import io.getlime.security.powerauth.app.server.database.writer.AuditRecordWriter;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of the data access of signature verification on the H2 database. The benchmark compares the average
+ * latency of a transaction which locks the activation, updates its counter and inserts a signature audit record,
+ * using the JPA and the plain JDBC implementation of the signature verification repository.
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SignatureVerificationBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private PowerAuthService powerAuthService;
+    private RepositoryCatalogue repositoryCatalogue;
+    private AuditRecordWriter auditRecordWriter;
+    private ApplicationContext applicationContext;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public void setPowerAuthService(PowerAuthService powerAuthService) {
+        this.powerAuthService = powerAuthService;
+    }
+
+    @Autowired
+    public void setRepositoryCatalogue(RepositoryCatalogue repositoryCatalogue) {
+        this.repositoryCatalogue = repositoryCatalogue;
+    }
+
+    @Autowired
+    public void setAuditRecordWriter(AuditRecordWriter auditRecordWriter) {
+        this.auditRecordWriter = auditRecordWriter;
+    }
+
+    @Autowired
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Ignore("Benchmark, run manually.")
+    @Test
+    public void benchmarkSignatureVerificationDataAccess() throws Exception {
+        final SignatureVerificationRepository jpaRepository = applicationContext.getAutowireCapableBeanFactory().createBean(JpaSignatureVerificationRepository.class);
+        final SignatureVerificationRepository jdbcRepository = applicationContext.getAutowireCapableBeanFactory().createBean(JdbcSignatureVerificationRepository.class);
+        final String activationId = createActivation();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            verifySignature(jpaRepository, activationId);
+            verifySignature(jdbcRepository, activationId);
+        }
+        final long jpaTime = measure(jpaRepository, activationId);
+        final long jdbcTime = measure(jdbcRepository, activationId);
+
+        final long expectedCounter = 2L * (WARMUP_ITERATIONS + ITERATIONS);
+        assertEquals(expectedCounter, (long) repositoryCatalogue.getActivationRepository().findActivationWithoutLock(activationId).getCounter());
+        System.out.printf("Average verification transaction, JPA: %.2f us, JDBC: %.2f us%n",
+                jpaTime / 1000.0 / ITERATIONS, jdbcTime / 1000.0 / ITERATIONS);
+    }
+
+    private long measure(SignatureVerificationRepository repository, String activationId) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            verifySignature(repository, activationId);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void verifySignature(SignatureVerificationRepository repository, String activationId) {
+        transactionTemplate.execute(status -> {
+            final Date now = new Date();
+            final ActivationRecordEntity activation = repository.findActivation(activationId);
+            activation.setCounter(activation.getCounter() + 1);
+            activation.setFailedAttempts(0L);
+            activation.setTimestampLastUsed(now);
+            repository.updateActivation(activation);
+
+            final SignatureEntity signatureAuditRecord = new SignatureEntity();
+            signatureAuditRecord.setActivation(activation);
+            signatureAuditRecord.setActivationCounter(activation.getCounter());
+            signatureAuditRecord.setActivationStatus(activation.getActivationStatus());
+            signatureAuditRecord.setAdditionalInfo("{}");
+            signatureAuditRecord.setDataBase64(randomBase64(64));
+            signatureAuditRecord.setSignature("12345678-12345678");
+            signatureAuditRecord.setSignatureType(SignatureType.POSSESSION_KNOWLEDGE.value());
+            signatureAuditRecord.setValid(true);
+            signatureAuditRecord.setNote("signature_ok");
+            signatureAuditRecord.setTimestampCreated(now);
+            auditRecordWriter.insertSignatureAuditRecord(signatureAuditRecord);
+            return null;
+        });
+    }
+
+    private String createActivation() throws Exception {
+        final CreateApplicationRequest createApplicationRequest = new CreateApplicationRequest();
+        createApplicationRequest.setApplicationName("Test_" + System.currentTimeMillis());
+        final CreateApplicationResponse createApplicationResponse = powerAuthService.createApplication(createApplicationRequest);
+        final ApplicationEntity application = repositoryCatalogue.getApplicationRepository().findById(createApplicationResponse.getApplicationId()).get();
+        final MasterKeyPairEntity masterKeyPair = repositoryCatalogue.getMasterKeyPairRepository().findFirstByApplicationIdOrderByTimestampCreatedDesc(application.getId());
+
+        // Keys are random data of the same size as real keys, they are not used for any cryptographic operation
+        final Date now = new Date();
+        final ActivationRecordEntity activation = new ActivationRecordEntity(UUID.randomUUID().toString(), "ABCDE-FGHIJ", "KLMNO-PQRST",
+                "benchmark_user", "benchmark", null, randomBase64(32), randomBase64(65), randomBase64(65), 0L, 0L, 5L,
+                now, new Date(now.getTime() + 300_000L), now, ActivationStatus.ACTIVE, null, KeyEncryptionMode.NO_ENCRYPTION,
+                masterKeyPair, application);
+        repositoryCatalogue.getActivationRepository().save(activation);
+        return activation.getActivationId();
+    }
+
+    private String randomBase64(int length) {
+        final byte[] bytes = new byte[length];
+        new SecureRandom().nextBytes(bytes);
+        return BaseEncoding.base64().encode(bytes);
+    }
+
+}
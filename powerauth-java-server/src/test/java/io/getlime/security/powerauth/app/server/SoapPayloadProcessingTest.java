@@ -0,0 +1,90 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server;
+
+import io.getlime.security.powerauth.GetSystemStatusRequest;
+import io.getlime.security.powerauth.GetSystemStatusResponse;
+import io.getlime.security.powerauth.app.server.endpoint.PooledJaxbPayloadMethodProcessor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.WebServiceMessageFactory;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.server.SoapMessageDispatcher;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test verifying that payloads of SOAP endpoint calls are processed by the pooled JAXB payload method processor.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SoapPayloadProcessingTest {
+
+    @SpyBean
+    private PooledJaxbPayloadMethodProcessor payloadMethodProcessor;
+
+    private ApplicationContext applicationContext;
+    private WebServiceMessageFactory messageFactory;
+
+    @Autowired
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Autowired
+    public void setMessageFactory(WebServiceMessageFactory messageFactory) {
+        this.messageFactory = messageFactory;
+    }
+
+    @Test
+    public void testPayloadProcessedByPooledProcessor() throws Exception {
+        final JAXBContext jaxbContext = JAXBContext.newInstance(GetSystemStatusRequest.class, GetSystemStatusResponse.class);
+        final WebServiceMessage request = messageFactory.createWebServiceMessage();
+        jaxbContext.createMarshaller().marshal(new GetSystemStatusRequest(), request.getPayloadResult());
+        final MessageContext messageContext = new DefaultMessageContext(request, messageFactory);
+
+        final SoapMessageDispatcher messageDispatcher = new SoapMessageDispatcher();
+        messageDispatcher.setApplicationContext(applicationContext);
+        messageDispatcher.receive(messageContext);
+
+        assertTrue(messageContext.hasResponse());
+        Object response = jaxbContext.createUnmarshaller().unmarshal(messageContext.getResponse().getPayloadSource());
+        if (response instanceof JAXBElement) {
+            response = ((JAXBElement<?>) response).getValue();
+        }
+        assertEquals("OK", ((GetSystemStatusResponse) response).getStatus());
+        verify(payloadMethodProcessor).resolveArgument(any(), any());
+        verify(payloadMethodProcessor).handleReturnValue(any(), any(), any());
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * PowerAuth Server and related software components
+ * Copyright (C) 2018 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.server.service.behavior.tasks;
+
+import io.getlime.security.powerauth.CreateApplicationRequest;
+import io.getlime.security.powerauth.GetSignatureStatisticsResponse;
+import io.getlime.security.powerauth.SignatureType;
+import io.getlime.security.powerauth.app.server.database.model.entity.SignatureStatisticsEntity;
+import io.getlime.security.powerauth.app.server.database.repository.SignatureStatisticsRepository;
+import io.getlime.security.powerauth.app.server.service.PowerAuthService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of signature statistics counting, flushing and merging of stored and pending counts.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SignatureStatisticsServiceBehaviorTest {
+
+    private static final String NOTE = "signature_ok";
+
+    private PowerAuthService powerAuthService;
+    private SignatureStatisticsRepository signatureStatisticsRepository;
+    private PlatformTransactionManager transactionManager;
+
+    private Long applicationId;
+    private Date from;
+    private Date to;
+
+    @Autowired
+    public void setPowerAuthService(PowerAuthService powerAuthService) {
+        this.powerAuthService = powerAuthService;
+    }
+
+    @Autowired
+    public void setSignatureStatisticsRepository(SignatureStatisticsRepository signatureStatisticsRepository) {
+        this.signatureStatisticsRepository = signatureStatisticsRepository;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        final CreateApplicationRequest request = new CreateApplicationRequest();
+        request.setApplicationName("Test_" + UUID.randomUUID());
+        applicationId = powerAuthService.createApplication(request).getApplicationId();
+        from = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3));
+        to = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+    }
+
+    @Test
+    public void testPendingCountsAreMergedWithStoredCounts() throws Exception {
+        final SignatureStatisticsServiceBehavior behavior = newBehavior();
+        behavior.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, true, NOTE, new Date());
+        behavior.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, true, NOTE, new Date());
+        assertStatistics(behavior, 2L);
+        assertEquals(0L, storedCount());
+
+        behavior.flushStatistics();
+        assertEquals(2L, storedCount());
+        behavior.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, true, NOTE, new Date());
+        assertStatistics(behavior, 3L);
+
+        behavior.flushStatistics();
+        assertEquals(3L, storedCount());
+        assertStatistics(behavior, 3L);
+    }
+
+    @Test
+    public void testFlushByMultipleInstances() throws Exception {
+        final SignatureStatisticsServiceBehavior firstInstance = newBehavior();
+        final SignatureStatisticsServiceBehavior secondInstance = newBehavior();
+        for (int i = 0; i < 5; i++) {
+            firstInstance.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, true, NOTE, new Date());
+            secondInstance.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, true, NOTE, new Date());
+        }
+        firstInstance.flushStatistics();
+        secondInstance.flushStatistics();
+        assertEquals(1, storedRecords().size());
+        assertEquals(10L, storedCount());
+    }
+
+    @Test
+    public void testPreviousDayCountsAreNotLost() throws Exception {
+        final SignatureStatisticsServiceBehavior behavior = newBehavior();
+        final Date yesterday = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+        behavior.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, false, NOTE, yesterday);
+        behavior.flushStatistics();
+        assertEquals(1L, storedCount());
+
+        // Signature of the previous day counted after the bucket was flushed and removed
+        behavior.recordSignature(applicationId, SignatureType.POSSESSION_KNOWLEDGE, false, NOTE, yesterday);
+        assertStatistics(behavior, 2L);
+        behavior.flushStatistics();
+        assertEquals(2L, storedCount());
+        assertEquals(1, storedRecords().size());
+    }
+
+    private SignatureStatisticsServiceBehavior newBehavior() {
+        return new SignatureStatisticsServiceBehavior(signatureStatisticsRepository, transactionManager);
+    }
+
+    private void assertStatistics(SignatureStatisticsServiceBehavior behavior, long expectedCount) throws Exception {
+        final GetSignatureStatisticsResponse response = behavior.getSignatureStatistics(applicationId, from, to);
+        assertEquals(1, response.getItems().size());
+        final GetSignatureStatisticsResponse.Items item = response.getItems().get(0);
+        assertEquals(applicationId.longValue(), item.getApplicationId());
+        assertEquals(SignatureType.POSSESSION_KNOWLEDGE, item.getSignatureType());
+        assertEquals(NOTE, item.getNote());
+        assertEquals(expectedCount, item.getCount());
+    }
+
+    private List<SignatureStatisticsEntity> storedRecords() {
+        return signatureStatisticsRepository.findStatisticsForApplication(applicationId, from, to);
+    }
+
+    private long storedCount() {
+        return storedRecords().stream().mapToLong(SignatureStatisticsEntity::getSignatureCount).sum();
+    }
+
+}